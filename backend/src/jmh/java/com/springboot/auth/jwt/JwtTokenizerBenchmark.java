@@ -0,0 +1,68 @@
+package com.springboot.auth.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+   AccessToken 하나를 검증하는 시간 비교
+   perRequestParser 는 키 링 도입 전처럼 요청마다 비밀 키를 Base64 로 인코딩/디코딩하고 Key 와 JwtParser 를 새로 만드는 경우
+   sharedParser 는 JwtTokenizer.getClaims (키와 파서를 한번만 만들고 kid 로 키를 찾음)
+
+   ./gradlew jmh
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenizerBenchmark {
+    private static final String SECRET = "benchmark-secret-key-for-jwt-tokenizer-0001";
+
+    private InMemoryTokenStore tokenStore;
+    private JwtTokenizer jwtTokenizer;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        tokenStore = new InMemoryTokenStore(10);
+        jwtTokenizer = new JwtTokenizer(tokenStore, SECRET, "k1", "", "k1", 30, 60);
+        accessToken = jwtTokenizer.generateAccessToken(
+                Map.of("username", "user@gmail.com", "memberId", 1L, "sid", "session"),
+                "user@gmail.com",
+                new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenStore.shutdown();
+    }
+
+    @Benchmark
+    public Jws<Claims> perRequestParser() {
+        String base64EncodedSecretKey = Encoders.BASE64.encode(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64EncodedSecretKey)))
+                .build()
+                .parseClaimsJws(accessToken);
+    }
+
+    @Benchmark
+    public Jws<Claims> sharedParser() {
+        return jwtTokenizer.getClaims(accessToken);
+    }
+}
@@ -0,0 +1,88 @@
+package com.springboot.redis;
+
+import com.springboot.answer.dto.AnswerResponseDto;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.entity.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+   QuestionResponseDto 하나를 JSON(Jackson2JsonRedisSerializer)과 CompactRedisSerializer 로 직렬화/역직렬화하는 시간 비교
+   contentLength 5000 은 compress-threshold-bytes(1024) 를 넘어서 압축되는 경우임
+   저장되는 크기 비교는 CompactRedisSerializerTest.smallerThanJson
+
+   ./gradlew jmh
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompactRedisSerializerBenchmark {
+    @Param({"100", "5000"})
+    private int contentLength;
+
+    private Jackson2JsonRedisSerializer<QuestionResponseDto> json;
+    private CompactRedisSerializer<QuestionResponseDto> compact;
+    private QuestionResponseDto question;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        // 같은 필드를 비교하도록 JSON 도 @JsonIgnore 필드를 포함함
+        json = new Jackson2JsonRedisSerializer<>(QuestionResponseDto.class);
+        json.setObjectMapper(Jackson2ObjectMapperBuilder.json()
+                .annotationIntrospector(CompactRedisTemplates.cacheAnnotationIntrospector())
+                .build());
+        compact = new CompactRedisSerializer<>(CompactRedisTemplates.smileMapper(), QuestionResponseDto.class, 1, 1024);
+
+        StringBuilder content = new StringBuilder();
+        while (content.length() < contentLength) {
+            content.append("RedisTemplate 으로 DTO 를 저장할 때 직렬화 방식은 어떤 것을 사용하나요? ");
+        }
+        question = QuestionResponseDto.builder()
+                .questionId(1_000L)
+                .title("스프링 부트에서 Redis 캐시를 사용하는 방법")
+                .content(content.substring(0, contentLength))
+                .memberId(7L)
+                .name("홍길동")
+                .questionStatus(Question.QuestionStatus.QUESTION_REGISTERED)
+                .visibility(Question.Visibility.QUESTION_PUBLIC)
+                .likeCount(12)
+                .viewCount(345)
+                .answer(AnswerResponseDto.builder().answerId(10L).content("답변").build())
+                .version(3L)
+                .build();
+        jsonBytes = json.serialize(question);
+        compactBytes = compact.serialize(question);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return json.serialize(question);
+    }
+
+    @Benchmark
+    public QuestionResponseDto jsonDeserialize() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(question);
+    }
+
+    @Benchmark
+    public QuestionResponseDto compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+}
@@ -1,11 +1,17 @@
 package com.springboot.answer.dto;
 
 import com.springboot.question.entity.Question;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+// Redis 캐시(CompactRedisSerializer)에서 읽을 때 Jackson 이 사용하는 생성자
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class AnswerResponseDto {
     private long answerId;
     private String content;
@@ -7,12 +7,14 @@ import com.springboot.exception.ExceptionCode;
 import com.springboot.member.service.MemberService;
 import com.springboot.question.entity.Question;
 import com.springboot.question.repository.QuestionRepository;
+import com.springboot.question.service.QuestionResponseCache;
 import com.springboot.question.service.QuestionService;
 import com.springboot.utils.CheckValidator;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -22,16 +24,20 @@ public class AnswerService {
     private final AnswerRepository answerRepository;
     private final CheckValidator checkValidator;
     private final QuestionRepository questionRepository;
+    private final QuestionResponseCache questionResponseCache;
 
-    public AnswerService(MemberService memberService, QuestionService questionService, AnswerRepository answerRepository, CheckValidator checkValidator, QuestionRepository questionRepository) {
+    public AnswerService(MemberService memberService, QuestionService questionService, AnswerRepository answerRepository, CheckValidator checkValidator, QuestionRepository questionRepository,
+                         QuestionResponseCache questionResponseCache) {
         this.memberService = memberService;
         this.questionService = questionService;
         this.answerRepository = answerRepository;
         this.checkValidator = checkValidator;
         this.questionRepository = questionRepository;
+        this.questionResponseCache = questionResponseCache;
     }
 
     // 답변 생성 서비스 로직 구현
+    @Transactional
     public Answer createAnswer(Answer answer) {
         // 먼저 회원이 있는지 검증해야함
         memberService.findVerifiedMember(answer.getMember().getMemberId());
@@ -54,10 +60,17 @@ public class AnswerService {
         questionRepository.save(question);
 
         // 답변 저장
-        return answerRepository.save(answer);
+        Answer savedAnswer = answerRepository.save(answer);
+
+        // 캐시된 질문 조회 응답에는 답변이 없으므로 지우고 ETag 가 바뀌도록 version 증가
+        questionRepository.increaseVersion(List.of(question.getQuestionId()));
+        questionResponseCache.evict(question.getQuestionId());
+
+        return savedAnswer;
     }
 
     // 답변 수정 서비스 로직 구현
+    @Transactional
     public Answer updateAnswer(Answer answer) {
         // 관리자 검증
         checkValidator.checkAdmin();
@@ -69,7 +82,11 @@ public class AnswerService {
         Optional.ofNullable(answer.getContent())
                 .ifPresent(content -> findAnswer.setContent(content));
 
-        return answerRepository.save(findAnswer);
+        Answer savedAnswer = answerRepository.save(findAnswer);
+        questionRepository.increaseVersion(List.of(savedAnswer.getQuestion().getQuestionId()));
+        questionResponseCache.evict(savedAnswer.getQuestion().getQuestionId());
+
+        return savedAnswer;
     }
 
     // 답변 삭제 서비스 로직 구현
@@ -79,8 +96,11 @@ public class AnswerService {
         checkValidator.checkAdmin();
         // 먼저 답변이 존재하는지 검증 해야함
         Answer answer = findVerifiedAnswer(answerId);
-        questionService.setAnswerOfQuestion(answer.getQuestion().getQuestionId());
+        long questionId = answer.getQuestion().getQuestionId();
+        questionService.setAnswerOfQuestion(questionId);
         answerRepository.deleteById(answerId);
+        questionRepository.increaseVersion(List.of(questionId));
+        questionResponseCache.evict(questionId);
     }
 
     // 답변이 존재하는지 검증하는 메서드 필요
@@ -1,15 +1,24 @@
 package com.springboot.auth.controller;
 
 
+import com.springboot.auth.dto.SigningKeyDto;
+import com.springboot.auth.jwt.JwtTokenizer;
 import com.springboot.auth.service.AuthService;
 import com.springboot.auth.utils.IdAndEmailPrincipal;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.Valid;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -25,8 +34,49 @@ public class AuthController {
 
         String username = idAndEmailPrincipal.getEmail();
 
-        authService.logout(username);
+        // 현재 기기의 세션만 로그아웃, 다른 기기의 로그인은 유지됨
+        authService.logout(username, idAndEmailPrincipal.getSessionId());
+
+        return new ResponseEntity(HttpStatus.OK);
+    }
+
+    // 모든 기기에서 로그아웃
+    @PostMapping("/logout-all")
+    public ResponseEntity postLogoutAll(Authentication authentication) {
+        IdAndEmailPrincipal idAndEmailPrincipal = (IdAndEmailPrincipal) authentication.getPrincipal();
+
+        authService.logoutAll(idAndEmailPrincipal.getEmail());
+
+        return new ResponseEntity(HttpStatus.OK);
+    }
+
+    // 로그인 응답의 Refresh 헤더로 받은 RefreshToken 으로 두 토큰을 재발급, 응답 헤더는 로그인과 같음
+    @PostMapping("/refresh")
+    public ResponseEntity postRefresh(@RequestHeader(value = "Refresh", required = false) String refreshToken) {
+        JwtTokenizer.TokenRotation rotation = authService.refresh(refreshToken);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + rotation.getAccessToken());
+        headers.set("Refresh", rotation.getRefreshToken());
 
+        return ResponseEntity.ok().headers(headers).build();
+    }
+
+    /*
+       재시작 없이 JWT 키 링에 키를 추가하거나 서명 키를 교체 (관리자 전용)
+       키 링은 서버마다 가지고 있으므로 모든 서버에 같은 요청을 보내야 함
+       모든 서버에 signing=false 로 먼저 추가한 뒤 signing=true 로 바꾸면 교체 중에 발급된 토큰도 모든 서버에서 검증됨
+    */
+    @PostMapping("/keys")
+    public ResponseEntity postKey(@Valid @RequestBody SigningKeyDto signingKeyDto) {
+        authService.addKey(signingKeyDto.getKeyId(), signingKeyDto.getKey(), signingKeyDto.isSigning());
         return new ResponseEntity(HttpStatus.OK);
     }
+
+    // 그 키로 서명된 토큰이 모두 만료된 뒤에 검증 키를 제거 (관리자 전용)
+    @DeleteMapping("/keys/{key-id}")
+    public ResponseEntity deleteVerificationKey(@PathVariable("key-id") String keyId) {
+        authService.removeVerificationKey(keyId);
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
 }
@@ -0,0 +1,18 @@
+package com.springboot.auth.dto;
+
+import lombok.Getter;
+
+import javax.validation.constraints.NotBlank;
+
+// 재시작 없이 JWT 키 링에 추가할 키 ID 와 비밀 키
+@Getter
+public class SigningKeyDto {
+    @NotBlank
+    private String keyId;
+
+    @NotBlank
+    private String key;
+
+    // false 면 검증 키로만 추가함 (모든 서버에 검증 키로 먼저 추가한 뒤 서명 키로 바꿀 때 사용)
+    private boolean signing = true;
+}
@@ -3,8 +3,12 @@ package com.springboot.auth.filter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.springboot.auth.dto.LoginDto;
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.auth.utils.ErrorResponder;
+import com.springboot.auth.utils.LoginLimiter;
 import com.springboot.member.entity.Member;
 import lombok.SneakyThrows;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,17 +20,18 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
 // 클라이언트의 로그인 인증 정보를 직접 수신하여 인증 처리의 엔트리포인트 역할을 하는 클래스
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenizer jwtTokenizer;
+    private final LoginLimiter loginLimiter;
 
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenizer jwtTokenizer) {
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenizer jwtTokenizer, LoginLimiter loginLimiter) {
         this.authenticationManager = authenticationManager;
         this.jwtTokenizer = jwtTokenizer;
+        this.loginLimiter = loginLimiter;
     }
 
     // SneakyThrows는 try-catch 없이도 checked exception이 발생하면 자동으로 예외를 던짐
@@ -81,7 +86,21 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
            즉, 로그인 성공 시 인증된 Authentication 객체가 반환되며,
            로그인 실패 시 예외가 발생함
     */
-        return authenticationManager.authenticate(authenticationToken);
+        /*
+           비밀번호 검증은 CPU 를 많이 사용하므로 동시에 검증하는 로그인 수를 제한함
+           요청 본문은 먼저 읽어두고 검증할 때만 차례를 기다리며, 차례가 오지 않으면 503 과 Retry-After 로 응답
+           null 을 반환하면 인증이 끝나지 않은 것으로 보고 성공/실패 처리 없이 필터 체인을 종료함
+        */
+        if (!loginLimiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginLimiter.getRetryAfterSeconds()));
+            ErrorResponder.sendErrorResponse(response, HttpStatus.SERVICE_UNAVAILABLE);
+            return null;
+        }
+        try {
+            return authenticationManager.authenticate(authenticationToken);
+        } finally {
+            loginLimiter.release();
+        }
     }
 
     @Override
@@ -105,11 +124,14 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
         // delegateAccessToken() 메서드는 사용자 정보를 기반으로 AccessToken 생성
         // 즉, 로그인한 사용자 정보를 기반으로 JWT 생성해서 accessToken 변수에 저장
-        String accessToken = delegateAccessToken(member);
+        // 로그인한 기기를 구분하는 세션 ID, 다른 기기의 세션을 덮어쓰지 않도록 로그인할 때마다 새로 만듬
+        String sessionId = jwtTokenizer.createSessionId();
+
+        String accessToken = delegateAccessToken(member, sessionId);
 
         // delegateRefreshToken() 메서드는 사용자 정보를 기반으로 RefreshToken 생성
         // 이것 또한 로그인한 사용자 정보를 기반으로 JWT 생성해서 refreshToken 변수에 저장
-        String refreshToken = delegateRefreshToken(member, accessToken);
+        String refreshToken = delegateRefreshToken(member, sessionId);
 
         /*
            클라이언트가 API 요청 시 JWT를 인증 헤더에 포함하도록 응답에 추가
@@ -133,16 +155,14 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
 
     // 로그인한 사용자 정보를 기반으로 Access Token(JWT)을 생성하는 메서드
-    private String delegateAccessToken(Member member) {
+    private String delegateAccessToken(Member member, String sessionId) {
         /*
            JWT에 포함될 사용자 정보를 저장하는 claims 객체 생성
            claims는 JWT의 Payload 부분에 들어가는 데이터
            Map<String, Object> 타입을 쓴 이유는 Payload가 key-value 형태기 때문에
            여기서 저장한 데이터는 JWT 생성 시 Payload에 포함되어 클라이언트와 서버가 공유
         */
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("username", member.getEmail());
-        claims.put("roles", member.getRoles());
+        Map<String, Object> claims = jwtTokenizer.createAccessTokenClaims(member, sessionId);
 
         // JWT의 주체 설정 JWT 토큰이 어떤 사용자에게 발급되었는지 나타냄, 보통 사용자의 고유 ID나 Email씀 여기선 Email
         String subject = member.getEmail();
@@ -154,33 +174,24 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         */
         Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes());
 
-        /*
-           JWT 서명을 위한 Secret Key를 Base64로 인코딩
-           JWT는 서명(Signature)을 포함해야 무결성 보장
-           jwtTokenizer.getSecretKey() -> 서명에 사용할 원래 비밀 키 가져오기
-           jwtTokenizer.encodeBase64SecretKey(비밀 키) -> Base64로 인코딩하여 사용
-        */
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-
         /*
            jwtTokenizer.generateAccessToken 메서드는 JWT를 생성하는 역할
            claims -> JWT에 포함할 사용자 정보 (이메일, 역할)
            subject -> 토큰 주제 (사용자 이메일)
            expiration -> 만료 시간
-           base64EncodedSecretKey -> JWT 서명을 위한 Secret Key
 
            JWT 생성 과정
            claims, subject, expiration 값을 포함한 JWT 생성
-           base64EncodedSecretKey 를 사용해 HMAC SHA256 등의 알고리즘으로 서명
+           JwtTokenizer 의 현재 서명 키를 사용해 HMAC SHA256 등의 알고리즘으로 서명
            최종적으로 서명된 JWT 문자열 반환, 결과적으로 accessToken 변수에 JWT 저장
         */
-        String accessToken = jwtTokenizer.generateAccessToken(claims, subject, expiration, base64EncodedSecretKey);
+        String accessToken = jwtTokenizer.generateAccessToken(claims, subject, expiration);
 
         return accessToken;
     }
 
     // Refresh Token 을 생성하는 메서드
-    private String delegateRefreshToken(Member member, String accessToken) {
+    private String delegateRefreshToken(Member member, String sessionId) {
         // Refresh Token의 주제(subject) 설정
         // 일반적으로 subject는 토큰을 발급받는 사용자의 고유 식별자(Ex. 이메일)로 설정됨
         String subject = member.getEmail();
@@ -189,15 +200,11 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         // 설정된 Refresh Token의 만료 시간을 가져옴
         Date expiration = jwtTokenizer.getTokenExpiration(jwtTokenizer.getRefreshTokenExpirationMinutes());
 
-        // Secret Key를 가져와서 BASE64 형식으로 인코딩
-        // JWT 서명을 생성할 때 사용할 비밀키를 가져와서 BASE64로 전환하는 것
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-
-        // Refresh Token을 생성하는 메서드를 호출하여 Refresh Token을 생성함
-        String refreshToken = jwtTokenizer.generateRefreshToken(subject, expiration, base64EncodedSecretKey, accessToken);
+        // Refresh Token을 생성하는 메서드를 호출하여 Refresh Token을 생성함, 이때 세션(기기)이 Redis 에 저장됨
+        String refreshToken = jwtTokenizer.generateRefreshToken(subject, expiration, sessionId);
 
         // 완성된 Refresh Token 반환
         return refreshToken;
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
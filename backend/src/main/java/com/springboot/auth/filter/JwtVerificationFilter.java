@@ -1,12 +1,12 @@
 package com.springboot.auth.filter;
 
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.auth.jwt.TokenStore;
 import com.springboot.auth.utils.AuthorityUtils;
 import com.springboot.auth.utils.IdAndEmailPrincipal;
-import com.springboot.auth.utils.MemberDetailsService;
+import com.springboot.auth.utils.MemberPrincipalCache;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -34,15 +34,15 @@ import java.util.Optional;
 public class JwtVerificationFilter extends OncePerRequestFilter {
     private final JwtTokenizer jwtTokenizer;
     private final AuthorityUtils authorityUtils;
-    private final MemberDetailsService memberDetailsService;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final MemberPrincipalCache memberPrincipalCache;
+    private final TokenStore tokenStore;
 
     public JwtVerificationFilter(JwtTokenizer jwtTokenizer,
-                                 AuthorityUtils authorityUtils, MemberDetailsService memberDetailsService, RedisTemplate<String, Object> redisTemplate) {
+                                 AuthorityUtils authorityUtils, MemberPrincipalCache memberPrincipalCache, TokenStore tokenStore) {
         this.jwtTokenizer = jwtTokenizer;
         this.authorityUtils = authorityUtils;
-        this.memberDetailsService = memberDetailsService;
-        this.redisTemplate = redisTemplate;
+        this.memberPrincipalCache = memberPrincipalCache;
+        this.tokenStore = tokenStore;
     }
 
     @Override
@@ -103,11 +103,9 @@ public class JwtVerificationFilter extends OncePerRequestFilter {
         // Authorization 헤더에서 JWT 값을 가져오되, "Bearer " 문자열을 제거하여 실제 토큰만 추출
         String jws = request.getHeader("Authorization").replace("Bearer ", "");
 
-        // JWT 서명을 검증할 때 사용할 Base64 인코딩된 비밀 키를 가져옴
-        String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-
         // JWT를 파싱하여 클레임(Claims, JWT의 Payload 부분)을 가져옴
-        Map<String, Object> claims = jwtTokenizer.getClaims(jws, base64EncodedSecretKey).getBody();
+        // 서명 검증 키와 파서는 JwtTokenizer 가 미리 만들어둔 것을 사용하므로 요청마다 새로 만들지 않음
+        Map<String, Object> claims = jwtTokenizer.getClaims(jws).getBody();
 
         // 파싱한 클레임 데이터를 반환 (사용자의 정보 및 권한이 담겨 있음)
         return claims;
@@ -118,13 +116,19 @@ public class JwtVerificationFilter extends OncePerRequestFilter {
         // JWT의 클레임(Claims)에서 "username" 값을 가져옴
         String username = (String) claims.get("username");
 
-        // JWT의 "roles" 값을 가져와서 Spring Security의 GrantedAuthority 객체 리스트로 변환
-        // "roles"는 보통 ["ROLE_USER", "ROLE_ADMIN"] 같은 리스트 형태
-        List<GrantedAuthority> authorities = authorityUtils.createAuthorities((List)claims.get("roles"));
+        // JWT의 "roles" 값에 해당하는 Spring Security의 GrantedAuthority 객체 리스트를 가져옴
+        // "roles"는 보통 ["ADMIN", "USER"] 같은 리스트 형태, 요청마다 새로 만들지 않고 미리 만들어둔 리스트를 사용
+        List<GrantedAuthority> authorities = authorityUtils.getAuthorities((List)claims.get("roles"));
+
+        // 회원 ID 는 서명된 memberId 클레임에서 가져오므로 DB 를 조회하지 않음
+        // memberId 클레임이 없는 이전 토큰만 캐시에서 찾음 (캐시에 없을 때만 회원 ID 를 조회)
+        Number memberId = (Number) claims.get("memberId");
+        long principalId = memberId != null ? memberId.longValue() : memberPrincipalCache.getMemberId(username);
 
-        MemberDetailsService.MemberDetails memberDetails = (MemberDetailsService.MemberDetails) memberDetailsService.loadUserByUsername(username);
+        // 로그아웃할 때 이 기기의 세션만 지울 수 있도록 세션 ID 도 같이 저장 (이전 토큰은 null)
+        String sessionId = (String) claims.get(JwtTokenizer.SESSION_ID_CLAIM);
 
-        IdAndEmailPrincipal idAndEmailPrincipal = new IdAndEmailPrincipal(username, memberDetails.getMemberId());
+        IdAndEmailPrincipal idAndEmailPrincipal = new IdAndEmailPrincipal(username, principalId, sessionId);
 
         // 인증(Authentication) 객체 생성 (비밀번호는 필요 없으므로 null 처리)
         Authentication authentication = new UsernamePasswordAuthenticationToken(idAndEmailPrincipal, null, authorities);
@@ -133,15 +137,14 @@ public class JwtVerificationFilter extends OncePerRequestFilter {
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
-    // Redis에서 토큰을 검증하는 기능 추가
+    // 세션 저장소(Redis 또는 서버 메모리)에서 토큰을 검증하는 기능 추가
     private void isTokenValidInRedis(Map<String, Object> claims) {
         String username = Optional.ofNullable((String) claims.get("username"))
                 .orElseThrow(() -> new NullPointerException("Username is NULL"));
 
-        Boolean hasKey = redisTemplate.hasKey(username);
-
-        if (Boolean.FALSE.equals(hasKey)) {
+        // 기기(세션)별로 로그아웃되었는지 확인, 세션 ID 가 없는 이전 토큰은 이메일로 확인
+        if (!tokenStore.isActive(username, (String) claims.get(JwtTokenizer.SESSION_ID_CLAIM))) {
             throw new IllegalStateException("Redis Key Does Not Exist for username: " + username);
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
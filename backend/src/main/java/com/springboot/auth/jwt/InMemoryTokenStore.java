@@ -0,0 +1,197 @@
+package com.springboot.auth.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+   로그인한 기기(세션)별 토큰 정보를 서버 메모리에 저장하는 TokenStore (jwt.token-store=memory)
+   서버 한대로 운영할 때 Redis 없이 사용할 수 있고, 인증 필터가 요청마다 네트워크를 거치지 않음
+   세션이 서버 메모리에만 있으므로 여러 서버로 운영하거나 서버를 재시작하면 로그인이 유지되지 않음
+
+   이메일 -> (세션 ID -> 세션) 맵으로 저장하고, 한 회원의 세션 변경은 모두 바깥 맵의 compute 안에서 처리해서
+   RedisTokenStore 의 Lua 스크립트처럼 최대 세션 수 확인, RefreshToken 비교와 교체가 원자적으로 처리됨
+   만료된 세션은 조회할 때 만료 시각으로 걸러내고, 메모리에서는 타이머 휠이 1초마다 만료된 세션만 찾아서 지움
+
+   세션 ID 가 없는 이전 토큰(Redis 에만 저장되어 있던 토큰)은 지원하지 않음
+*/
+@Component
+@ConditionalOnProperty(name = "jwt.token-store", havingValue = "memory")
+public class InMemoryTokenStore implements TokenStore {
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+
+    private final Map<String, Map<String, Session>> sessions = new ConcurrentHashMap<>();
+    private final TimerWheel<SessionKey> timerWheel;
+    private final ScheduledExecutorService expiryScheduler;
+    private final int maxSessions;
+
+    public InMemoryTokenStore(@Value("${jwt.session.max-devices}") int maxSessions) {
+        this.maxSessions = maxSessions;
+        this.timerWheel = new TimerWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis(), this::expire);
+        this.expiryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-store-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryScheduler.scheduleAtFixedRate(() -> expireSessions(System.currentTimeMillis()),
+                TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void create(String email, String sessionId, String refreshTokenId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        sessions.compute(email, (key, userSessions) -> {
+            Map<String, Session> result = userSessions == null ? new ConcurrentHashMap<>() : userSessions;
+            result.entrySet().removeIf(entry -> entry.getValue().isExpired(now) && entry.getValue().cancel());
+            // 최대 세션 수를 넘으면 가장 먼저 만료되는 세션부터 지움
+            while (!result.isEmpty() && result.size() >= maxSessions) {
+                result.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().expiresAt))
+                        .ifPresent(entry -> result.remove(entry.getKey()).cancel());
+            }
+            replace(result, email, sessionId, new Session(now + ttlMillis, refreshTokenId));
+            return result;
+        });
+    }
+
+    @Override
+    public boolean isActive(String email, String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        Map<String, Session> userSessions = sessions.get(email);
+        Session session = userSessions == null ? null : userSessions.get(sessionId);
+        return session != null && !session.isExpired(System.currentTimeMillis());
+    }
+
+    @Override
+    public Rotation rotate(String email, String sessionId, String refreshTokenId, String newRefreshTokenId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        AtomicReference<Rotation> rotation = new AtomicReference<>(Rotation.EXPIRED);
+        sessions.computeIfPresent(email, (key, userSessions) -> {
+            Session session = userSessions.get(sessionId);
+            if (session == null) {
+                return userSessions;
+            }
+            if (session.isExpired(now)) {
+                userSessions.remove(sessionId).cancel();
+            } else if (!session.refreshTokenId.equals(refreshTokenId)) {
+                // 이미 교체된 RefreshToken 을 다시 사용한 경우 세션을 지움
+                userSessions.remove(sessionId).cancel();
+                rotation.set(Rotation.REUSED);
+            } else {
+                replace(userSessions, email, sessionId, new Session(now + ttlMillis, newRefreshTokenId));
+                rotation.set(Rotation.ROTATED);
+            }
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+        return rotation.get();
+    }
+
+    @Override
+    public boolean revoke(String email, String sessionId) {
+        if (sessionId == null) {
+            return revokeAll(email);
+        }
+        AtomicBoolean removed = new AtomicBoolean();
+        sessions.computeIfPresent(email, (key, userSessions) -> {
+            Session session = userSessions.remove(sessionId);
+            if (session != null) {
+                session.cancel();
+                removed.set(true);
+            }
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+        return removed.get();
+    }
+
+    @Override
+    public boolean revokeAll(String email) {
+        Map<String, Session> userSessions = sessions.remove(email);
+        if (userSessions == null) {
+            return false;
+        }
+        userSessions.values().forEach(Session::cancel);
+        return !userSessions.isEmpty();
+    }
+
+    // nowMillis 까지 만료된 세션을 메모리에서 지움 (스케줄러가 1초마다 호출함)
+    void expireSessions(long nowMillis) {
+        timerWheel.advanceTo(nowMillis);
+    }
+
+    // 메모리에 남아있는 세션 수 (만료되었지만 아직 지워지지 않은 세션 포함)
+    int sessionCount() {
+        return sessions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryScheduler.shutdownNow();
+    }
+
+    // 세션을 저장하고 만료 시각에 지워지도록 타이머 휠에 등록, 이전 세션의 타이머는 취소함
+    private void replace(Map<String, Session> userSessions, String email, String sessionId, Session session) {
+        session.timeout = timerWheel.schedule(new SessionKey(email, sessionId), session.expiresAt);
+        Session previous = userSessions.put(sessionId, session);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // 타이머 휠에서 만료된 세션을 지움, 그 사이에 재발급되어 만료 시각이 늘어난 세션은 그대로 둠
+    private void expire(SessionKey sessionKey) {
+        long now = System.currentTimeMillis();
+        sessions.computeIfPresent(sessionKey.email, (key, userSessions) -> {
+            Session session = userSessions.get(sessionKey.sessionId);
+            if (session != null && session.isExpired(now)) {
+                userSessions.remove(sessionKey.sessionId);
+            }
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+    }
+
+    private static final class Session {
+        private final long expiresAt;
+        private final String refreshTokenId;
+        private TimerWheel.Timeout<SessionKey> timeout;
+
+        private Session(long expiresAt, String refreshTokenId) {
+            this.expiresAt = expiresAt;
+            this.refreshTokenId = refreshTokenId;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+
+        // 타이머 휠에서 더 이상 확인하지 않도록 취소, removeIf 에서 쓸 수 있도록 항상 true
+        private boolean cancel() {
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            return true;
+        }
+    }
+
+    private static final class SessionKey {
+        private final String email;
+        private final String sessionId;
+
+        private SessionKey(String email, String sessionId) {
+            this.email = email;
+            this.sessionId = sessionId;
+        }
+    }
+}
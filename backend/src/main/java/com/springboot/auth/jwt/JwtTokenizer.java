@@ -2,75 +2,175 @@ package com.springboot.auth.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.security.WeakKeyException;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.member.entity.Member;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
 
+/*
+   JWT 생성, 검증을 담당하는 클래스
+
+   요청마다 비밀 키를 Base64 로 인코딩/디코딩하고 Key 와 JwtParser 를 새로 만들지 않도록
+   서명 키는 생성할 때 한번만 만들어두고, 파서도 하나만 만들어서 모든 요청에서 같이 사용함 (JwtParser 는 불변이라 thread-safe)
+
+   키 교체를 위해 여러 개의 키를 키 ID(kid)로 구분해서 가지고 있음 (키 링)
+   새 토큰은 현재 서명 키(jwt.key, jwt.key-id)로 서명하고 헤더에 kid 를 넣으며, 검증할 때는 헤더의 kid 로 키를 찾음
+   키를 바꿀 때는 이전 키를 jwt.verification-keys 로 옮기고 새 키로 재시작하거나,
+   재시작 없이 관리자 API(POST /auth/keys, DELETE /auth/keys/{key-id})로 서버마다 키 링을 교체함
+   (새 키를 모든 서버에 검증 키로 먼저 추가한 뒤 서명 키로 바꾸면 아직 새 키가 없는 서버가 새 토큰을 거절하는 일이 없음)
+   키 링은 통째로 바꾸는 불변 객체라서 검증이나 서명 도중에 교체되어도 kid 와 키가 서로 다른 중간 상태를 보지 않음
+   이전 키도 검증용으로 남겨두기 때문에 키를 바꿔도 이미 발급된 토큰이 만료될 때까지 계속 사용할 수 있음 (전체 로그아웃 없음)
+   kid 가 없는 토큰(키 링 도입 전에 발급된 토큰)은 jwt.legacy-key-id 의 키로만 검증하고, 비어있으면 거절함
+
+   로그인할 때마다 세션 ID(sid)를 새로 만들어서 두 토큰에 넣고, 세션은 TokenStore 에 기기별로 저장함
+   세션에는 현재 사용할 수 있는 RefreshToken 의 ID(jti) 하나만 저장하고 토큰을 재발급할 때마다 새 RefreshToken 으로 바꾸므로(rotation)
+   이미 사용한 RefreshToken 이 다시 들어오면 탈취된 것으로 보고 그 세션을 지움
+*/
 @Component
 public class JwtTokenizer {
-    private final RedisTemplate<String, Object> redisTemplate;
+    public static final String SESSION_ID_CLAIM = "sid";
+    private static final String TOKEN_TYPE_CLAIM = "tokenType";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
 
-    @Getter
-    @Value("${jwt.key}") // yml 파일 경로의 값이 필드로 들어감
-    private String secretKey;
+    private final TokenStore tokenStore;
 
     @Getter
-    @Value("${jwt.access-token-expiration-minutes}") // yml 파일 경로의 값이 필드로 들어감
-    private int accessTokenExpirationMinutes;
+    private final int accessTokenExpirationMinutes;
 
     @Getter
-    @Value("${jwt.refresh-token-expiration-minutes}") // yml 파일 경로의 값이 필드로 들어감
-    private int refreshTokenExpirationMinutes;
+    private final int refreshTokenExpirationMinutes;
+
+    // 현재 서명 키, 검증 키, kid 가 없는 토큰을 검증할 키 (교체할 때 새 객체로 바꿈)
+    private volatile KeyRing keyRing;
+
+    private final JwtParser jwtParser;
+
+    public JwtTokenizer(TokenStore tokenStore,
+                        @Value("${jwt.key}") String secretKey, // yml 파일 경로의 값이 들어감
+                        @Value("${jwt.key-id}") String keyId,
+                        @Value("${jwt.verification-keys}") String verificationKeys,
+                        @Value("${jwt.legacy-key-id}") String legacyKeyId,
+                        @Value("${jwt.access-token-expiration-minutes}") int accessTokenExpirationMinutes,
+                        @Value("${jwt.refresh-token-expiration-minutes}") int refreshTokenExpirationMinutes) {
+        this.tokenStore = tokenStore;
+        this.accessTokenExpirationMinutes = accessTokenExpirationMinutes;
+        this.refreshTokenExpirationMinutes = refreshTokenExpirationMinutes;
 
-    public JwtTokenizer(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+        Map<String, Key> keys = new HashMap<>(parseVerificationKeys(verificationKeys));
+        keys.put(keyId, toKey(secretKey));
+
+        // 설정 실수로 기존 토큰이 모두 거절되지 않도록 없는 키 ID 라면 시작할 때 실패시킴
+        String legacy = legacyKeyId == null || legacyKeyId.isBlank() ? null : legacyKeyId.trim();
+        if (legacy != null && !keys.containsKey(legacy)) {
+            throw new IllegalArgumentException("jwt.legacy-key-id 는 jwt.key-id 또는 jwt.verification-keys 의 키 ID 여야 합니다.");
+        }
+        this.keyRing = new KeyRing(keyId, keys, legacy);
+
+        // 헤더의 kid 로 키 링에서 검증 키를 찾음
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // JwsHeader 는 jjwt 가 제네릭 없이 넘겨주는 타입이라 raw 타입으로 받음
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return findVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
     /*
-       주어진 Secret Key를 Base64로 인코딩하여 반환하는 메서드
-       입력된 secretKey를 UTF-8 방식의 바이트 배열로 반환
-       그 후에 바이트 배열을 Base64 형식의 문자열로 인코딩함
-       이렇게 인코딩된 문자열은 JWT를 서명하거나 검증할 때 사용됨
+       재시작 없이 키 링에 키를 추가하는 메서드 (관리자 API)
+       signing 이면 이후 발급하는 토큰을 새 키로 서명하고, 기존 키들은 검증용으로 계속 남겨둠
+       키 링은 서버마다 따로 가지고 있으므로 모든 서버에 같은 키로 호출해야 하고, 다음 재시작을 위해 설정(jwt.key, jwt.verification-keys)도 바꿔야 함
+       이미 있는 키 ID 를 다른 비밀 키로 바꾸면 그 키로 서명된 토큰이 모두 거절되므로 같은 키일 때만 허용함
     */
-    public String encodeBase64SecretKey(String secretKey) {
-        return Encoders.BASE64.encode(secretKey.getBytes(StandardCharsets.UTF_8));
+    public synchronized void addKey(String keyId, String secretKey, boolean signing) {
+        if (keyId == null || keyId.isBlank() || secretKey == null) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_SIGNING_KEY);
+        }
+        Key key;
+        try {
+            key = toKey(secretKey);
+        } catch (WeakKeyException e) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_SIGNING_KEY);
+        }
+
+        KeyRing current = keyRing;
+        Key existing = current.keys.get(keyId);
+        if (existing != null && !existing.equals(key)) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_SIGNING_KEY);
+        }
+        Map<String, Key> keys = new HashMap<>(current.keys);
+        keys.put(keyId, key);
+        keyRing = new KeyRing(signing ? keyId : current.signingKeyId, keys, current.legacyKeyId);
+    }
+
+    // 더 이상 사용하지 않는 검증 키를 제거하는 메서드 (그 키로 서명된 토큰이 모두 만료된 뒤에 호출해야 함)
+    public synchronized void removeVerificationKey(String keyId) {
+        KeyRing current = keyRing;
+        // 현재 서명 키나 kid 가 없는 토큰을 검증하는 키를 지우면 발급한 토큰이 바로 거절되므로 제거할 수 없음
+        if (keyId.equals(current.signingKeyId) || keyId.equals(current.legacyKeyId)) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_SIGNING_KEY);
+        }
+        Map<String, Key> keys = new HashMap<>(current.keys);
+        keys.remove(keyId);
+        keyRing = new KeyRing(current.signingKeyId, keys, current.legacyKeyId);
+    }
+
+    // 로그인할 때마다 새로 만드는 세션(기기) ID
+    public String createSessionId() {
+        return UUID.randomUUID().toString();
     }
 
-    // JWT AccessToken을 생성하는 메서드, 인증 토큰을 만드는 것
+    // AccessToken 의 Payload 에 넣을 회원 정보 (로그인과 토큰 재발급에서 같이 사용)
+    public Map<String, Object> createAccessTokenClaims(Member member, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", member.getEmail());
+        claims.put("memberId", member.getMemberId()); // 인증 필터에서 요청마다 회원을 조회하지 않도록 회원 ID 도 넣음
+        claims.put("roles", member.getRoles());
+        claims.put(SESSION_ID_CLAIM, sessionId); // 인증 필터가 이 기기의 세션이 로그아웃되었는지 확인하는 데 사용
+        return claims;
+    }
+
+    // JWT AccessToken을 생성하는 메서드, 인증 토큰을 만드는 것 (세션은 generateRefreshToken 에서 저장함)
     public String generateAccessToken(Map<String, Object> claims, // Map을 쓰는 이유는 JWT의 Payload는 key-value 형태의 데이터를 저장 이를 위해서 Map<String, Object>로 사용하는 것
                                       String subject, // JWT의 주제, 제목, 보통 사용자 고유 식별자로 씀
-                                      Date expiration, // JWT의 만료 시간
-                                      String base64EncodedSecretKey) { // 서명을 위한 비밀 키
+                                      Date expiration) { // JWT의 만료 시간
 
-        // Base64로 인코딩된 secretkey를 디코딩해서 Key 객체로 반환
-        Key key = getKeyFromBase64EncodedKey(base64EncodedSecretKey);
+        // 현재 서명 키, 키 교체와 겹쳐도 kid 와 키가 서로 맞도록 키 링을 한번만 읽음
+        KeyRing currentKeyRing = keyRing;
 
         // 토큰 발행을 위해 Jwts.builder()를 사용해서 JWT를 생성하는 객체를 만듬
         String accessToken = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyRing.signingKeyId) // 검증할 때 키를 찾을 수 있도록 헤더에 kid 추가
                 .setClaims(claims) // claims에 들어있는 key-value 데이터를 JWT의 Payload에 추가
                 .setSubject(subject) // 받아온 subject를 설정하고 Payload에 추가
                 // Calendar.getInstance().getTime()은 현재 시스템의 날짜와 시간을 가지는 Calender 객체를 생성하고 현재 시간을 Date 객체로 변환해줌
                 .setIssuedAt(Calendar.getInstance().getTime()) // JWT가 생성된 시간을 기록, 클라이언트가 토큰을 보낼 때, 서버에서 이 토큰이 유효한지 체크하는 데 사용
                 .setExpiration(expiration) // JWT 만료 시간을 설정
-                .signWith(key) // signWith(key)를 이용해서 JWT에 서명을 추가
+                .signWith(currentKeyRing.signingKey()) // 현재 서명 키를 이용해서 JWT에 서명을 추가
                 .compact(); // JWT를 문자열 형태로 변환하여 반환
 
-        ValueOperations<String, Object> valueOperations = redisTemplate.opsForValue();
-        valueOperations.set((String) claims.get("username"), accessToken, accessTokenExpirationMinutes, TimeUnit.MINUTES);
         return accessToken;
     }
 
@@ -80,41 +180,88 @@ public class JwtTokenizer {
        AccessToken 보다 긴 유효시간을 가져야함, 그리고 서버는 RefreshToken을 검증해서 새로운 AccessToken을 발급할지 판단
     */
     // 여기서 expiration은 리프레시 토큰의 만료 시간
-    public String generateRefreshToken(String subject, Date expiration, String base64EncodedSecretKey, String accessToken) {
-        // base64EncodedSecretKey를 디코딩하여 Key 객체로 변환
-        // Key 객체는 JWT의 서명(Signature) 생성에 사용됨, JWT의 변조 방지를 위해 필수
-        Key key = getKeyFromBase64EncodedKey(base64EncodedSecretKey);
+    public String generateRefreshToken(String subject, Date expiration, String sessionId) {
+        String refreshTokenId = UUID.randomUUID().toString();
+        String refreshToken = createRefreshToken(subject, expiration, sessionId, refreshTokenId);
+
+        // 세션(기기)을 RefreshToken 의 만료 시간만큼 저장, 재발급 요청 때 Redis 조회 한번으로 jti 를 비교함
+        tokenStore.create(subject, sessionId, refreshTokenId, expiration.getTime() - System.currentTimeMillis());
+        return refreshToken;
+    }
+
+    // 세션에 저장하지 않고 RefreshToken 문자열만 만드는 메서드
+    private String createRefreshToken(String subject, Date expiration, String sessionId, String refreshTokenId) {
+        // 현재 서명 키, 키 교체와 겹쳐도 kid 와 키가 서로 맞도록 키 링을 한번만 읽음
+        KeyRing currentKeyRing = keyRing;
 
         // JWT를 생성할 빌더 객체 만듬
         String refreshToken = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyRing.signingKeyId) // 서명한 키의 ID
+                .setId(refreshTokenId) // 같은 시각에 재발급해도 이전 토큰과 구분되도록 토큰마다 다른 ID
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE) // AccessToken 을 RefreshToken 으로 사용하지 못하도록 구분
+                .claim(SESSION_ID_CLAIM, sessionId) // 재발급할 세션(기기)
                 .setSubject(subject) // 사용자의 고유 ID -> 여기서는 Email을 넣고 Payload에 추가
                 .setIssuedAt(Calendar.getInstance().getTime()) // JWT가 생성된 시간을 기록, 클라이언트가 토큰을 보낼 때, 서버에서 이 토큰이 유효한지 체크하는 데 사용
                 .setExpiration(expiration) // JWT 만료 시간 설정
-                .signWith(key) // JWT에 서명을 추가
+                .signWith(currentKeyRing.signingKey()) // 현재 서명 키로 JWT에 서명을 추가, JWT의 변조 방지를 위해 필수
                 .compact(); // JWT를 문자열 형태로 변환하여 반환
 
-        ValueOperations<String, Object> valueOperations = redisTemplate.opsForValue();
-        valueOperations.set(accessToken, refreshToken, accessTokenExpirationMinutes, TimeUnit.MINUTES);
         return refreshToken;
     }
 
+    /*
+       RefreshToken 의 서명과 만료 시간을 검증하고 클레임을 반환
+       RefreshToken 이 아니거나, 세션 ID 가 없는 이전 RefreshToken 이거나, 검증에 실패하면 empty
+    */
+    public Optional<Claims> getRefreshTokenClaims(String refreshToken) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(refreshToken).getBody();
+            if (!REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM))
+                    || claims.getSubject() == null || claims.getId() == null || claims.get(SESSION_ID_CLAIM) == null) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /*
+       RefreshToken 으로 같은 세션의 AccessToken 과 RefreshToken 을 재발급하는 메서드 (비밀번호 검증 없이)
+       세션의 jti 비교와 교체를 Lua 스크립트 한번으로 처리하기 때문에 같은 RefreshToken 으로 동시에 요청해도 하나만 성공함
+       accessTokenClaims 는 createAccessTokenClaims 로 같은 세션 ID 를 넣어서 만든 값
+    */
+    public TokenRotation rotateTokens(Claims refreshTokenClaims, Map<String, Object> accessTokenClaims) {
+        String subject = refreshTokenClaims.getSubject();
+        String sessionId = (String) refreshTokenClaims.get(SESSION_ID_CLAIM);
+        String newRefreshTokenId = UUID.randomUUID().toString();
+        Date refreshTokenExpiration = getTokenExpiration(refreshTokenExpirationMinutes);
+
+        String accessToken = generateAccessToken(accessTokenClaims, subject, getTokenExpiration(accessTokenExpirationMinutes));
+        String refreshToken = createRefreshToken(subject, refreshTokenExpiration, sessionId, newRefreshTokenId);
+
+        TokenStore.Rotation rotation = tokenStore.rotate(subject, sessionId, refreshTokenClaims.getId(), newRefreshTokenId,
+                refreshTokenExpiration.getTime() - System.currentTimeMillis());
+
+        switch (rotation) {
+            case ROTATED:
+                return TokenRotation.rotated(accessToken, refreshToken);
+            case REUSED:
+                return TokenRotation.reused();
+            default:
+                return TokenRotation.expired();
+        }
+    }
+
     /*
        이 메서드는 JWT 토큰을 파싱(복호화)해서 포함된 클레임(Claims) 정보를 추출하는 역할을 함
        즉, JWT 토큰을 입력받아 서명을 검증하고, Payload(Claims)를 반환
        쉽게 말하면 JWT가 유효한지 확인하고, 안에 들어있는 정보(Claims)를 가져오는 메서드
     */
     // Jws는 서명(Signature)가 포함된 JWT를 의미함, Claims는 JWT의 Payload
-    public Jws<Claims> getClaims(String jws, String base64EncodedSecretKey) {
-        // BASE64로 인코딩된 비밀 키를 실제 HMAC 서명 키(Key 객체)로 변환
-        // getKeyFromBase64EncodedKey는 Base64 디코딩해서 서명 검증에 사용할 키 생성하는 메서드
-        Key key = getKeyFromBase64EncodedKey(base64EncodedSecretKey);
-
-        // JWT를 해석할 JWT 파서(parser)를 생성
-        Jws<Claims> claims = Jwts.parserBuilder() // JWT를 검증하고 해석하는 빌더 객체 만듬
-                .setSigningKey(key) // 서명을 검증할 키를 지정, 즉 서명 검증을 위한 비밀 키 설정
-                .build() // JWT 검증을 수행할 파서를 생성
-                .parseClaimsJws(jws); // JWT를 해석하고 클레임을 추출
-        return claims;
+    public Jws<Claims> getClaims(String jws) {
+        // 미리 만들어둔 파서로 서명을 검증하고 클레임을 추출, 서명 키는 헤더의 kid 로 찾음
+        return jwtParser.parseClaimsJws(jws);
     }
 
     /*
@@ -132,28 +279,98 @@ public class JwtTokenizer {
         return expiration;
     }
 
+    // 토큰 헤더의 kid 에 해당하는 검증 키, 모르는 kid 이거나 허용하지 않는 kid 없는 토큰이라면 서명 검증 실패로 처리
+    private Key findVerificationKey(String keyId) {
+        KeyRing currentKeyRing = keyRing;
+        String resolvedKeyId = keyId == null ? currentKeyRing.legacyKeyId : keyId;
+        // Map.copyOf 로 만든 Map 은 null 키로 조회하면 예외가 발생하므로 먼저 확인
+        Key key = resolvedKeyId == null ? null : currentKeyRing.keys.get(resolvedKeyId);
+        if (key == null) {
+            throw new SignatureException(keyId == null ? "JWT without key id is not accepted" : "Unknown JWT key id: " + keyId);
+        }
+        return key;
+    }
+
     /*
-       JWT의 서명을 검증하기 위한 Secret Key를 생성하는 메서드
-       Base64로 인코딩된 문자열을 디코딩하여 바이트 배열로 변환
-       변환된 바이트 배열을 사용해 Keys.hmacShaKeyFor() 를 통해 HMAC SHA 알고리즘을 사용하는 키 생성
-       생성된 키는 JWT 서명(Signature)을 검증할 때 사용됨
+       JWT의 서명을 생성, 검증하기 위한 Key 를 만드는 메서드
+       비밀 키 문자열을 UTF-8 바이트 배열로 바꾸고 Keys.hmacShaKeyFor() 를 통해 HMAC SHA 알고리즘을 사용하는 키 생성
+       (기존의 Base64 인코딩 후 다시 디코딩하던 방식과 같은 바이트 배열이므로 이전에 발급된 토큰도 그대로 검증됨)
     */
-    private Key getKeyFromBase64EncodedKey(String base64EncodedSecretKey) {
-        byte[] keyBytes = Decoders.BASE64.decode(base64EncodedSecretKey); // Base64 인코딩된 키를 디코딩하여 바이트 배열로 변환
-        Key key = Keys.hmacShaKeyFor(keyBytes); // 디코딩된 바이트 배열을 기반으로 HMAC SHA 암호화 키 생성
+    private static Key toKey(String secretKey) {
+        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    }
 
-        return key;
+    // "kid=secret,kid=secret" 형식의 검증 전용 키 목록을 읽음 (이전에 사용하던 서명 키들)
+    private static Map<String, Key> parseVerificationKeys(String verificationKeys) {
+        Map<String, Key> keys = new HashMap<>();
+        if (verificationKeys == null || verificationKeys.isBlank()) {
+            return keys;
+        }
+        for (String entry : verificationKeys.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("jwt.verification-keys 는 kid=secret 형식이어야 합니다.");
+            }
+            keys.put(entry.substring(0, separator).trim(), toKey(entry.substring(separator + 1).trim()));
+        }
+        return keys;
     }
 
-    // 로그아웃 진행 시 레디스에서 email을 기준으로 access, refresh토큰 삭제하는 메서드
-    public boolean deleteRegisterToken(String username) {
-        return Optional.ofNullable(redisTemplate.hasKey(username))
-                .filter(Boolean::booleanValue)
-                .map(hasKey -> {
-                    String accessToken = (String) redisTemplate.opsForValue().get(username);
-                    redisTemplate.delete(username);
-                    redisTemplate.delete(accessToken);
-                    return true;
-                }).orElse(false);
+    // 현재 서명 키 ID, 검증에 사용할 수 있는 모든 키(현재 서명 키 포함), kid 가 없는 토큰을 검증할 키 ID(없으면 null)
+    private static class KeyRing {
+        private final String signingKeyId;
+        private final Map<String, Key> keys;
+        private final String legacyKeyId;
+
+        private KeyRing(String signingKeyId, Map<String, Key> keys, String legacyKeyId) {
+            this.signingKeyId = signingKeyId;
+            this.keys = Map.copyOf(keys);
+            this.legacyKeyId = legacyKeyId;
+        }
+
+        private Key signingKey() {
+            return keys.get(signingKeyId);
+        }
+    }
+
+    /*
+       로그아웃 진행 시 레디스에서 email 과 세션 ID 를 기준으로 해당 기기의 세션을 삭제하는 메서드
+       세션 ID 가 없는 이전 토큰이면 회원의 모든 세션을 삭제함
+    */
+    public boolean deleteRegisterToken(String username, String sessionId) {
+        return tokenStore.revoke(username, sessionId);
+    }
+
+    // 모든 기기에서 로그아웃
+    public boolean deleteAllRegisterTokens(String username) {
+        return tokenStore.revokeAll(username);
+    }
+
+    // 토큰 재발급 결과, 재발급에 성공한 경우에만 두 토큰이 들어있음
+    @Getter
+    public static class TokenRotation {
+        public enum Status { ROTATED, EXPIRED, REUSED }
+
+        private final Status status;
+        private final String accessToken;
+        private final String refreshToken;
+
+        private TokenRotation(Status status, String accessToken, String refreshToken) {
+            this.status = status;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        private static TokenRotation rotated(String accessToken, String refreshToken) {
+            return new TokenRotation(Status.ROTATED, accessToken, refreshToken);
+        }
+
+        private static TokenRotation expired() {
+            return new TokenRotation(Status.EXPIRED, null, null);
+        }
+
+        private static TokenRotation reused() {
+            return new TokenRotation(Status.REUSED, null, null);
+        }
     }
 }
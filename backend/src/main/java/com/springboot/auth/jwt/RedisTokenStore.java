@@ -0,0 +1,276 @@
+package com.springboot.auth.jwt;
+
+import com.springboot.auth.utils.LocalRevocationList;
+import com.springboot.auth.utils.RedisCircuitBreaker;
+import com.springboot.auth.utils.TokenAllowlistCache;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/*
+   로그인한 기기(세션)별 토큰 정보를 Redis 에 저장하는 TokenStore (jwt.token-store=redis, 기본값)
+
+   회원마다 "session:이메일" 해시 하나에 세션 ID(sid)를 필드로, "만료 시각(ms):RefreshToken ID(jti)" 를 값으로 저장함
+   AccessToken, RefreshToken 에는 sid 클레임이 들어있어서 같은 회원이 여러 기기에서 로그인해도 서로의 세션을 덮어쓰지 않음
+   해시의 필드마다 만료 시간을 따로 줄 수 없으므로 값에 만료 시각을 같이 저장해서 조회할 때 비교하고,
+   만료된 필드는 새 세션을 만들 때 지우며 해시 키 자체는 가장 늦게 만료되는 세션(방금 만든 세션)에 맞춰 만료됨
+
+   세션 생성, 재발급은 Lua 스크립트 한번, 검증은 HGET 한번, 로그아웃은 삭제와 무효화 메시지를 파이프라인 한번으로 처리함
+   모든 기기 로그아웃도 해시 키 하나만 지우면 되므로 세션 수와 관계없이 Redis 왕복 한번임
+
+   검증 결과는 TokenAllowlistCache 에 잠깐 저장해서 요청마다 Redis 를 조회하지 않고,
+   세션을 지울 때 이 서버의 캐시는 바로 지우고 다른 서버의 캐시는 REVOKED_CHANNEL 메시지로 지움
+
+   sid 가 없는 이전 토큰은 이메일을 키로 저장된 AccessToken 으로 검증함 (legacy)
+
+   모든 Redis 호출은 RedisCircuitBreaker 를 거치고, Redis 가 멈추거나 실패해서 회로가 열리면(degraded mode)
+   - 검증 : jwt.degraded.policy 가 allow 면 서명과 만료 시간만 확인한 토큰을 통과시키고(LocalRevocationList 에 있는 세션 제외), deny 면 거절함
+   - 로그아웃 : LocalRevocationList 에 기록해두고 Redis 가 복구되면 Redis 에도 반영함
+   - 로그인 : allow 면 세션을 저장하지 않고 토큰만 발급하고(Redis 가 복구되면 다시 로그인해야 함), deny 면 503
+   - 재발급 : 재사용 여부를 확인할 수 없으므로 503
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.token-store", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenStore implements TokenStore {
+    // 세션이 삭제되면 "발행 시각(ms):sid:이메일" 메시지를 보냄, 모든 세션이 삭제된 경우 sid 는 빈 문자열
+    public static final String REVOKED_CHANNEL = "auth:session:revoked";
+
+    private static final String SESSION_KEY_PREFIX = "session:";
+    private static final String LEGACY_REFRESH_KEY_PREFIX = "refresh:";
+
+    /*
+       KEYS[1] = 세션 해시, ARGV[1] = sid, ARGV[2] = 값, ARGV[3] = 현재 시각, ARGV[4] = 만료 시간(ms), ARGV[5] = 최대 세션 수
+       만료된 세션을 지우고, 최대 세션 수를 넘으면 가장 먼저 만료되는 세션부터 지운 뒤에 새 세션을 저장함
+    */
+    private static final RedisScript<Long> CREATE_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[3]) " +
+            "local sessions = {} " +
+            "local fields = redis.call('HGETALL', KEYS[1]) " +
+            "for i = 1, #fields, 2 do " +
+            "  local expiresAt = tonumber(string.match(fields[i + 1], '^(%d+):')) or 0 " +
+            "  if expiresAt <= now then redis.call('HDEL', KEYS[1], fields[i]) " +
+            "  else table.insert(sessions, {fields[i], expiresAt}) end " +
+            "end " +
+            "table.sort(sessions, function(a, b) return a[2] < b[2] end) " +
+            "for i = 1, #sessions - tonumber(ARGV[5]) + 1 do redis.call('HDEL', KEYS[1], sessions[i][1]) end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[4]) " +
+            "return 1", Long.class);
+
+    /*
+       KEYS[1] = 세션 해시, ARGV[1] = sid, ARGV[2] = 클라이언트가 보낸 RefreshToken 의 jti, ARGV[3] = 새 값,
+       ARGV[4] = 현재 시각, ARGV[5] = 만료 시간(ms), ARGV[6] = 세션 삭제 메시지
+       저장된 jti 와 같으면 새 값으로 바꾸고 1, 세션이 없거나 만료되었으면 0,
+       다른 jti 가 저장되어 있다면 이미 교체된 RefreshToken 을 다시 사용한 것이므로 세션을 지우고 -1
+    */
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if not current then return 0 end " +
+            "local expiresAt, jti = string.match(current, '^(%d+):(.*)$') " +
+            "if tonumber(expiresAt) <= tonumber(ARGV[4]) then " +
+            "  redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "  return 0 " +
+            "end " +
+            "if jti ~= ARGV[2] then " +
+            "  redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "  redis.call('PUBLISH', '" + REVOKED_CHANNEL + "', ARGV[6]) " +
+            "  return -1 " +
+            "end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[5]) " +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final TokenAllowlistCache tokenAllowlistCache;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final LocalRevocationList localRevocationList;
+    private final int maxSessions;
+    // 회로가 열렸을 때 서명과 만료 시간만 확인한 토큰을 통과시킬지
+    private final boolean allowWhenDegraded;
+
+    public RedisTokenStore(RedisTemplate<String, Object> redisTemplate,
+                           TokenAllowlistCache tokenAllowlistCache,
+                           RedisCircuitBreaker redisCircuitBreaker,
+                           LocalRevocationList localRevocationList,
+                           @Value("${jwt.session.max-devices}") int maxSessions,
+                           @Value("${jwt.degraded.policy}") String degradedPolicy) {
+        this.redisTemplate = redisTemplate;
+        this.tokenAllowlistCache = tokenAllowlistCache;
+        this.redisCircuitBreaker = redisCircuitBreaker;
+        this.localRevocationList = localRevocationList;
+        this.maxSessions = maxSessions;
+        if (!degradedPolicy.equals("allow") && !degradedPolicy.equals("deny")) {
+            throw new IllegalArgumentException("jwt.degraded.policy 는 allow, deny 중 하나여야 합니다.");
+        }
+        this.allowWhenDegraded = degradedPolicy.equals("allow");
+    }
+
+    @Override
+    public void create(String email, String sessionId, String refreshTokenId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        redisCircuitBreaker.execute(RedisCircuitBreaker.Operation.CREATE, () -> redisTemplate.execute(CREATE_SCRIPT, List.of(sessionKey(email)),
+                sessionId, sessionValue(now + ttlMillis, refreshTokenId), String.valueOf(now),
+                String.valueOf(ttlMillis), String.valueOf(maxSessions)), () -> {
+            if (!allowWhenDegraded) {
+                throw new BusinessLogicException(ExceptionCode.SESSION_STORAGE_UNAVAILABLE);
+            }
+            return null;
+        });
+    }
+
+    // 캐시에 없을 때만 Redis 에 확인, sessionId 가 null 이면 이전 방식으로 저장된 AccessToken 이 있는지 확인
+    @Override
+    public boolean isActive(String email, String sessionId) {
+        if (localRevocationList.isRevoked(email, sessionId)) {
+            return false;
+        }
+        if (tokenAllowlistCache.contains(email, sessionId)) {
+            return true;
+        }
+        return redisCircuitBreaker.execute(RedisCircuitBreaker.Operation.IS_ACTIVE, () -> {
+            if (sessionId == null) {
+                return Boolean.TRUE.equals(redisTemplate.hasKey(email));
+            }
+            // 템플릿에 해시 필드용 직렬화 방식이 따로 설정되어 있지 않으므로 문자열 바이트로 직접 조회함
+            byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.hGet(bytes(sessionKey(email)), bytes(sessionId)));
+            boolean found = value != null && parseExpiresAt(new String(value, StandardCharsets.UTF_8)) > System.currentTimeMillis();
+            if (found) {
+                tokenAllowlistCache.put(email, sessionId);
+            }
+            return found;
+        }, () -> allowWhenDegraded);
+    }
+
+    // 이미 교체된 RefreshToken 이면 스크립트 안에서 세션을 지우고 모든 서버에 알림
+    @Override
+    public Rotation rotate(String email, String sessionId, String refreshTokenId, String newRefreshTokenId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Long result = redisCircuitBreaker.execute(RedisCircuitBreaker.Operation.ROTATE, () -> redisTemplate.execute(ROTATE_SCRIPT, List.of(sessionKey(email)),
+                sessionId, refreshTokenId, sessionValue(now + ttlMillis, newRefreshTokenId), String.valueOf(now),
+                String.valueOf(ttlMillis), revokedMessage(email, sessionId)), () -> {
+            throw new BusinessLogicException(ExceptionCode.SESSION_STORAGE_UNAVAILABLE);
+        });
+
+        if (result == null || result == 0) {
+            return Rotation.EXPIRED;
+        }
+        if (result < 0) {
+            tokenAllowlistCache.evict(email, sessionId);
+            return Rotation.REUSED;
+        }
+        return Rotation.ROTATED;
+    }
+
+    // 세션 하나를 지우고 모든 서버에 알림, Redis 를 사용할 수 없으면 LocalRevocationList 에 기록함
+    @Override
+    public boolean revoke(String email, String sessionId) {
+        if (sessionId == null) {
+            return revokeAll(email);
+        }
+        tokenAllowlistCache.evict(email, sessionId);
+        return redisCircuitBreaker.execute(RedisCircuitBreaker.Operation.REVOKE, () -> deleteSession(email, sessionId), () -> {
+            localRevocationList.revoke(email, sessionId);
+            return true;
+        });
+    }
+
+    // 회원의 모든 세션을 지우고 모든 서버에 알림, Redis 를 사용할 수 없으면 LocalRevocationList 에 기록함
+    @Override
+    public boolean revokeAll(String email) {
+        tokenAllowlistCache.evict(email, null);
+        return redisCircuitBreaker.execute(RedisCircuitBreaker.Operation.REVOKE_ALL, () -> deleteAllSessions(email), () -> {
+            localRevocationList.revoke(email, null);
+            return true;
+        });
+    }
+
+    // Redis 가 복구되면 회로가 열려 있는 동안 이 서버에서 로그아웃한 세션을 Redis 에서도 지움
+    @Scheduled(fixedDelayString = "${jwt.circuit-breaker.open-duration-ms}")
+    public void replayRevocations() {
+        if (localRevocationList.isEmpty() || !redisCircuitBreaker.isClosed()) {
+            return;
+        }
+        try {
+            localRevocationList.replay((email, sessionId) -> {
+                if (sessionId == null) {
+                    deleteAllSessions(email);
+                } else {
+                    deleteSession(email, sessionId);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("# Failed to replay local revocations: {}", e.getMessage());
+        }
+    }
+
+    // 삭제와 메시지 발행을 파이프라인 한번으로 보냄, 지운 세션이 있으면 true
+    private boolean deleteSession(String email, String sessionId) {
+        byte[] message = revokedMessage(email, sessionId).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hDel(bytes(sessionKey(email)), bytes(sessionId));
+            connection.publish(bytes(REVOKED_CHANNEL), message);
+            return null;
+        });
+        return isPositive(results.get(0));
+    }
+
+    // 이전 방식으로 저장된 토큰 키도 같이 지움, 지운 키가 있으면 true
+    private boolean deleteAllSessions(String email) {
+        byte[] message = revokedMessage(email, null).getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            deleteKeys(connection, sessionKey(email), email, LEGACY_REFRESH_KEY_PREFIX + email);
+            connection.publish(bytes(REVOKED_CHANNEL), message);
+            return null;
+        });
+        return isPositive(results.get(0));
+    }
+
+    // 세션 삭제 메시지, 메시지 형식은 REVOKED_CHANNEL 참고
+    private static String revokedMessage(String email, String sessionId) {
+        return System.currentTimeMillis() + ":" + (sessionId == null ? "" : sessionId) + ":" + email;
+    }
+
+    private static void deleteKeys(RedisConnection connection, String... keys) {
+        byte[][] rawKeys = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            rawKeys[i] = bytes(keys[i]);
+        }
+        connection.del(rawKeys);
+    }
+
+    // HDEL, DEL 결과는 드라이버에 따라 Long 또는 Boolean 으로 변환됨
+    private static boolean isPositive(Object result) {
+        return Boolean.TRUE.equals(result) || (result instanceof Long && (Long) result > 0);
+    }
+
+    private static String sessionValue(long expiresAt, String refreshTokenId) {
+        return expiresAt + ":" + refreshTokenId;
+    }
+
+    private static long parseExpiresAt(String value) {
+        return Long.parseLong(value.substring(0, value.indexOf(':')));
+    }
+
+    private static String sessionKey(String email) {
+        return SESSION_KEY_PREFIX + email;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package com.springboot.auth.jwt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+   만료 시각이 된 항목을 찾아서 onExpire 로 넘겨주는 해시드 타이머 휠 (InMemoryTokenStore 의 세션 만료에 사용)
+   시간을 tickMillis 단위 칸(tick)으로 나누고, 항목을 만료 시각이 속한 칸의 버킷(tick % 버킷 수)에 넣어둠
+   advanceTo 로 시간이 지나간 칸의 버킷만 확인하므로 세션이 많아도 전체를 훑지 않음
+
+   버킷 수보다 먼 만료 시각은 휠을 여러 바퀴 돈 뒤에 만료되므로 버킷을 확인할 때 만료 시각과 비교해서 지난 것만 꺼냄
+   만료 전에 필요 없어진 항목은 cancel 해두면 해당 버킷을 다음에 확인할 때 지워짐
+*/
+class TimerWheel<T> {
+    private final long tickMillis;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private final Consumer<T> onExpire;
+
+    // 마지막으로 확인한 칸
+    private long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimerWheel(long tickMillis, int wheelSize, long startMillis, Consumer<T> onExpire) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.onExpire = onExpire;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // 만료 시각에 onExpire 가 호출되도록 등록, 이미 지난 만료 시각이면 다음 칸에서 만료됨
+    synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        // 만료 시각이 칸의 중간이면 다음 칸에 넣어야 만료 시각 전에 꺼내지지 않음
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        buckets[(int) (tick % buckets.length)].add(timeout);
+        return timeout;
+    }
+
+    /*
+       nowMillis 까지 지나간 칸의 버킷에서 만료된 항목을 꺼내서 onExpire 를 호출함
+       오래 호출되지 않아 한 바퀴 이상 밀려도 모든 버킷을 한번씩만 확인하면 됨
+       onExpire 는 휠의 락을 놓은 뒤에 호출하므로 onExpire 안에서 schedule 해도 됨
+    */
+    void advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = nowMillis / tickMillis;
+            long steps = Math.min(targetTick - currentTick, buckets.length);
+            for (long i = 1; i <= steps; i++) {
+                Iterator<Timeout<T>> iterator = buckets[(int) ((currentTick + i) % buckets.length)].iterator();
+                while (iterator.hasNext()) {
+                    Timeout<T> timeout = iterator.next();
+                    if (timeout.cancelled) {
+                        iterator.remove();
+                    } else if (timeout.deadlineMillis <= nowMillis) {
+                        iterator.remove();
+                        expired.add(timeout.item);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, targetTick);
+        }
+        expired.forEach(onExpire);
+    }
+
+    // 휠에 남아있는 항목 수 (취소되었지만 아직 지워지지 않은 항목 포함)
+    synchronized int size() {
+        int size = 0;
+        for (ArrayDeque<Timeout<T>> bucket : buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
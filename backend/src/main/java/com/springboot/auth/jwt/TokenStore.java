@@ -0,0 +1,33 @@
+package com.springboot.auth.jwt;
+
+/*
+   로그인한 기기(세션)별 토큰 정보를 저장하는 저장소
+   jwt.token-store 설정으로 구현체를 선택함
+   - redis  : RedisTokenStore, 여러 서버가 Redis 로 세션을 공유함 (기본값)
+   - memory : InMemoryTokenStore, 서버 한대로 운영할 때 Redis 없이 서버 메모리에 저장함 (서버를 재시작하면 모두 로그아웃됨)
+
+   세션은 (이메일, 세션 ID)로 구분하고, 현재 사용할 수 있는 RefreshToken 의 ID(jti)와 만료 시각을 저장함
+*/
+public interface TokenStore {
+    // 새 세션 저장, 회원의 세션 수가 최대 세션 수를 넘으면 가장 먼저 만료되는 세션이 로그아웃됨
+    void create(String email, String sessionId, String refreshTokenId, long ttlMillis);
+
+    // 세션이 있고 만료되지 않았는지, sessionId 가 null 이면 세션 ID 가 없는 이전 토큰
+    boolean isActive(String email, String sessionId);
+
+    /*
+       RefreshToken 의 jti 가 저장된 것과 같으면 새 jti 와 만료 시간으로 바꿈 (RefreshToken rotation)
+       이미 교체된 RefreshToken 이면 세션을 지우고 REUSED
+       비교와 교체는 원자적으로 처리되어야 하므로 같은 RefreshToken 으로 동시에 요청해도 하나만 ROTATED
+    */
+    Rotation rotate(String email, String sessionId, String refreshTokenId, String newRefreshTokenId, long ttlMillis);
+
+    // 세션 하나를 지움, sessionId 가 null 이면 회원의 모든 세션, 지운 세션이 있으면 true
+    boolean revoke(String email, String sessionId);
+
+    // 회원의 모든 세션을 지움, 지운 세션이 있으면 true
+    boolean revokeAll(String email);
+
+    // RefreshToken 재발급 결과
+    enum Rotation { ROTATED, EXPIRED, REUSED }
+}
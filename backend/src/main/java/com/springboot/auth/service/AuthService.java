@@ -1,21 +1,83 @@
 package com.springboot.auth.service;
 
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.utils.CheckValidator;
+import io.jsonwebtoken.Claims;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Service
 @Transactional
 public class AuthService {
     private final JwtTokenizer jwtTokenizer;
+    private final MemberRepository memberRepository;
+    private final CheckValidator checkValidator;
 
-    public AuthService(JwtTokenizer jwtTokenizer) {
+    public AuthService(JwtTokenizer jwtTokenizer, MemberRepository memberRepository, CheckValidator checkValidator) {
         this.jwtTokenizer = jwtTokenizer;
+        this.memberRepository = memberRepository;
+        this.checkValidator = checkValidator;
     }
 
-    public void logout(String username) {
-        boolean isDeleted = jwtTokenizer.deleteRegisterToken(username);
+    // 현재 기기의 세션만 로그아웃
+    public void logout(String username, String sessionId) {
+        boolean isDeleted = jwtTokenizer.deleteRegisterToken(username, sessionId);
         if (!isDeleted) throw new RuntimeException();
 
     }
+
+    // 모든 기기에서 로그아웃
+    public void logoutAll(String username) {
+        boolean isDeleted = jwtTokenizer.deleteAllRegisterTokens(username);
+        if (!isDeleted) throw new RuntimeException();
+    }
+
+    // 재시작 없이 JWT 키 링에 키를 추가 (관리자 전용), 서명 키를 바꿔도 이전 키는 검증용으로 남음
+    public void addKey(String keyId, String secretKey, boolean signing) {
+        checkValidator.checkAdmin();
+        jwtTokenizer.addKey(keyId, secretKey, signing);
+    }
+
+    // 더 이상 사용하지 않는 JWT 검증 키를 제거 (관리자 전용)
+    public void removeVerificationKey(String keyId) {
+        checkValidator.checkAdmin();
+        jwtTokenizer.removeVerificationKey(keyId);
+    }
+
+    /*
+       RefreshToken 으로 AccessToken 과 RefreshToken 을 재발급
+       비밀번호 검증(PasswordEncoder) 없이 Redis 에 저장된 RefreshToken 과 비교하고,
+       새 AccessToken 에 넣을 회원 ID 와 권한, 탈퇴 여부만 회원 조회 한번으로 확인함
+       이미 교체된 RefreshToken 이 다시 들어오면 JwtTokenizer 가 해당 기기의 세션을 지움
+    */
+    @Transactional(readOnly = true)
+    public JwtTokenizer.TokenRotation refresh(String refreshToken) {
+        Claims refreshTokenClaims = Optional.ofNullable(refreshToken)
+                .flatMap(jwtTokenizer::getRefreshTokenClaims)
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.INVALID_REFRESH_TOKEN));
+        String email = refreshTokenClaims.getSubject();
+        String sessionId = (String) refreshTokenClaims.get(JwtTokenizer.SESSION_ID_CLAIM);
+
+        Member member = memberRepository.findByEmail(email)
+                .filter(findMember -> findMember.getStatus() != Member.Status.MEMBER_QUIT)
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.INVALID_REFRESH_TOKEN));
+
+        JwtTokenizer.TokenRotation rotation =
+                jwtTokenizer.rotateTokens(refreshTokenClaims, jwtTokenizer.createAccessTokenClaims(member, sessionId));
+
+        switch (rotation.getStatus()) {
+            case REUSED:
+                throw new BusinessLogicException(ExceptionCode.REFRESH_TOKEN_REUSED);
+            case EXPIRED:
+                throw new BusinessLogicException(ExceptionCode.INVALID_REFRESH_TOKEN);
+            default:
+                return rotation;
+        }
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -23,10 +24,11 @@ public class AuthorityUtils {
     // Spring Security의 AuthorityUtils를 사용해서 문자열 "ROLE_ADMIN", "ROLE_USER"
     // 저 두 문자열을 기반으로 GrantedAuthority 객체 리스트를 생성
     // 즉, 관리자는 관리자 권한, 일반 사용자 권한 두개를 가지게 됨
-    private final List<GrantedAuthority> ADMIN_ROLES = org.springframework.security.core.authority.AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER");
+    // 요청마다 같이 사용하므로 List.copyOf 로 변경할 수 없는 리스트로 만듦
+    private final List<GrantedAuthority> ADMIN_ROLES = List.copyOf(org.springframework.security.core.authority.AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
 
     // 일반 유저 권한 부여
-    private final List<GrantedAuthority> USER_ROLES = org.springframework.security.core.authority.AuthorityUtils.createAuthorityList("ROLE_USER");
+    private final List<GrantedAuthority> USER_ROLES = List.copyOf(org.springframework.security.core.authority.AuthorityUtils.createAuthorityList("ROLE_USER"));
 
     // 관리자의 역할을 문자열 형태로 저장한 리스트
     private final List<String> ADMIN_ROLES_STRING = List.of("ADMIN", "USER");
@@ -34,6 +36,22 @@ public class AuthorityUtils {
     // 사용자의 역할을 문자열 형태로 저장한 리스트
     private final List<String> USER_ROLES_STRING = List.of("USER");
 
+    // 역할 문자열 리스트 -> 미리 만들어둔 권한 리스트
+    private final Map<List<String>, List<GrantedAuthority>> PREBUILT_AUTHORITIES = Map.of(
+            ADMIN_ROLES_STRING, ADMIN_ROLES,
+            USER_ROLES_STRING, USER_ROLES
+    );
+
+    /*
+       역할 문자열 리스트에 해당하는 권한 리스트를 반환하는 메서드 (인증 필터에서 요청마다 호출됨)
+       회원의 역할은 createRoles 가 만든 두 가지 중 하나이므로 미리 만들어둔 리스트를 그대로 반환하고
+       그 외의 조합일 때만 새로 만듦, 반환된 리스트는 변경할 수 없음
+    */
+    public List<GrantedAuthority> getAuthorities(List<String> roles) {
+        List<GrantedAuthority> authorities = PREBUILT_AUTHORITIES.get(roles);
+        return authorities != null ? authorities : List.copyOf(createAuthorities(roles));
+    }
+
     // 문자열 형태의 역할 리스트(ex. ["ADMIN, USER"], "USER")를 GrantedAuthority 객체 리스트로 변환하는 메서드
     public List<GrantedAuthority> createAuthorities(List<String> roles) {
         List<GrantedAuthority> authorities = roles.stream()
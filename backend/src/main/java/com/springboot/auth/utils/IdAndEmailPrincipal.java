@@ -8,4 +8,6 @@ import lombok.Getter;
 public class IdAndEmailPrincipal {
     private final String email;
     private final Long memberId;
+    // 로그인한 기기의 세션 ID, 세션 ID 가 없는 이전 토큰이면 null
+    private final String sessionId;
 }
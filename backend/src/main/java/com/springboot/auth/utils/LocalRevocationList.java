@@ -0,0 +1,71 @@
+package com.springboot.auth.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/*
+   Redis 를 사용할 수 없는 동안 이 서버에서 로그아웃한 세션 목록
+   서킷 브레이커가 열려 있으면 토큰은 서명과 만료 시간으로만 검증하므로, 그 사이에 로그아웃한 토큰은 여기서 걸러냄
+   Redis 가 복구되면 RedisTokenStore 가 목록의 세션을 Redis 에서도 지운 뒤(다른 서버에도 알림) 목록에서 지움
+
+   메모리를 제한하기 위해 maximum-size 개까지만 기억하고, 넘으면 오래된 것부터 잊어버림 (cache.evictions{cache=localRevocations})
+   다른 서버에서 로그아웃한 세션은 Redis 가 복구될 때까지 알 수 없음
+*/
+@Component
+@ConditionalOnProperty(name = "jwt.token-store", havingValue = "redis", matchIfMissing = true)
+public class LocalRevocationList {
+    private static final String CACHE_NAME = "localRevocations";
+
+    // 키는 [이메일, 세션 ID], 세션 ID 가 빈 문자열이면 회원의 모든 세션
+    private final Cache<List<String>, Boolean> revocations;
+
+    public LocalRevocationList(@Value("${jwt.degraded.revocation-list-size}") long maximumSize,
+                               MeterRegistry meterRegistry) {
+        this.revocations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, revocations, CACHE_NAME);
+    }
+
+    // sessionId 가 null 이면 회원의 모든 세션
+    public void revoke(String email, String sessionId) {
+        revocations.put(key(email, sessionId), Boolean.TRUE);
+    }
+
+    public boolean isRevoked(String email, String sessionId) {
+        if (isEmpty()) {
+            return false;
+        }
+        return revocations.getIfPresent(key(email, null)) != null
+                || (sessionId != null && revocations.getIfPresent(key(email, sessionId)) != null);
+    }
+
+    public boolean isEmpty() {
+        return revocations.estimatedSize() == 0;
+    }
+
+    /*
+       목록의 로그아웃을 하나씩 revoker 로 Redis 에 반영하고, 반영한 것은 목록에서 지움 (sessionId 가 null 이면 회원의 모든 세션)
+       revoker 가 예외를 던지면 거기서 멈추고 남은 로그아웃은 다음에 다시 반영함
+    */
+    public void replay(BiConsumer<String, String> revoker) {
+        for (List<String> key : new ArrayList<>(revocations.asMap().keySet())) {
+            revoker.accept(key.get(0), key.get(1).isEmpty() ? null : key.get(1));
+            revocations.invalidate(key);
+        }
+    }
+
+    private static List<String> key(String email, String sessionId) {
+        return List.of(email, sessionId == null ? "" : sessionId);
+    }
+}
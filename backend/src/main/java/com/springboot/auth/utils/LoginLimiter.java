@@ -0,0 +1,67 @@
+package com.springboot.auth.utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+   로그인(비밀번호 검증)을 동시에 처리할 수 있는 수를 제한하는 클래스
+   비밀번호 해시는 CPU 를 많이 사용하므로 로그인이 몰리면 모든 코어를 차지해서 다른 API 요청까지 느려짐
+   max-concurrent 개까지만 동시에 검증하고, 나머지는 max-wait-ms 까지 기다렸다가 그래도 차례가 오지 않으면 거절함 (503 + Retry-After)
+
+   대기 시간은 auth.login.queue, 비밀번호 해시 시간은 auth.password.hash (TimedPasswordEncoder) 로 확인할 수 있음
+*/
+@Component
+public class LoginLimiter {
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    @Getter
+    private final long retryAfterSeconds;
+    private final Timer admittedTimer;
+    private final Timer rejectedTimer;
+
+    public LoginLimiter(@Value("${auth.login.max-concurrent}") int maxConcurrent,
+                        @Value("${auth.login.max-wait-ms}") long maxWaitMillis,
+                        @Value("${auth.login.retry-after-seconds}") long retryAfterSeconds,
+                        MeterRegistry meterRegistry) {
+        // 먼저 기다린 요청부터 처리되도록 공정 모드 사용
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.admittedTimer = Timer.builder("auth.login.queue")
+                .description("로그인 요청이 비밀번호 검증을 시작하기까지 기다린 시간")
+                .tag("outcome", "admitted")
+                .register(meterRegistry);
+        this.rejectedTimer = Timer.builder("auth.login.queue")
+                .description("로그인 요청이 비밀번호 검증을 시작하기까지 기다린 시간")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.in-flight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("비밀번호를 검증 중인 로그인 요청 수")
+                .register(meterRegistry);
+    }
+
+    // 차례가 오면 true, max-wait-ms 안에 차례가 오지 않으면 false (true 인 경우 반드시 release() 호출)
+    public boolean tryAcquire() {
+        long startTime = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        (acquired ? admittedTimer : rejectedTimer).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
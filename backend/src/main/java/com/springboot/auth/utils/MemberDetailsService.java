@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -28,7 +29,7 @@ import java.util.Optional;
    이 메서드의 역할은 입력된 username을 기반으로 DB나 다른 저장소에서 사용자 정보를 조회하여, UserDetails 객체 반환
 */
 @Component
-public class MemberDetailsService implements UserDetailsService {
+public class MemberDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final MemberRepository memberRepository;
     private final AuthorityUtils authorityUtils;
 
@@ -45,6 +46,20 @@ public class MemberDetailsService implements UserDetailsService {
         return new MemberDetails(findMember);
     }
 
+    /*
+       로그인에 성공했는데 저장된 비밀번호 해시의 비용이 현재 설정(auth.password.bcrypt-strength)보다 낮으면
+       Spring Security 가 새 비용으로 다시 해시한 비밀번호로 이 메서드를 호출함
+       회원이 다음 로그인부터는 새 비용의 해시로 검증됨
+    */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Member findMember = memberRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND));
+        findMember.setPassword(newPassword);
+        memberRepository.save(findMember);
+        return new MemberDetails(findMember);
+    }
+
     // Member를 상속 받아서 회원의 기본 정보를 그대로 포함
     // 상속과 동시에 UserDetails 인터페이스를 구현
     @Getter
@@ -71,7 +86,7 @@ public class MemberDetailsService implements UserDetailsService {
             // createAuthorities를 통해 문자열 형태의 역할 목록을 GrantedAuthority 객체들의 리스트로 변환
             // 그 후 return을 통해 GrantedAuthority 객체들의 컬렉션을 반환
             // Spring Security가 사용자 권한을 확인할 수 있게 함
-            return authorityUtils.createAuthorities(this.getRoles());
+            return authorityUtils.getAuthorities(this.getRoles());
         }
 
         @Override
@@ -0,0 +1,52 @@
+package com.springboot.auth.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.utils.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+   이메일 -> 회원 ID 캐시
+   새로 발급하는 토큰에는 memberId 클레임이 들어있어서 요청마다 회원을 조회하지 않지만,
+   memberId 클레임이 없는 이전 토큰은 이 캐시로 회원 ID 를 찾아서 요청마다 회원과 roles 를 조회하지 않도록 함
+   회원 정보 수정(이메일, 권한 변경), 탈퇴 시 MemberService 가 해당 이메일을 바로 지움
+*/
+@Component
+public class MemberPrincipalCache {
+    private static final String CACHE_NAME = "memberPrincipal";
+
+    private final Cache<String, Long> cache;
+    private final MemberRepository memberRepository;
+
+    public MemberPrincipalCache(MemberRepository memberRepository,
+                                @Value("${member.principal-cache.maximum-size}") long maximumSize,
+                                @Value("${member.principal-cache.expire-after-write-seconds}") long expireAfterWriteSeconds,
+                                MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // 캐시에 없으면 회원 ID 만 조회해서 저장 (roles 컬렉션은 조회하지 않음)
+    public long getMemberId(String email) {
+        return cache.get(email, key -> memberRepository.findMemberIdByEmail(key)
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND)));
+    }
+
+    // 회원 정보가 바뀐 경우 호출, 트랜잭션 안이라면 커밋된 이후에 지움
+    public void evict(String email) {
+        TransactionUtils.runAfterCommit(() -> cache.invalidate(email));
+    }
+}
@@ -0,0 +1,176 @@
+package com.springboot.auth.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/*
+   인증에 사용하는 Redis 호출(RedisTokenStore)을 감싸는 서킷 브레이커
+   Redis 가 멈추면 모든 요청이 명령 timeout 만큼 기다렸다가 실패하므로,
+   연속으로 failure-threshold 번 실패하면 회로를 열고(OPEN) open-duration-ms 동안은 Redis 를 호출하지 않고 바로 fallback 을 실행함
+   open-duration-ms 가 지나면 요청 하나만 Redis 로 보내보고(HALF_OPEN), 성공하면 닫고(CLOSED) 실패하면 다시 염
+
+   Redis 오류(DataAccessException)만 실패로 세고, 그 외의 예외는 그대로 던짐
+   (HALF_OPEN 의 probe 가 그 외의 예외로 끝나도 HALF_OPEN 에 머물지 않도록 다시 회로를 엶)
+   상태는 auth.redis.circuit.state (0 CLOSED, 1 OPEN, 2 HALF_OPEN), 상태 변경은 auth.redis.circuit.transitions,
+   fallback 실행 횟수는 auth.redis.circuit.fallbacks 로 확인할 수 있음
+   Redis 가 느려지면 모든 인증 요청이 fallback 을 실행하므로, 카운터는 요청마다 찾지 않고 생성할 때 한번만 등록함
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.token-store", havingValue = "redis", matchIfMissing = true)
+public class RedisCircuitBreaker {
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    // 상태 변경(from -> to)별 카운터
+    private final Map<State, Map<State, Counter>> transitionCounters = new EnumMap<>(State.class);
+    private final Map<Operation, Counter> fallbackCounters = new EnumMap<>(Operation.class);
+
+    // 회로를 연 시각
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(@Value("${jwt.circuit-breaker.failure-threshold}") int failureThreshold,
+                               @Value("${jwt.circuit-breaker.open-duration-ms}") long openDurationMillis,
+                               MeterRegistry meterRegistry) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        Gauge.builder("auth.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("인증 Redis 서킷 브레이커 상태 (0 CLOSED, 1 OPEN, 2 HALF_OPEN)")
+                .register(meterRegistry);
+
+        registerTransition(State.CLOSED, State.OPEN, meterRegistry);
+        registerTransition(State.OPEN, State.HALF_OPEN, meterRegistry);
+        registerTransition(State.HALF_OPEN, State.CLOSED, meterRegistry);
+        registerTransition(State.HALF_OPEN, State.OPEN, meterRegistry);
+        for (Operation operation : Operation.values()) {
+            fallbackCounters.put(operation, Counter.builder("auth.redis.circuit.fallbacks")
+                    .description("Redis 대신 fallback 으로 처리한 인증 요청 수")
+                    .tag("operation", operation.getTag())
+                    .register(meterRegistry));
+        }
+    }
+
+    /*
+       회로가 닫혀 있으면 call 을 실행하고, 회로가 열려 있거나 call 이 Redis 오류로 실패하면 fallback 을 실행함
+       operation 은 fallback 메트릭의 태그로 사용함
+    */
+    public <T> T execute(Operation operation, Supplier<T> call, Supplier<T> fallback) {
+        if (!tryAcquirePermission()) {
+            return fallback(operation, fallback);
+        }
+        // HALF_OPEN 에서 호출을 허락받은 요청은 probe 하나뿐임
+        boolean probe = state.get() == State.HALF_OPEN;
+        boolean recorded = false;
+        try {
+            T result = call.get();
+            recorded = true;
+            onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            recorded = true;
+            onFailure(e);
+            return fallback(operation, fallback);
+        } finally {
+            // Redis 오류가 아닌 예외로 끝난 probe 는 결과를 알 수 없으므로 다시 회로를 열어 다음 probe 를 기다림
+            if (!recorded && probe) {
+                openedAt = System.currentTimeMillis();
+                transition(State.HALF_OPEN, State.OPEN);
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    private boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        // 열린 뒤 open-duration-ms 가 지났으면 HALF_OPEN 으로 바꾼 요청 하나만 Redis 를 호출함
+        return current == State.OPEN
+                && System.currentTimeMillis() - openedAt >= openDurationMillis
+                && transition(State.OPEN, State.HALF_OPEN);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    private void onFailure(DataAccessException e) {
+        if (state.get() == State.HALF_OPEN) {
+            openedAt = System.currentTimeMillis();
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            if (transition(State.CLOSED, State.OPEN)) {
+                log.warn("# Redis circuit opened after {} consecutive failures: {}", failureThreshold, e.getMessage());
+            }
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        if (to == State.CLOSED) {
+            log.info("# Redis circuit closed");
+        }
+        transitionCounters.get(from).get(to).increment();
+        return true;
+    }
+
+    private <T> T fallback(Operation operation, Supplier<T> fallback) {
+        fallbackCounters.get(operation).increment();
+        return fallback.get();
+    }
+
+    private void registerTransition(State from, State to, MeterRegistry meterRegistry) {
+        transitionCounters.computeIfAbsent(from, key -> new EnumMap<>(State.class))
+                .put(to, Counter.builder("auth.redis.circuit.transitions")
+                        .description("인증 Redis 서킷 브레이커 상태 변경 횟수")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry));
+    }
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // 서킷 브레이커로 감싸는 RedisTokenStore 의 작업, fallback 메트릭의 operation 태그
+    public enum Operation {
+        CREATE("create"),
+        IS_ACTIVE("isActive"),
+        ROTATE("rotate"),
+        REVOKE("revoke"),
+        REVOKE_ALL("revokeAll");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.springboot.auth.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot.auth.jwt.RedisTokenStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+   Redis 세션 저장소(RedisTokenStore)의 로컬 캐시
+   인증 필터가 요청마다 Redis 를 조회하지 않도록 유효하다고 확인된 (이메일, 세션 ID)를 max-staleness-ms 동안 기억함
+   유효한 경우만 저장하므로 로그인 직후의 토큰은 바로 사용할 수 있음
+
+   로그아웃하면 RedisTokenStore 가 Redis pub/sub 채널로 보내는 메시지를 받아서 모든 서버의 캐시에서 바로 지움
+   구독이 끊겨 있는 동안에는 캐시에 저장하지 않고 요청마다 Redis 에 확인하며, 다시 구독할 때 그 사이에 놓친 메시지가 있을 수 있으므로 캐시를 비움
+   메시지가 유실된 경우에도 로그아웃한 토큰은 최대 max-staleness-ms 까지만 통과됨
+   캐시 적중률은 /actuator/metrics 의 cache.gets{cache=tokenAllowlist}, 무효화 지연은 auth.allowlist.invalidation.lag 로 확인할 수 있음
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.token-store", havingValue = "redis", matchIfMissing = true)
+public class TokenAllowlistCache implements MessageListener {
+    private static final String CACHE_NAME = "tokenAllowlist";
+
+    // 키는 [이메일, 세션 ID], 세션 ID 가 없는 이전 토큰은 빈 문자열
+    private final Cache<List<String>, Boolean> cache;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final Timer invalidationLagTimer;
+
+    public TokenAllowlistCache(RedisMessageListenerContainer redisMessageListenerContainer,
+                               @Value("${jwt.allowlist-cache.maximum-size}") long maximumSize,
+                               @Value("${jwt.allowlist-cache.max-staleness-ms}") long maxStalenessMillis,
+                               MeterRegistry meterRegistry) {
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(maxStalenessMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.invalidationLagTimer = Timer.builder("auth.allowlist.invalidation.lag")
+                .description("로그아웃한 서버에서 발행한 무효화 메시지를 받을 때까지 걸린 시간 (서버 간 시계 차이 포함)")
+                .register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RedisTokenStore.REVOKED_CHANNEL));
+    }
+
+    // 최근에 유효하다고 확인된 세션인지 (sessionId 가 null 이면 이전 방식의 토큰)
+    public boolean contains(String username, String sessionId) {
+        return cache.getIfPresent(cacheKey(username, sessionId)) != null;
+    }
+
+    // Redis 에서 유효하다고 확인된 세션을 저장, 구독이 끊겨 있으면 삭제 메시지를 받을 수 없으므로 저장하지 않음
+    public void put(String username, String sessionId) {
+        if (redisMessageListenerContainer.isListening()) {
+            cache.put(cacheKey(username, sessionId), Boolean.TRUE);
+        }
+    }
+
+    /*
+       이 서버의 캐시에서만 지움 (로그아웃한 서버에서 메시지를 기다리지 않고 바로 지울 때 사용)
+       다른 서버는 RedisTokenStore 가 보낸 메시지를 받아서 지움, sessionId 가 null 이면 회원의 모든 세션
+    */
+    public void evict(String username, String sessionId) {
+        if (sessionId == null) {
+            cache.asMap().keySet().removeIf(key -> key.get(0).equals(username));
+        } else {
+            cache.invalidate(cacheKey(username, sessionId));
+        }
+    }
+
+    // 메시지 형식은 "발행 시각(ms):세션 ID:이메일", 모든 세션을 지운 경우 세션 ID 는 빈 문자열
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] values = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 3);
+        if (values.length < 3) {
+            return;
+        }
+        evict(values[2], values[1].isEmpty() ? null : values[1]);
+        long lagMillis = System.currentTimeMillis() - Long.parseLong(values[0]);
+        invalidationLagTimer.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    // 구독이 끊겨 있으면 다시 구독함 (Redis 가 재시작되거나 서버가 Redis 없이 시작된 경우)
+    @Scheduled(fixedDelayString = "${jwt.allowlist-cache.max-staleness-ms}")
+    public void resubscribe() {
+        if (redisMessageListenerContainer.isListening()) {
+            return;
+        }
+        cache.invalidateAll();
+        try {
+            redisMessageListenerContainer.stop();
+        } catch (RuntimeException e) {
+            log.debug("# Failed to stop Redis listener container: {}", e.getMessage());
+        }
+        redisMessageListenerContainer.start();
+    }
+
+    private static List<String> cacheKey(String username, String sessionId) {
+        return List.of(username, sessionId == null ? "" : sessionId);
+    }
+}
@@ -7,39 +7,55 @@ import com.springboot.auth.handler.MemberAuthenticationEntryPoint;
 import com.springboot.auth.handler.MemberAuthenticationFailureHandler;
 import com.springboot.auth.handler.MemberAuthenticationSuccessHandler;
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.auth.jwt.TokenStore;
 import com.springboot.auth.utils.AuthorityUtils;
-import com.springboot.auth.utils.MemberDetailsService;
+import com.springboot.auth.utils.LoginLimiter;
+import com.springboot.auth.utils.MemberPrincipalCache;
+import com.springboot.auth.utils.TimedPasswordEncoder;
+import com.springboot.ratelimit.RateLimitFilter;
+import com.springboot.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class SecurityConfiguration {
     private final JwtTokenizer jwtTokenizer;
     private final AuthorityUtils authorityUtils;
-    private final MemberDetailsService memberDetailsService;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final MemberPrincipalCache memberPrincipalCache;
+    private final TokenStore tokenStore;
+    private final LoginLimiter loginLimiter;
+    private final RateLimiter rateLimiter;
+    private final HandlerMappingIntrospector handlerMappingIntrospector;
 
-    public SecurityConfiguration(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils, MemberDetailsService memberDetailsService, RedisTemplate<String, Object> redisTemplate) {
+    public SecurityConfiguration(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils, MemberPrincipalCache memberPrincipalCache, TokenStore tokenStore, LoginLimiter loginLimiter, RateLimiter rateLimiter, HandlerMappingIntrospector handlerMappingIntrospector) {
         this.jwtTokenizer = jwtTokenizer;
         this.authorityUtils = authorityUtils;
-        this.memberDetailsService = memberDetailsService;
-        this.redisTemplate = redisTemplate;
+        this.memberPrincipalCache = memberPrincipalCache;
+        this.tokenStore = tokenStore;
+        this.loginLimiter = loginLimiter;
+        this.rateLimiter = rateLimiter;
+        this.handlerMappingIntrospector = handlerMappingIntrospector;
     }
 
     @Bean
@@ -111,6 +127,14 @@ public class SecurityConfiguration {
                         // 회원 탈퇴는 ROLE_USER 권한을 가진 사용자만 접근 가능
                         .antMatchers(HttpMethod.DELETE, "/v1/members/**").hasRole("USER")
 
+                        // JWT 서명 키 교체, 검증 키 제거는 관리자만 가능
+                        .antMatchers("/auth/keys/**").hasRole("ADMIN")
+
+                        // 좋아요/조회수 랭킹 재생성은 관리자만 가능
+                        .antMatchers(HttpMethod.POST, "/v1/questions/rankings/rebuild").hasRole("ADMIN")
+                        // 질문 대량 등록, 전체 내보내기는 관리자만 가능
+                        .antMatchers(HttpMethod.POST, "/v1/questions/import").hasRole("ADMIN")
+                        .antMatchers(HttpMethod.GET, "/v1/questions/export").hasRole("ADMIN")
                         // 질문 생성 권한 설정
                         .antMatchers(HttpMethod.POST, "/*/questions").hasRole("USER")
                         // 질문 수정 권한 설정
@@ -132,6 +156,10 @@ public class SecurityConfiguration {
                         // 좋아요 생성, 삭제 권한 설정
                         .antMatchers(HttpMethod.POST, "/v1/questions/**/likes").hasAnyRole("USER", "ADMIN")
 
+                        // 모니터링 지표(캐시 적중률 등)는 관리자만 조회 가능, health 는 누구나 접근 가능
+                        .antMatchers("/actuator/health").permitAll()
+                        .antMatchers("/actuator/**").hasRole("ADMIN")
+
                         // 위에서 설정한 특정 패턴을 제외한 모든 요청 누구나 접근 가능
                         .anyRequest().permitAll()
                 );
@@ -141,7 +169,8 @@ public class SecurityConfiguration {
 
     @Bean
     // Spring Security에서 비밀번호를 암호화하고 검증하는데 사용되는 PasswordEncoder 빈을 정의하는 메서드
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength}") int bcryptStrength,
+                                           MeterRegistry meterRegistry) {
         /* DelegatingPasswordEncoder 란?
            여러 종류의 passwordEncoder를 지원하는 위임(Delegating) 방식의 PasswordEncoder.
            다양한 암호화 알고리즘들을 동적으로 선택할 수 있음
@@ -149,7 +178,15 @@ public class SecurityConfiguration {
            ex. {bcrypt}암호화된 문자열
            이 접두사를 통해 비밀번호를 검증할 때 적절한 PasswordEncoder를 선택함
         */
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        /*
+           새 비밀번호는 bcrypt-strength 비용의 bcrypt 로 저장하고, bcrypt 가 아닌 다른 접두사의 비밀번호는 기본 DelegatingPasswordEncoder 로 검증함
+           저장된 bcrypt 해시의 비용이 설정보다 낮으면 로그인에 성공했을 때 새 비용으로 다시 저장됨 (MemberDetailsService.updatePassword)
+        */
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        return new TimedPasswordEncoder(passwordEncoder, meterRegistry);
     }
 
 
@@ -214,7 +251,7 @@ public class SecurityConfiguration {
                JWT 기반 인증을 수행하는 커스텀 필터
                이 필터는 사용자의 로그인 요청을 가로채서 JWT를 발급하거나 검증하는 역할을 함
             */
-            JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager, jwtTokenizer);
+            JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager, jwtTokenizer, loginLimiter);
 
             // 로그인 요청을 처리하는 EndPoint를 "v11/auth/login"으로 설정
             jwtAuthenticationFilter.setFilterProcessesUrl("/v1/auth/login");
@@ -227,12 +264,14 @@ public class SecurityConfiguration {
 
             // JWT 토큰을 검증하는 필터를 생성
             // 유효한 사용자라면 SecurityContext에 인증 정보를 저장하는 역할을 함
-            JwtVerificationFilter jwtVerificationFilter = new JwtVerificationFilter(jwtTokenizer, authorityUtils, memberDetailsService, redisTemplate);
+            JwtVerificationFilter jwtVerificationFilter = new JwtVerificationFilter(jwtTokenizer, authorityUtils, memberPrincipalCache, tokenStore);
 
             // HttpSecurity 필터 체인에 jwtAuthenticationFilter 를 추가
             // 로그인 요청이 들어오면 이 필터가 실행되도록 설정
             builder.addFilter(jwtAuthenticationFilter)
-                    .addFilterAfter(jwtVerificationFilter, JwtAuthenticationFilter.class);
+                    .addFilterAfter(jwtVerificationFilter, JwtAuthenticationFilter.class)
+                    // 회원 ID 로 요청 수를 제한하기 위해 JWT 검증 다음에 실행
+                    .addFilterAfter(new RateLimitFilter(rateLimiter, handlerMappingIntrospector), JwtVerificationFilter.class);
 
         }
     }
@@ -0,0 +1,19 @@
+package com.springboot.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+
+@Getter
+public class CursorMultiResponseDto<T> {
+    private List<T> data;
+    private CursorPageInfo pageInfo;
+
+    public CursorMultiResponseDto(List<T> data, Slice slice, String nextCursor) {
+        this.data = data;
+        this.pageInfo = new CursorPageInfo(slice.getSize(), slice.hasNext(),
+                slice.hasNext() ? nextCursor : null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 커서 기반 조회용 페이지 정보, 전체 개수를 세지 않기 때문에 totalPages 대신 다음 커서를 내려줌
+@AllArgsConstructor
+@Getter
+public class CursorPageInfo {
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
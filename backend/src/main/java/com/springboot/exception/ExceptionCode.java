@@ -12,7 +12,16 @@ public enum ExceptionCode {
     ANSWER_NOT_FOUND(404, "답변을 찾을 수 없습니다."),
     ANSWER_EXISTS(409, "Answer exists"),
     ACCESS_DENIED(403, "접근 권한이 없습니다."),
-    UNAUTHORIZED_ACCESS(403, "관리자 권한이 없습니다.");
+    UNAUTHORIZED_ACCESS(403, "관리자 권한이 없습니다."),
+    INVALID_CURSOR(400, "잘못된 커서입니다."),
+    SEARCH_QUERY_TOO_SHORT(400, "검색어는 2글자 이상인 단어를 포함해야 합니다."),
+    IMPORT_SIZE_EXCEEDED(400, "한번에 등록할 수 있는 질문 수를 초과했습니다."),
+    IMPORT_ROW_FAILED(500, "저장 중 오류가 발생해 등록하지 못했습니다."),
+    LIKE_STORAGE_UNAVAILABLE(503, "잠시 후 다시 시도해주세요."),
+    INVALID_REFRESH_TOKEN(401, "다시 로그인해주세요."),
+    REFRESH_TOKEN_REUSED(401, "이미 사용된 토큰입니다. 다시 로그인해주세요."),
+    INVALID_SIGNING_KEY(400, "사용할 수 없는 서명 키입니다."),
+    SESSION_STORAGE_UNAVAILABLE(503, "잠시 후 다시 시도해주세요.");
 //    COFFEE_NOT_FOUND(404, "Coffee not found"),
 //    COFFEE_CODE_EXISTS(409, "Coffee Code exists"),
 //    ORDER_NOT_FOUND(404, "Order not found"),
@@ -12,7 +12,10 @@ import javax.persistence.*;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "LIKES")
+// 한 회원은 같은 질문에 좋아요를 한번만 누를 수 있음
+@Table(name = "LIKES", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_likes_member_question", columnNames = {"MEMBER_ID", "QUESTION_ID"})
+})
 public class Like {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,11 +2,32 @@ package com.springboot.like.repository;
 
 import com.springboot.like.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
     boolean existsByMemberAndQuestion(long memberId, long questionId);
-    // 특정 질문에 대해 특정 회원이 좋아요를 눌렀는지 확인
-    Optional<Like> findByQuestion_QuestionIdAndMember_MemberId(long questionId, long memberId);
+
+    // 여러 질문 중 회원이 좋아요를 누른 질문의 ID 목록, 질문마다 따로 조회하지 않고 한 페이지를 한번의 IN 쿼리로 확인
+    @Query("SELECT l.question.questionId FROM Like l " +
+            "WHERE l.member.memberId = :memberId AND l.question.questionId IN :questionIds")
+    List<Long> findLikedQuestionIds(@Param("memberId") long memberId,
+                                    @Param("questionIds") Collection<Long> questionIds);
+
+    // 좋아요 취소, 엔티티를 조회하지 않고 바로 삭제하며 삭제된 행 수(0 또는 1)를 반환
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.question.questionId = :questionId AND l.member.memberId = :memberId")
+    int deleteByQuestionIdAndMemberId(@Param("questionId") long questionId, @Param("memberId") long memberId);
+
+    // 좋아요 추가, 질문이 없거나 삭제/비활성화 상태라면 추가되지 않고 0 을 반환
+    // 이미 좋아요가 있다면 (member_id, question_id) 유니크 제약 때문에 DataIntegrityViolationException 이 발생함
+    @Modifying
+    @Query(value = "INSERT INTO likes (member_id, question_id) " +
+            "SELECT :memberId, q.question_id FROM question q WHERE q.question_id = :questionId " +
+            "AND q.question_status NOT IN ('QUESTION_DELETED', 'QUESTION_DEACTIVED')", nativeQuery = true)
+    int insertIfQuestionVisible(@Param("questionId") long questionId, @Param("memberId") long memberId);
 }
@@ -0,0 +1,279 @@
+package com.springboot.like.service;
+
+import com.springboot.question.service.QuestionRanking;
+import com.springboot.question.service.QuestionResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+   question.like_count 가 LIKES 테이블의 실제 행 수와 다른 질문을 찾아서 고치는 작업
+   like_count 는 LIKES 와 따로 저장하는 값이라 장애, 수동 데이터 수정, Redis 저장소의 반영 실패 등으로 어긋날 수 있음
+
+   질문 전체를 한번에 검사하지 않고 question_id 범위(chunk-size)로 나눠서
+   범위마다 GROUP BY 쿼리 한번으로 좋아요 수를 세고, 다른 질문만 배치 UPDATE 함
+   범위마다 짧은 트랜잭션으로 실행하고 다른 행만 변경하기 때문에 테이블을 오래 잠그지 않음
+
+   UPDATE 는 조회했을 때의 like_count 와 같을 때만 실행되므로 그 사이에 좋아요가 눌린 질문은 건너뛰고 다음 실행 때 다시 검사함
+   마지막으로 검사한 question_id 를 Redis 에 저장해두고 서버가 재시작되면 그 다음 범위부터 이어서 검사함
+
+   여러 서버가 같은 검사를 반복하지 않도록 Redis 락을 잡은 서버 하나만 실행하고, 범위마다 락의 만료 시간을 연장함
+   Redis 를 사용할 수 없으면 락 없이 실행함 (UPDATE 가 읽은 값과 같을 때만 실행되므로 겹쳐서 실행되어도 결과는 같음)
+
+   like.storage=redis 라면 랭킹 점수는 Redis Set 의 좋아요 수를 따라가므로
+   DB 의 like_count 를 고쳐도 랭킹은 Redis Set 의 좋아요 수로 맞추고, Set 이 채워지지 않은 질문만 DB 값을 사용함
+   고친 행 수, 차이 크기, 소요 시간은 /actuator/metrics 의 likes.count.reconcile.* 로 확인할 수 있음
+*/
+@Slf4j
+@Component
+public class LikeCountReconciliationJob {
+    private static final String CHECKPOINT_KEY = "likes:count-reconcile:checkpoint";
+    static final String LOCK_KEY = "likes:count-reconcile:lock";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(question_id), 0) FROM question";
+    private static final String COUNT_SQL = "SELECT q.question_id, q.like_count, COUNT(l.like_id) FROM question q " +
+            "LEFT JOIN likes l ON l.question_id = q.question_id " +
+            "WHERE q.question_id > ? AND q.question_id <= ? " +
+            "GROUP BY q.question_id, q.like_count " +
+            "HAVING q.like_count <> COUNT(l.like_id)";
+    private static final String FIX_SQL = "UPDATE question SET like_count = ?, version = version + 1 " +
+            "WHERE question_id = ? AND like_count = ?";
+    private static final String LIKE_COUNT_SQL = "SELECT like_count FROM question WHERE question_id = ?";
+
+    // 락을 잡은 서버만 만료 시간을 연장하거나 해제할 수 있음
+    private static final RedisScript<Long> EXTEND_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final QuestionResponseCache questionResponseCache;
+    private final QuestionRanking questionRanking;
+    // like.storage=redis 일 때만 존재함
+    private final RedisLikeStore redisLikeStore;
+    private final int chunkSize;
+    private final Duration lockTimeout;
+    private final Counter fixedCounter;
+    private final DistributionSummary driftSummary;
+    private final Timer durationTimer;
+    // Redis 를 사용할 수 없을 때의 체크포인트
+    private final AtomicLong localCheckpoint = new AtomicLong();
+    // 이번 검사에서 체크포인트를 Redis 에 저장할지, 처음 읽을 때 실패했다면 범위마다 다시 시도하지 않음
+    private volatile boolean checkpointInRedis;
+
+    public LikeCountReconciliationJob(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      RedisTemplate<String, Object> redisTemplate,
+                                      QuestionResponseCache questionResponseCache,
+                                      QuestionRanking questionRanking,
+                                      ObjectProvider<RedisLikeStore> redisLikeStore,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${like.count-reconcile.chunk-size}") int chunkSize,
+                                      @Value("${like.count-reconcile.lock-timeout-ms}") long lockTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisTemplate = redisTemplate;
+        this.questionResponseCache = questionResponseCache;
+        this.questionRanking = questionRanking;
+        this.redisLikeStore = redisLikeStore.getIfAvailable();
+        this.chunkSize = chunkSize;
+        this.lockTimeout = Duration.ofMillis(lockTimeoutMillis);
+        this.fixedCounter = Counter.builder("likes.count.reconcile.fixed")
+                .description("좋아요 수를 고친 질문 수")
+                .register(meterRegistry);
+        this.driftSummary = DistributionSummary.builder("likes.count.reconcile.drift")
+                .description("고친 질문의 좋아요 수 차이 (절댓값)")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("likes.count.reconcile.duration")
+                .description("질문 전체를 한번 검사하는 데 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    // 이전 검사가 끝난 뒤 interval-ms 만큼 기다렸다가 다시 처음부터 검사함
+    @Scheduled(initialDelayString = "${like.count-reconcile.initial-delay-ms}",
+            fixedDelayString = "${like.count-reconcile.interval-ms}")
+    public void reconcile() {
+        String lockToken = UUID.randomUUID().toString();
+        boolean locked;
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, lockToken, lockTimeout))) {
+                log.info("# Skipped like_count reconciliation: another server is running it");
+                return;
+            }
+            locked = true;
+        } catch (DataAccessException e) {
+            log.warn("# Running like_count reconciliation without lock: {}", e.getMessage());
+            locked = false;
+        }
+
+        try {
+            reconcileAll(locked ? lockToken : null);
+        } finally {
+            if (locked) {
+                try {
+                    redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), lockToken);
+                } catch (DataAccessException e) {
+                    log.warn("# Failed to release like_count reconcile lock: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // lockToken 이 null 이면 락 없이 실행 중
+    private void reconcileAll(String lockToken) {
+        long startTime = System.nanoTime();
+        long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        long fixedCount = 0;
+        long maxDrift = 0;
+
+        for (long from = loadCheckpoint(); from < maxId; from += chunkSize) {
+            if (lockToken != null && !extendLock(lockToken)) {
+                // 락이 만료되어 다른 서버가 이어서 검사하고 있으므로 체크포인트를 그대로 두고 멈춤
+                log.warn("# Stopped like_count reconciliation: lost the lock at questionId {}", from);
+                return;
+            }
+            long to = Math.min(from + chunkSize, maxId);
+            long[] result = reconcileChunk(from, to);
+            fixedCount += result[0];
+            maxDrift = Math.max(maxDrift, result[1]);
+            saveCheckpoint(to);
+        }
+        saveCheckpoint(0);
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        durationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (fixedCount > 0) {
+            log.warn("# Fixed like_count of {} questions (max drift {}) in {} ms",
+                    fixedCount, maxDrift, elapsedNanos / 1_000_000);
+        } else {
+            log.info("# Checked like_count up to questionId {} in {} ms", maxId, elapsedNanos / 1_000_000);
+        }
+    }
+
+    // (from, to] 범위의 질문을 검사하고 {고친 질문 수, 가장 큰 차이} 를 반환
+    private long[] reconcileChunk(long from, long to) {
+        Map<Long, Integer> likeCounts = new LinkedHashMap<>();
+        long[] result = new long[2];
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> batchArgs = new ArrayList<>();
+            jdbcTemplate.query(COUNT_SQL, resultSet -> {
+                batchArgs.add(new Object[]{resultSet.getInt(3), resultSet.getLong(1), resultSet.getInt(2)});
+            }, from, to);
+            if (batchArgs.isEmpty()) {
+                return;
+            }
+
+            int[] updated = jdbcTemplate.batchUpdate(FIX_SQL, batchArgs);
+            for (int i = 0; i < updated.length; i++) {
+                Object[] args = batchArgs.get(i);
+                int likeCount = (int) args[0];
+                if (!isApplied(updated[i], (Long) args[1], likeCount)) {
+                    continue;
+                }
+                long drift = Math.abs(likeCount - (int) args[2]);
+                likeCounts.put((Long) args[1], likeCount);
+                driftSummary.record(drift);
+                result[1] = Math.max(result[1], drift);
+            }
+        });
+
+        if (!likeCounts.isEmpty()) {
+            fixedCounter.increment(likeCounts.size());
+            questionResponseCache.evictAll(likeCounts.keySet());
+            questionRanking.updateLikeCounts(rankingLikeCounts(likeCounts));
+        }
+        result[0] = likeCounts.size();
+        return result;
+    }
+
+    /*
+       배치 UPDATE 결과로 고쳐졌는지 확인
+       드라이버가 행 수 대신 SUCCESS_NO_INFO(-2)를 반환하면 같은 트랜잭션에서 like_count 를 다시 읽어서 확인하고
+       EXECUTE_FAILED(-3) 나 0 은 고치지 않은 것으로 봄
+    */
+    private boolean isApplied(int updateCount, long questionId, int likeCount) {
+        if (updateCount == Statement.SUCCESS_NO_INFO) {
+            Integer current = jdbcTemplate.queryForObject(LIKE_COUNT_SQL, Integer.class, questionId);
+            return current != null && current == likeCount;
+        }
+        return updateCount > 0;
+    }
+
+    // 랭킹에 덮어쓸 좋아요 수, Redis 저장소에 채워진 질문은 저널이 아직 반영되지 않았을 수 있으므로 Redis Set 의 좋아요 수를 사용
+    private Map<Long, Integer> rankingLikeCounts(Map<Long, Integer> likeCounts) {
+        if (redisLikeStore == null) {
+            return likeCounts;
+        }
+        Map<Long, Integer> redisCounts = redisLikeStore.findLikeCounts(likeCounts.keySet());
+        Map<Long, Integer> rankingCounts = new LinkedHashMap<>();
+        likeCounts.forEach((questionId, likeCount) ->
+                rankingCounts.put(questionId, redisCounts.getOrDefault(questionId, likeCount)));
+        return rankingCounts;
+    }
+
+    private boolean extendLock(String lockToken) {
+        try {
+            Long extended = redisTemplate.execute(EXTEND_LOCK_SCRIPT, List.of(LOCK_KEY), lockToken,
+                    String.valueOf(lockTimeout.toMillis()));
+            return extended != null && extended == 1;
+        } catch (DataAccessException e) {
+            // Redis 가 잠깐 실패한 경우에는 멈추지 않고 계속 검사함 (겹쳐서 실행되어도 결과는 같음)
+            log.warn("# Failed to extend like_count reconcile lock: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private long loadCheckpoint() {
+        try {
+            Object checkpoint = redisTemplate.opsForValue().get(CHECKPOINT_KEY);
+            checkpointInRedis = true;
+            if (checkpoint != null) {
+                return Long.parseLong((String) checkpoint);
+            }
+            return 0;
+        } catch (DataAccessException e) {
+            checkpointInRedis = false;
+            return localCheckpoint.get();
+        }
+    }
+
+    private void saveCheckpoint(long questionId) {
+        localCheckpoint.set(questionId);
+        if (!checkpointInRedis) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(CHECKPOINT_KEY, String.valueOf(questionId));
+        } catch (DataAccessException e) {
+            checkpointInRedis = false;
+            log.warn("# Failed to save like_count reconcile checkpoint: {}", e.getMessage());
+        }
+    }
+}
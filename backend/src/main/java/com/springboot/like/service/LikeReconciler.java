@@ -0,0 +1,216 @@
+package com.springboot.like.service;
+
+import com.springboot.question.service.QuestionResponseCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+   Redis 좋아요 저널을 LIKES 테이블과 question.like_count 에 반영하는 클래스 (like.storage=redis 일 때만 동작)
+
+   저널에서 batch-size 만큼을 처리 중 목록(processing)으로 옮긴 뒤 DB 에 반영하고, 커밋된 다음에 처리 중 목록을 지움
+   DB 반영 후 처리 중 목록을 지우기 전에 서버가 죽으면 다음 실행 때 처리 중 목록부터 다시 반영하는데
+   저널의 순서대로 다시 적용하지 않고 (질문, 회원)마다 Redis Set 의 현재 상태로 LIKES 를 맞추고
+   like_count 는 LIKES 의 행 수로 다시 계산하기 때문에 같은 내역을 여러번 반영해도 결과가 같음
+
+   여러 서버에서 동시에 실행되지 않도록 Redis 락을 잡고 실행함
+   아직 반영되지 않은 저널 수(likes.journal.pending)와 가장 오래된 내역의 지연 시간(likes.journal.lag)을 메트릭으로 노출함
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "like.storage", havingValue = "redis")
+public class LikeReconciler {
+    // 저널에서 처리 중 목록으로 최대 ARGV[1] 개를 옮김, 옮긴 개수를 반환
+    private static final RedisScript<Long> MOVE_SCRIPT = new DefaultRedisScript<>(
+            "local moved = 0 " +
+            "for i = 1, tonumber(ARGV[1]) do " +
+            "  if not redis.call('RPOPLPUSH', KEYS[1], KEYS[2]) then break end " +
+            "  moved = moved + 1 " +
+            "end " +
+            "return moved", Long.class);
+
+    // 락을 잡은 서버만 해제할 수 있음
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    private static final String INSERT_LIKE_SQL = "INSERT INTO likes (member_id, question_id) " +
+            "SELECT ?, q.question_id FROM question q WHERE q.question_id = ? " +
+            "AND q.question_status NOT IN ('QUESTION_DELETED', 'QUESTION_DEACTIVED') " +
+            "AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.member_id = ? AND l.question_id = ?)";
+    private static final String DELETE_LIKE_SQL = "DELETE FROM likes WHERE member_id = ? AND question_id = ?";
+    private static final String RECOUNT_SQL = "UPDATE question SET like_count = " +
+            "(SELECT COUNT(*) FROM likes l WHERE l.question_id = question.question_id), version = version + 1 " +
+            "WHERE question_id = ?";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisLikeStore redisLikeStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionResponseCache questionResponseCache;
+    private final int batchSize;
+    private final Duration lockTimeout;
+
+    public LikeReconciler(RedisTemplate<String, Object> redisTemplate,
+                          RedisLikeStore redisLikeStore,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          QuestionResponseCache questionResponseCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${like.reconcile.batch-size}") int batchSize,
+                          @Value("${like.reconcile.lock-timeout-ms}") long lockTimeoutMillis) {
+        this.redisTemplate = redisTemplate;
+        this.redisLikeStore = redisLikeStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.questionResponseCache = questionResponseCache;
+        this.batchSize = batchSize;
+        this.lockTimeout = Duration.ofMillis(lockTimeoutMillis);
+
+        Gauge.builder("likes.journal.pending", this, LikeReconciler::getPendingCount)
+                .description("DB 에 아직 반영되지 않은 좋아요 변경 수")
+                .register(meterRegistry);
+        Gauge.builder("likes.journal.lag", this, LikeReconciler::getLagSeconds)
+                .description("DB 에 아직 반영되지 않은 가장 오래된 좋아요 변경의 경과 시간")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${like.reconcile.interval-ms}")
+    public void reconcile() {
+        String lockToken = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RedisLikeStore.RECONCILE_LOCK_KEY, lockToken, lockTimeout))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("# Skipped like reconciliation: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            // 이전 실행에서 반영하지 못하고 남은 처리 중 목록이 있다면 새로 옮기지 않고 그것부터 반영
+            List<String> entries = readProcessing();
+            if (entries.isEmpty()) {
+                redisTemplate.execute(MOVE_SCRIPT, List.of(RedisLikeStore.JOURNAL_KEY, RedisLikeStore.PROCESSING_KEY),
+                        String.valueOf(batchSize));
+                entries = readProcessing();
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            Set<Long> questionIds = apply(entries);
+
+            redisTemplate.delete(RedisLikeStore.PROCESSING_KEY);
+            questionResponseCache.evictAll(questionIds);
+            log.info("# Reconciled {} like changes for {} questions", entries.size(), questionIds.size());
+        } catch (RuntimeException e) {
+            // 처리 중 목록은 그대로 남아있으므로 다음 실행 때 다시 반영됨
+            log.error("# Failed to reconcile likes", e);
+        } finally {
+            try {
+                redisTemplate.execute(UNLOCK_SCRIPT, List.of(RedisLikeStore.RECONCILE_LOCK_KEY), lockToken);
+            } catch (DataAccessException e) {
+                log.warn("# Failed to release like reconcile lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    // 저널 내용을 한 트랜잭션으로 DB 에 반영하고 변경된 질문 ID 들을 반환
+    private Set<Long> apply(List<String> entries) {
+        // 같은 (질문, 회원)의 여러 변경은 최종 상태 한번만 반영하면 됨
+        Set<List<Long>> pairs = new LinkedHashSet<>();
+        Set<Long> questionIds = new LinkedHashSet<>();
+        for (String entry : entries) {
+            String[] values = entry.split(":");
+            long questionId = Long.parseLong(values[0]);
+            pairs.add(List.of(questionId, Long.parseLong(values[1])));
+            questionIds.add(questionId);
+        }
+
+        // 락을 잡고 있는 동안 쌍마다 Redis 를 왕복하지 않도록 최종 상태를 파이프라인 한번으로 읽음
+        // 그 사이에 삭제되어 Set 이 지워진 질문의 쌍은 결과에 없으므로 DB 의 좋아요를 바꾸지 않음
+        Map<List<Long>, Boolean> likedStates = redisLikeStore.findLikedStates(pairs);
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (List<Long> pair : pairs) {
+            long questionId = pair.get(0);
+            long memberId = pair.get(1);
+            Boolean liked = likedStates.get(pair);
+            if (liked == null) {
+                continue;
+            }
+            if (liked) {
+                inserts.add(new Object[]{memberId, questionId, memberId, questionId});
+            } else {
+                deletes.add(new Object[]{memberId, questionId});
+            }
+        }
+        List<Object[]> recounts = new ArrayList<>();
+        questionIds.forEach(questionId -> recounts.add(new Object[]{questionId}));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes);
+            jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts);
+            jdbcTemplate.batchUpdate(RECOUNT_SQL, recounts);
+        });
+        return questionIds;
+    }
+
+    private List<String> readProcessing() {
+        List<Object> values = redisTemplate.opsForList().range(RedisLikeStore.PROCESSING_KEY, 0, -1);
+        List<String> entries = new ArrayList<>();
+        if (values != null) {
+            values.forEach(value -> entries.add((String) value));
+        }
+        return entries;
+    }
+
+    private double getPendingCount() {
+        try {
+            Long journal = redisTemplate.opsForList().size(RedisLikeStore.JOURNAL_KEY);
+            Long processing = redisTemplate.opsForList().size(RedisLikeStore.PROCESSING_KEY);
+            return (journal == null ? 0 : journal) + (processing == null ? 0 : processing);
+        } catch (DataAccessException e) {
+            return Double.NaN;
+        }
+    }
+
+    // 저널은 LPUSH 로 쌓이므로 가장 오래된 내역은 처리 중 목록의 마지막 또는 저널의 마지막에 있음
+    private double getLagSeconds() {
+        try {
+            Object oldest = redisTemplate.opsForList().index(RedisLikeStore.PROCESSING_KEY, -1);
+            if (oldest == null) {
+                oldest = redisTemplate.opsForList().index(RedisLikeStore.JOURNAL_KEY, -1);
+            }
+            if (oldest == null) {
+                return 0;
+            }
+            long createdAt = Long.parseLong(((String) oldest).split(":")[2]);
+            return Math.max(0, System.currentTimeMillis() - createdAt) / 1000.0;
+        } catch (DataAccessException e) {
+            return Double.NaN;
+        }
+    }
+}
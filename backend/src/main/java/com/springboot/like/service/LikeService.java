@@ -2,55 +2,183 @@ package com.springboot.like.service;
 
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
-import com.springboot.like.entity.Like;
 import com.springboot.like.repository.LikeRepository;
-import com.springboot.member.entity.Member;
-import com.springboot.member.service.MemberService;
 import com.springboot.question.entity.Question;
 import com.springboot.question.repository.QuestionRepository;
-import com.springboot.question.service.QuestionService;
+import com.springboot.question.service.QuestionRanking;
+import com.springboot.question.service.QuestionResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/*
+   좋아요 토글 서비스
+   LIKES 테이블의 (member_id, question_id) 유니크 제약으로 한 회원이 같은 질문에 좋아요를 두번 저장할 수 없게 하고
+   좋아요 수는 Question 을 읽어서 +-1 한 값을 저장하지 않고 UPDATE ... SET like_count = like_count +- 1 로 DB 에서 직접 바꿈
+   같은 회원이 동시에 두번 눌러서 유니크 제약에 걸리면 트랜잭션을 처음부터 다시 실행함 (두번째 요청은 취소로 처리됨)
+
+   like.storage=redis 인 경우에는 DB 대신 RedisLikeStore 에서 토글하고, DB 반영은 LikeReconciler 가 나중에 처리함
+*/
+@Slf4j
 @Service
-@Transactional
 public class LikeService {
-    private final QuestionService questionService;
+    private static final int MAX_ATTEMPTS = 3;
+    // 좋아요를 누를 수 없는 질문 상태
+    private static final List<Question.QuestionStatus> HIDDEN_STATUSES = List.of(
+            Question.QuestionStatus.QUESTION_DELETED,
+            Question.QuestionStatus.QUESTION_DEACTIVED
+    );
+
     private final QuestionRepository questionRepository;
-    private final MemberService memberService;
     private final LikeRepository likeRepository;
+    private final QuestionResponseCache questionResponseCache;
+    private final QuestionRanking questionRanking;
+    private final TransactionTemplate transactionTemplate;
+    // like.storage=redis 일 때만 존재함
+    private final RedisLikeStore redisLikeStore;
+    private final MeterRegistry meterRegistry;
 
-    public LikeService(QuestionService questionService,
-                       QuestionRepository questionRepository,
-                       MemberService memberService,
-                       LikeRepository likeRepository) {
-        this.questionService = questionService;
+    public LikeService(QuestionRepository questionRepository,
+                       LikeRepository likeRepository,
+                       QuestionResponseCache questionResponseCache,
+                       QuestionRanking questionRanking,
+                       PlatformTransactionManager transactionManager,
+                       ObjectProvider<RedisLikeStore> redisLikeStore,
+                       MeterRegistry meterRegistry) {
         this.questionRepository = questionRepository;
-        this.memberService = memberService;
         this.likeRepository = likeRepository;
+        this.questionResponseCache = questionResponseCache;
+        this.questionRanking = questionRanking;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisLikeStore = redisLikeStore.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /*
+       질문 목록 중 회원이 좋아요를 누른 질문의 ID 목록 (응답의 likedByMe)
+       Redis 저장소라면 파이프라인 한번으로 확인하고, Set 이 아직 채워지지 않은 질문만 DB 에서 IN 쿼리 한번으로 확인함
+       소요 시간은 /actuator/metrics/likes.liked-by-me 에서 목록 크기(size)별로 확인할 수 있음
+    */
+    public Set<Long> findLikedQuestionIds(List<Long> questionIds, long memberId) {
+        if (questionIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Set<Long> likedIds = new HashSet<>();
+        List<Long> remainingIds = questionIds;
+
+        if (redisLikeStore != null) {
+            Map<Long, Boolean> likedStates = redisLikeStore.findLikedStates(questionIds, memberId);
+            likedStates.forEach((questionId, liked) -> {
+                if (liked) {
+                    likedIds.add(questionId);
+                }
+            });
+            remainingIds = questionIds.stream()
+                    .filter(questionId -> !likedStates.containsKey(questionId))
+                    .collect(Collectors.toList());
+        }
+        if (!remainingIds.isEmpty()) {
+            likedIds.addAll(likeRepository.findLikedQuestionIds(memberId, remainingIds));
+        }
+
+        sample.stop(Timer.builder("likes.liked-by-me")
+                .description("목록의 좋아요 여부 조회 시간")
+                .tag("storage", redisLikeStore == null ? "database" : "redis")
+                .tag("size", sizeRange(questionIds.size()))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+        return likedIds;
+    }
+
+    // 요청마다 size 가 달라질 수 있으므로 태그 값이 너무 많아지지 않도록 구간으로 묶음
+    private static String sizeRange(int size) {
+        if (size <= 1) {
+            return "1";
+        }
+        if (size <= 10) {
+            return "2-10";
+        }
+        if (size <= 20) {
+            return "11-20";
+        }
+        if (size <= 50) {
+            return "21-50";
+        }
+        return "51+";
     }
 
+    // 좋아요를 누르지 않았다면 추가하고 이미 눌렀다면 취소함, 반환값은 변경된 좋아요 수(+1 또는 -1)
+    public int addOrMinusLike(long questionId, long principalId) {
+        if (redisLikeStore != null) {
+            // 트랜잭션이 없으므로 랭킹은 바로 반영 (조회 시 좋아요 수는 Redis 값을 사용)
+            int delta = redisLikeStore.toggle(questionId, principalId);
+            questionRanking.incrementLikeCount(questionId, delta);
+            increaseVersion(questionId);
+            return delta;
+        }
 
-    public void addOrMinusLike(long questionId, long principalId) {
-        Optional<Like> likes = likeRepository.findByQuestion_QuestionIdAndMember_MemberId(questionId, principalId);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> toggleLike(questionId, principalId));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                // 동시에 들어온 같은 회원의 요청과 충돌한 경우, 상대 요청이 커밋된 뒤 다시 실행하면 반대 동작(취소/추가)이 됨
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        // 좋아요를 누른다는 건 먼저 좋아요를 누를 게시글이 존재해야하는지도 따져야 함
-        Question question = questionService.findVerifiedQuestion(questionId);
+    /*
+       Redis 저장소에서 토글한 뒤 목록 ETag 용 version 을 올리고 캐시를 지움
+       likedByMe 가 바뀌었으므로 저널이 DB 에 반영될 때까지 기다리면 목록 조회가 이전 응답으로 304 를 반환함
+       실패해도 좋아요는 이미 Redis 에 반영되었고 저널이 반영될 때 version 이 다시 올라가므로 요청은 실패시키지 않음
+    */
+    private void increaseVersion(long questionId) {
+        try {
+            questionRepository.increaseVersion(List.of(questionId));
+        } catch (DataAccessException e) {
+            log.warn("# Failed to increase question version after like toggle: {}", e.getMessage());
+        }
+        questionResponseCache.evict(questionId);
+    }
 
-        // 좋아요를 눌렀다면 좋아요 객체가 있을것이고 좋아요를 누르지 않았다면 empty 일거임
-        if (likes.isPresent()) {
-            likeRepository.delete(likes.get());
-            question.setLikeCount(question.getLikeCount() - 1);
+    private int toggleLike(long questionId, long principalId) {
+        // 좋아요가 있으면 지우고, 없으면 추가 (둘 다 LIKES 를 먼저 변경한 뒤 question 을 변경해서 잠금 순서를 맞춤)
+        int delta;
+        if (likeRepository.deleteByQuestionIdAndMemberId(questionId, principalId) > 0) {
+            delta = -1;
+        } else if (likeRepository.insertIfQuestionVisible(questionId, principalId) > 0) {
+            delta = 1;
         } else {
-            // 좋아요를 눌렀을 때 Like 객체 생성
-            Like like = new Like();
-            like.setMember(memberService.findVerifiedMember(principalId));
-            like.setQuestion(question);
-            likeRepository.save(like);
-            question.setLikeCount(question.getLikeCount() + 1);
+            // 질문이 없거나 삭제된 경우에는 좋아요가 추가되지 않음
+            throw new BusinessLogicException(ExceptionCode.QUESTION_NOT_FOUND);
         }
+
+        // 좋아요 수와 ETag 용 version 을 한번에 변경, 질문이 삭제되었다면 좋아요 변경도 롤백
+        if (questionRepository.increaseLikeCount(questionId, delta, HIDDEN_STATUSES) == 0) {
+            throw new BusinessLogicException(ExceptionCode.QUESTION_NOT_FOUND);
+        }
+
+        // 랭킹 반영과 캐시 삭제는 커밋된 이후에 실행됨
+        questionRanking.incrementLikeCount(questionId, delta);
+        questionResponseCache.evict(questionId);
+        return delta;
     }
 
 //    // 좋아요를 추가하는 메서드
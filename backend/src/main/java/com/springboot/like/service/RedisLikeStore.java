@@ -0,0 +1,231 @@
+package com.springboot.like.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/*
+   like.storage=redis 일 때 사용하는 좋아요 저장소
+   질문별 Redis Set 에 좋아요를 누른 회원 ID 를 저장하고(SADD/SREM/SISMEMBER), 좋아요 수는 SCARD 로 계산함
+   토글할 때마다 변경 내역을 저널(List)에 쌓아두고 LikeReconciler 가 주기적으로 LIKES 테이블과 like_count 에 반영함
+
+   Set 이 비어있는 것과 아직 DB 에서 불러오지 않은 것을 구분하기 위해 질문별 loaded 키를 따로 둠
+   처음 토글되는 질문은 DB 의 좋아요 목록으로 Set 을 채운 뒤에 토글함
+   Lua 스크립트 안에서 여러 키를 사용하므로 모든 키에 같은 해시 태그({likes})를 붙여서 클러스터에서도 같은 슬롯에 있도록 함
+*/
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "like.storage", havingValue = "redis")
+public class RedisLikeStore {
+    static final String JOURNAL_KEY = "{likes}:journal";
+    static final String PROCESSING_KEY = "{likes}:journal:processing";
+    static final String RECONCILE_LOCK_KEY = "{likes}:reconcile:lock";
+
+    // Set 이 아직 채워지지 않았으면 0, 좋아요를 추가했으면 1, 취소했으면 -1
+    private static final RedisScript<Long> TOGGLE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 0 then return 0 end " +
+            "local delta " +
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then " +
+            "  redis.call('SREM', KEYS[1], ARGV[1]) delta = -1 " +
+            "else " +
+            "  redis.call('SADD', KEYS[1], ARGV[1]) delta = 1 " +
+            "end " +
+            "redis.call('LPUSH', KEYS[3], ARGV[2]) " +
+            "return delta", Long.class);
+
+    // 다른 요청이 먼저 채웠다면 아무것도 하지 않음
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 then return 0 end " +
+            "for i = 1, #ARGV do redis.call('SADD', KEYS[1], ARGV[i]) end " +
+            "redis.call('SET', KEYS[2], '1') " +
+            "return 1", Long.class);
+
+    private static final String VISIBLE_QUESTION_SQL = "SELECT COUNT(*) FROM question WHERE question_id = ? " +
+            "AND question_status NOT IN ('QUESTION_DELETED', 'QUESTION_DEACTIVED')";
+    private static final String LIKED_MEMBERS_SQL = "SELECT member_id FROM likes WHERE question_id = ?";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public RedisLikeStore(RedisTemplate<String, Object> redisTemplate, JdbcTemplate jdbcTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 좋아요 토글, 반환값은 변경된 좋아요 수(+1 또는 -1)
+    public int toggle(long questionId, long memberId) {
+        List<String> keys = List.of(likesKey(questionId), loadedKey(questionId), JOURNAL_KEY);
+        String journalEntry = questionId + ":" + memberId + ":" + System.currentTimeMillis();
+        try {
+            Long delta = redisTemplate.execute(TOGGLE_SCRIPT, keys, String.valueOf(memberId), journalEntry);
+            if (delta != null && delta == 0) {
+                load(questionId);
+                delta = redisTemplate.execute(TOGGLE_SCRIPT, keys, String.valueOf(memberId), journalEntry);
+            }
+            // 스크립트 결과가 없거나, 채운 직후에 loaded 키가 지워져서 다시 0 이 나온 경우 (토글되지 않았음)
+            if (delta == null || delta == 0) {
+                log.error("# Like toggle was not applied in Redis: question {}, result {}", questionId, delta);
+                throw new BusinessLogicException(ExceptionCode.LIKE_STORAGE_UNAVAILABLE);
+            }
+            return delta.intValue();
+        } catch (DataAccessException e) {
+            // Redis 에 반영되지 않은 좋아요를 DB 에 직접 쓰면 Set 과 DB 가 달라지므로 실패로 응답함
+            log.error("# Failed to toggle like in Redis", e);
+            throw new BusinessLogicException(ExceptionCode.LIKE_STORAGE_UNAVAILABLE);
+        }
+    }
+
+    /*
+       여러 질문의 Set 에 반영된 최신 좋아요 수(SCARD)를 파이프라인 한번으로 조회
+       Set 이 채워진 질문만 결과에 포함되므로 나머지 질문은 DB 의 like_count 를 사용해야 함 (Redis 를 사용할 수 없으면 빈 Map)
+    */
+    public Map<Long, Integer> findLikeCounts(Collection<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long questionId : questionIds) {
+                    connection.exists(loadedKey(questionId).getBytes(StandardCharsets.UTF_8));
+                    connection.sCard(likesKey(questionId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+
+            Map<Long, Integer> likeCounts = new HashMap<>();
+            Iterator<Object> iterator = results.iterator();
+            for (Long questionId : questionIds) {
+                Object loaded = iterator.next();
+                Object count = iterator.next();
+                if (isTrue(loaded) && count instanceof Long) {
+                    likeCounts.put(questionId, ((Long) count).intValue());
+                }
+            }
+            return likeCounts;
+        } catch (DataAccessException e) {
+            log.warn("# Failed to read like counts from Redis: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /*
+       여러 질문에 대해 회원이 좋아요를 눌렀는지를 파이프라인 한번으로 확인
+       Set 이 채워진 질문만 결과에 포함되므로 나머지 질문은 DB 에서 확인해야 함 (Redis 를 사용할 수 없으면 빈 Map)
+    */
+    public Map<Long, Boolean> findLikedStates(Collection<Long> questionIds, long memberId) {
+        byte[] member = String.valueOf(memberId).getBytes(StandardCharsets.UTF_8);
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long questionId : questionIds) {
+                    connection.exists(loadedKey(questionId).getBytes(StandardCharsets.UTF_8));
+                    connection.sIsMember(likesKey(questionId).getBytes(StandardCharsets.UTF_8), member);
+                }
+                return null;
+            });
+
+            Map<Long, Boolean> likedStates = new HashMap<>();
+            Iterator<Object> iterator = results.iterator();
+            for (Long questionId : questionIds) {
+                Object loaded = iterator.next();
+                boolean liked = Boolean.TRUE.equals(iterator.next());
+                if (isTrue(loaded)) {
+                    likedStates.put(questionId, liked);
+                }
+            }
+            return likedStates;
+        } catch (DataAccessException e) {
+            log.warn("# Failed to read liked states from Redis: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /*
+       저널을 DB 에 반영할 때 (질문 ID, 회원 ID) 쌍마다 좋아요를 누른 상태인지를 파이프라인 한번으로 확인
+       Set 이 채워진 질문의 쌍만 결과에 포함됨 (삭제, 비활성화로 Set 을 지운 질문은 DB 의 좋아요를 그대로 둠)
+       Redis 를 사용할 수 없으면 예외가 그대로 전달되므로 처리 중 목록이 남아서 다음 실행 때 다시 반영됨
+    */
+    public Map<List<Long>, Boolean> findLikedStates(Collection<List<Long>> pairs) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (List<Long> pair : pairs) {
+                connection.exists(loadedKey(pair.get(0)).getBytes(StandardCharsets.UTF_8));
+                connection.sIsMember(likesKey(pair.get(0)).getBytes(StandardCharsets.UTF_8),
+                        String.valueOf(pair.get(1)).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        Map<List<Long>, Boolean> likedStates = new HashMap<>();
+        Iterator<Object> iterator = results.iterator();
+        for (List<Long> pair : pairs) {
+            Object loaded = iterator.next();
+            boolean liked = Boolean.TRUE.equals(iterator.next());
+            if (isTrue(loaded)) {
+                likedStates.put(pair, liked);
+            }
+        }
+        return likedStates;
+    }
+
+    /*
+       삭제되거나 비활성화된 질문의 Set 과 loaded 키를 커밋 이후에 지움
+       이후의 토글은 Set 을 다시 채우는 단계에서 질문 상태를 확인하므로 QUESTION_NOT_FOUND 로 거절되고, 랭킹에도 다시 추가되지 않음
+    */
+    public void remove(Collection<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        questionIds.forEach(questionId -> {
+            keys.add(likesKey(questionId));
+            keys.add(loadedKey(questionId));
+        });
+        TransactionUtils.runAfterCommit(() -> {
+            try {
+                redisTemplate.delete(keys);
+            } catch (DataAccessException e) {
+                log.warn("# Failed to remove like sets from Redis: {}", e.getMessage());
+            }
+        });
+    }
+
+    // 처음 토글되는 질문은 DB 에 저장된 좋아요로 Set 을 채움, 저널은 채워진 질문에만 쌓이므로 이때의 DB 값이 최신 상태임
+    private void load(long questionId) {
+        Integer visible = jdbcTemplate.queryForObject(VISIBLE_QUESTION_SQL, Integer.class, questionId);
+        if (visible == null || visible == 0) {
+            throw new BusinessLogicException(ExceptionCode.QUESTION_NOT_FOUND);
+        }
+
+        Object[] memberIds = jdbcTemplate.queryForList(LIKED_MEMBERS_SQL, String.class, questionId).toArray();
+        redisTemplate.execute(LOAD_SCRIPT, List.of(likesKey(questionId), loadedKey(questionId)), memberIds);
+    }
+
+    // EXISTS 결과는 드라이버에 따라 Boolean 또는 Long 으로 변환됨
+    private static boolean isTrue(Object result) {
+        return Boolean.TRUE.equals(result) || (result instanceof Long && (Long) result > 0);
+    }
+
+    private static String likesKey(long questionId) {
+        return "{likes}:question:" + questionId;
+    }
+
+    private static String loadedKey(long questionId) {
+        return "{likes}:question:" + questionId + ":loaded";
+    }
+}
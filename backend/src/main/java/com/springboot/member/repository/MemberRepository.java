@@ -2,9 +2,15 @@ package com.springboot.member.repository;
 
 import com.springboot.member.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
+
+    // 인증 필터에서 회원 ID 만 필요할 때 사용, 엔티티를 조회하지 않으므로 EAGER 인 roles 도 조회하지 않음
+    @Query("SELECT m.memberId FROM Member m WHERE m.email = :email")
+    Optional<Long> findMemberIdByEmail(@Param("email") String email);
 }
@@ -2,12 +2,20 @@ package com.springboot.member.service;
 
 import com.springboot.auth.utils.AuthorityUtils;
 import com.springboot.auth.utils.IdAndEmailPrincipal;
+import com.springboot.auth.utils.MemberPrincipalCache;
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
 import com.springboot.helper.event.MemberRegistrationApplicationEvent;
+import com.springboot.like.service.RedisLikeStore;
 import com.springboot.member.entity.Member;
 import com.springboot.member.repository.MemberRepository;
+import com.springboot.question.entity.Question;
+import com.springboot.question.repository.QuestionRepository;
+import com.springboot.question.service.QuestionRanking;
+import com.springboot.question.service.QuestionResponseCache;
+import com.springboot.question.service.QuestionSearchIndex;
 import com.springboot.utils.CheckValidator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +25,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class MemberService {
@@ -29,17 +38,36 @@ public class MemberService {
     private final PasswordEncoder passwordEncoder;
     private final AuthorityUtils authorityUtils;
     private final CheckValidator checkValidator;
+    private final QuestionRanking questionRanking;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final QuestionResponseCache questionResponseCache;
+    private final QuestionRepository questionRepository;
+    private final MemberPrincipalCache memberPrincipalCache;
+    // like.storage=redis 일 때만 존재함
+    private final RedisLikeStore redisLikeStore;
 
     public MemberService(MemberRepository memberRepository,
                          ApplicationEventPublisher publisher,
                          PasswordEncoder passwordEncoder,
                          AuthorityUtils authorityUtils,
-                         CheckValidator checkValidator) {
+                         CheckValidator checkValidator,
+                         QuestionRanking questionRanking,
+                         QuestionSearchIndex questionSearchIndex,
+                         QuestionResponseCache questionResponseCache,
+                         QuestionRepository questionRepository,
+                         MemberPrincipalCache memberPrincipalCache,
+                         ObjectProvider<RedisLikeStore> redisLikeStore) {
         this.memberRepository = memberRepository;
         this.publisher = publisher;
         this.passwordEncoder = passwordEncoder;
         this.authorityUtils = authorityUtils;
         this.checkValidator = checkValidator;
+        this.questionRanking = questionRanking;
+        this.questionSearchIndex = questionSearchIndex;
+        this.questionResponseCache = questionResponseCache;
+        this.questionRepository = questionRepository;
+        this.memberPrincipalCache = memberPrincipalCache;
+        this.redisLikeStore = redisLikeStore.getIfAvailable();
     }
 
     // 회원 생성 서비스 로직 구현
@@ -72,6 +100,8 @@ public class MemberService {
         // 지금 로그인한 회원의 이메일이랑 수정하려고 하는 회원의 이메일이 일치 하는지 확인하는 메서드 필요
         checkValidator.checkOwner(member.getMemberId(), principalMemberId);
 
+        String oldEmail = findMember.getEmail();
+
         Optional.ofNullable(member.getName())
                 .ifPresent(name -> findMember.setName(name));
         Optional.ofNullable(member.getEmail())
@@ -83,7 +113,12 @@ public class MemberService {
             findMember.setRoles(member.getRoles());
         }
 
-        return memberRepository.save(findMember);
+        Member savedMember = memberRepository.save(findMember);
+
+        // 이메일, 권한이 바뀔 수 있으므로 인증 필터의 캐시에서 기존 이메일을 지움
+        // 저장 전에 지우면 그 사이의 요청이 예전 값으로 캐시를 다시 채울 수 있으므로 저장한 뒤에 지움
+        memberPrincipalCache.evict(oldEmail);
+        return savedMember;
     }
 
     // 특정 회원 정보 찾는 서비스 로직 구현
@@ -123,6 +158,22 @@ public class MemberService {
         findMember.StatusChange();
 
         memberRepository.save(findMember);
+        memberPrincipalCache.evict(findMember.getEmail());
+
+        // 비활성화된 질문은 좋아요/조회수 랭킹과 검색 결과에서도 빠져야 하고, 캐시된 조회 응답도 지워서 바뀐 상태로 응답함
+        List<Long> questionIds = findMember.getQuestions().stream()
+                .map(Question::getQuestionId)
+                .collect(Collectors.toList());
+        questionRanking.remove(questionIds);
+        questionSearchIndex.remove(questionIds);
+        questionResponseCache.evictAll(questionIds);
+        // 비활성화된 질문에 좋아요를 누를 수 없도록 Redis 의 좋아요 Set 도 지움
+        if (redisLikeStore != null) {
+            redisLikeStore.remove(questionIds);
+        }
+        if (!questionIds.isEmpty()) {
+            questionRepository.increaseVersion(questionIds);
+        }
     }
 
     // 가입이 되어있는 회원인지를 검증
@@ -2,31 +2,46 @@ package com.springboot.question.controller;
 
 import com.springboot.auth.utils.IdAndEmailPrincipal;
 import com.springboot.auth.utils.MemberDetailsService;
+import com.springboot.dto.CursorMultiResponseDto;
 import com.springboot.dto.MultiResponseDto;
 import com.springboot.dto.SingleResponseDto;
 import com.springboot.like.service.LikeService;
 import com.springboot.member.entity.Member;
+import com.springboot.question.dto.QuestionCursor;
+import com.springboot.question.dto.QuestionImportResponseDto;
 import com.springboot.question.dto.QuestionPatchDto;
 import com.springboot.question.dto.QuestionPostDto;
 import com.springboot.question.dto.QuestionResponseDto;
 import com.springboot.question.entity.Question;
 import com.springboot.question.mapper.QuestionMapper;
 import com.springboot.question.repository.QuestionRepository;
+import com.springboot.question.service.QuestionExportService;
+import com.springboot.question.service.QuestionImportService;
 import com.springboot.question.service.QuestionService;
 import com.springboot.utils.UriCreator;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -34,16 +49,24 @@ import java.util.List;
 @Validated
 public class QuestionController {
     private final static String QUESTION_DEFAULT_URL = "/v1/questions";
+    // 로그인한 사용자별 응답이므로 공유 캐시에는 저장하지 않고, 매번 ETag 로 변경 여부를 확인하도록 함
+    private final static CacheControl QUESTION_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
     private final QuestionService questionService;
+    private final QuestionExportService questionExportService;
+    private final QuestionImportService questionImportService;
     private final LikeService likeService;
     private final QuestionMapper questionMapper;
     private final QuestionRepository questionRepository;
     private final MemberDetailsService memberDetailsService;
 
-    public QuestionController(QuestionService questionService, LikeService likeService, QuestionMapper questionMapper,
+    public QuestionController(QuestionService questionService, QuestionExportService questionExportService,
+                              QuestionImportService questionImportService,
+                              LikeService likeService, QuestionMapper questionMapper,
                               QuestionRepository questionRepository,
                               MemberDetailsService memberDetailsService) {
         this.questionService = questionService;
+        this.questionExportService = questionExportService;
+        this.questionImportService = questionImportService;
         this.likeService = likeService;
         this.questionMapper = questionMapper;
         this.questionRepository = questionRepository;
@@ -89,24 +112,118 @@ public class QuestionController {
     // 특정 질문 조회
     @GetMapping("/{question-id}")
     public ResponseEntity getQuestion(@PathVariable("question-id") @Positive long questionId,
-                                      @AuthenticationPrincipal IdAndEmailPrincipal idAndEmailPrincipal) {
-        Question question = questionService.findQuestion(questionId,idAndEmailPrincipal.getMemberId());
-
-        QuestionResponseDto questionResponseDto = questionMapper.questionToQuestionResponseDto(question);
-
-        return new ResponseEntity<>(new SingleResponseDto<>(questionResponseDto), HttpStatus.OK);
+                                      @AuthenticationPrincipal IdAndEmailPrincipal idAndEmailPrincipal,
+                                      WebRequest webRequest) {
+        // 비밀글 검증과 조회수 증가는 304 응답인 경우에도 수행되어야 하므로 먼저 조회함
+        QuestionResponseDto questionResponseDto = questionService.findQuestion(questionId,idAndEmailPrincipal.getMemberId());
+
+        String eTag = questionService.getQuestionETag(questionResponseDto);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(QUESTION_CACHE_CONTROL)
+                .body(new SingleResponseDto<>(questionResponseDto));
     }
 
     // 질문 전체 조회
     @GetMapping
-    public ResponseEntity getQuestions(@RequestParam int page,
+    public ResponseEntity getQuestions(@RequestParam(required = false) Integer page,
                                        @RequestParam int size,
-                                       @RequestParam(defaultValue = "latest") String sortBy) {
+                                       @RequestParam(defaultValue = "latest") String sortBy,
+                                       @RequestParam(required = false) String cursor,
+                                       @AuthenticationPrincipal IdAndEmailPrincipal idAndEmailPrincipal,
+                                       WebRequest webRequest) {
+        long principalId = principalIdOf(idAndEmailPrincipal);
+
+        // page 없이 요청하면 커서 기반으로 조회 (첫 페이지는 cursor 도 생략)
+        if (page == null) {
+            return getQuestionsByCursor(cursor, size, sortBy, principalId);
+        }
+
+        // 목록이 바뀌지 않았다면 질문 내용을 조회하지 않고 바로 304 반환
+        String eTag = questionService.getQuestionsETag(page, size, sortBy, principalId);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        Page<QuestionResponseDto> questionPage = questionService.findQuestions(page, size, sortBy);
+        // 좋아요 여부는 페이지의 질문 전체를 한번에 조회
+        List<QuestionResponseDto> responses = questionService.applyLikedByMe(questionPage.getContent(), principalId);
+
+        // 그 사이에 바뀐 질문이 있을 수 있으므로 응답에는 보내는 본문으로 계산한 ETag 를 붙임
+        return ResponseEntity.ok()
+                .eTag(questionService.getQuestionsETag(questionPage, responses, sortBy, principalId))
+                .cacheControl(QUESTION_CACHE_CONTROL)
+                .body(new MultiResponseDto<>(responses, questionPage));
+    }
+
+    private ResponseEntity notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(QUESTION_CACHE_CONTROL)
+                .build();
+    }
+
+    private ResponseEntity getQuestionsByCursor(String cursor, int size, String sortBy, long principalId) {
+        // 조회수 flush 와 겹치지 않도록 DB 조회와 대기 중인 조회수 보정을 함께 실행
+        return questionService.readWithPendingCounts(() -> {
+            Slice<QuestionResponseDto> questionSlice = questionService.findQuestionsByCursor(cursor, size, sortBy);
+            List<QuestionResponseDto> questions = questionSlice.getContent();
+
+            // 다음 커서는 DB 에 저장된 정렬 값 기준으로 만들어야 다음 페이지 조회 조건과 맞음
+            String nextCursor = questions.isEmpty() ? null
+                    : QuestionCursor.next(sortBy, questions.get(questions.size() - 1)).encode();
+
+            List<QuestionResponseDto> responses =
+                    questionService.applyLikedByMe(questionService.applyPendingCounts(questions), principalId);
+
+            return new ResponseEntity<>(new CursorMultiResponseDto<>(responses, questionSlice, nextCursor), HttpStatus.OK);
+        });
+    }
+
+    // 질문 검색 (제목, 내용)
+    @GetMapping("/search")
+    public ResponseEntity searchQuestions(@RequestParam("q") @NotBlank @Size(max = 100) String query,
+                                          @RequestParam(defaultValue = "1") int page,
+                                          @RequestParam int size,
+                                          @AuthenticationPrincipal IdAndEmailPrincipal idAndEmailPrincipal) {
+        Page<QuestionResponseDto> questionPage =
+                questionService.searchQuestions(query, page, size, principalIdOf(idAndEmailPrincipal));
 
-        Page<Question> questionPage = questionService.findQuestions(page, size, sortBy);
-        List<Question> questions = questionPage.getContent();
+        return new ResponseEntity<>(new MultiResponseDto<>(questionPage.getContent(), questionPage), HttpStatus.OK);
+    }
+
+    // 목록, 검색은 로그인하지 않은 요청도 응답할 수 있도록 principal 이 없으면 익명 회원 ID 를 사용
+    private static long principalIdOf(IdAndEmailPrincipal idAndEmailPrincipal) {
+        return idAndEmailPrincipal == null ? QuestionService.ANONYMOUS_MEMBER_ID : idAndEmailPrincipal.getMemberId();
+    }
 
-        return new ResponseEntity<>(new MultiResponseDto<>(questionMapper.questionsToQuestionResponseDtos(questions), questionPage), HttpStatus.OK);
+    // 질문 대량 등록 (관리자 전용), 검증에 실패한 행은 건너뛰고 결과에 실패 사유를 담아서 반환
+    @PostMapping("/import")
+    public ResponseEntity importQuestions(@RequestBody List<QuestionPostDto> questionPostDtos) {
+        QuestionImportResponseDto response = questionImportService.importQuestions(questionPostDtos);
+        return new ResponseEntity<>(new SingleResponseDto<>(response), HttpStatus.OK);
+    }
+
+    // 질문 전체 내보내기 (관리자 전용), 응답 본문에 한 줄씩 바로 씀
+    @GetMapping("/export")
+    public void exportQuestions(@RequestParam(defaultValue = "0") @PositiveOrZero long since,
+                                @RequestParam(defaultValue = "ndjson") @Pattern(regexp = "ndjson|csv") String format,
+                                HttpServletResponse response) throws IOException {
+        // 응답을 쓰기 시작하면 에러 응답을 보낼 수 없으므로 권한 검증을 먼저 해야 함
+        questionExportService.verifyExportPermission();
+
+        QuestionExportService.ExportFormat exportFormat = QuestionExportService.ExportFormat.valueOf(format.toUpperCase());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(exportFormat == QuestionExportService.ExportFormat.CSV
+                ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"questions." + format + "\"");
+
+        questionExportService.exportQuestions(since, exportFormat, response.getOutputStream());
     }
 
     // 질문 삭제
@@ -117,6 +234,13 @@ public class QuestionController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // 좋아요/조회수 랭킹(Redis)을 DB 기준으로 다시 생성 (관리자 전용)
+    @PostMapping("/rankings/rebuild")
+    public ResponseEntity rebuildRankings() {
+        long rebuiltCount = questionService.rebuildRanking();
+        return new ResponseEntity<>(new SingleResponseDto<>(rebuiltCount), HttpStatus.OK);
+    }
+
     @PostMapping("/{question-id}/like")
     public ResponseEntity buttonLike(@PathVariable("question-id") long questionId,
                                      @AuthenticationPrincipal IdAndEmailPrincipal idAndEmailPrincipal) {
@@ -0,0 +1,78 @@
+package com.springboot.question.dto;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+   커서(keyset) 기반 페이지네이션에서 마지막으로 내려준 질문의 위치를 나타내는 클래스
+   정렬 기준 값(좋아요 수, 조회수)과 동점일 때 순서를 정해주는 questionId 를 함께 담고
+   클라이언트에게는 내부 구조를 알 수 없도록 Base64 로 인코딩한 문자열로 내려줌
+*/
+@Getter
+public class QuestionCursor {
+    private static final String DELIMITER = ":";
+
+    private final String sortBy;
+    private final int sortValue;
+    private final long questionId;
+
+    private QuestionCursor(String sortBy, int sortValue, long questionId) {
+        this.sortBy = sortBy;
+        this.sortValue = sortValue;
+        this.questionId = questionId;
+    }
+
+    // 첫 페이지 조회용 커서, 모든 질문이 조건을 만족하도록 정렬 방향의 끝 값을 사용
+    public static QuestionCursor first(String sortBy) {
+        if (isAscending(sortBy)) {
+            return new QuestionCursor(sortBy, Integer.MIN_VALUE, 0L);
+        }
+        return new QuestionCursor(sortBy, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    // 현재 페이지의 마지막 질문을 기준으로 다음 페이지 커서 생성
+    public static QuestionCursor next(String sortBy, long questionId, int likeCount, int viewCount) {
+        switch (sortBy) {
+            case "like_desc":
+            case "like_asc":
+                return new QuestionCursor(sortBy, likeCount, questionId);
+            case "view_desc":
+            case "view_asc":
+                return new QuestionCursor(sortBy, viewCount, questionId);
+            default:
+                return new QuestionCursor(sortBy, 0, questionId);
+        }
+    }
+
+    public static QuestionCursor next(String sortBy, QuestionResponseDto question) {
+        return next(sortBy, question.getQuestionId(), question.getLikeCount(), question.getViewCount());
+    }
+
+    // 클라이언트가 보낸 커서 문자열을 해석, 다른 정렬 기준으로 만든 커서는 사용할 수 없음
+    public static QuestionCursor decode(String cursor, String sortBy) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(DELIMITER);
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new BusinessLogicException(ExceptionCode.INVALID_CURSOR);
+            }
+            return new QuestionCursor(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_CURSOR);
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + DELIMITER + sortValue + DELIMITER + questionId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isAscending(String sortBy) {
+        return sortBy.equals("oldest") || sortBy.endsWith("_asc");
+    }
+}
@@ -0,0 +1,30 @@
+package com.springboot.question.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.springboot.question.entity.Question;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+   관리자 질문 내보내기(QuestionExportService) 한 행
+   조회 응답(QuestionResponseDto)은 memberId, version 을 숨기고 답변을 객체로 감싸므로 내보내기에는 따로 만든 DTO 를 사용함
+   NDJSON 과 CSV 가 같은 컬럼을 같은 순서로 갖도록 필드 순서를 CSV 헤더와 맞춤
+*/
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"questionId", "title", "content", "memberId", "name", "questionStatus", "visibility",
+        "likeCount", "viewCount", "answerId", "answerContent"})
+public class QuestionExportDto {
+    private long questionId;
+    private String title;
+    private String content;
+    private long memberId;
+    private String name;
+    private Question.QuestionStatus questionStatus;
+    private Question.Visibility visibility;
+    private int likeCount;
+    private int viewCount;
+    // 답변이 없으면 null
+    private Long answerId;
+    private String answerContent;
+}
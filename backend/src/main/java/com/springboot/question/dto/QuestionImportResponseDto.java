@@ -0,0 +1,26 @@
+package com.springboot.question.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 질문 대량 등록 결과, 실패한 행은 요청 목록에서의 순서(0부터 시작)와 실패 사유를 함께 내려줌
+@Getter
+@AllArgsConstructor
+public class QuestionImportResponseDto {
+    private int totalCount;
+    private int importedCount;
+    private int failedCount;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String field;
+        private String reason;
+    }
+}
@@ -1,22 +1,64 @@
 package com.springboot.question.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.springboot.answer.dto.AnswerResponseDto;
 import com.springboot.question.entity.Question;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
+@AllArgsConstructor
+// Redis 캐시(CompactRedisSerializer)에서 읽을 때 Jackson 이 사용하는 생성자
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class QuestionResponseDto {
     private long questionId;
     private String title;
     private String content;
     private String questionImage;
+    // 비밀글 작성자 검증에만 사용하고 응답에는 포함하지 않음
+    @JsonIgnore
+    private long memberId;
     private String name;
     private Question.QuestionStatus questionStatus;
     private Question.Visibility visibility;
     private int likeCount;
     private int viewCount;
+    // 요청한 회원이 좋아요를 눌렀는지 여부, 캐시된 응답은 여러 회원이 공유하므로 응답할 때 복사본에 설정함
+    private boolean likedByMe;
     private AnswerResponseDto answer;
+    // ETag 계산에만 사용하고 응답에는 포함하지 않음
+    @JsonIgnore
+    private long version;
+
+    // QuestionRepository 의 조회 전용 쿼리(SELECT new ...)에서 사용하는 생성자
+    // 질문, 작성자 이름, 답변을 한번의 조인 쿼리로 가져오기 때문에 행마다 추가 조회가 발생하지 않음
+    public QuestionResponseDto(long questionId, String title, String content, String questionImage,
+                               long memberId, String name,
+                               Question.QuestionStatus questionStatus, Question.Visibility visibility,
+                               int likeCount, int viewCount,
+                               Long answerId, String answerContent, long version) {
+        this.questionId = questionId;
+        this.title = title;
+        this.content = content;
+        this.questionImage = questionImage;
+        this.memberId = memberId;
+        this.name = name;
+        this.questionStatus = questionStatus;
+        this.visibility = visibility;
+        this.likeCount = likeCount;
+        this.viewCount = viewCount;
+        this.version = version;
+        // 답변이 있는 경우에만 answerResponseDto 설정
+        if (answerId != null) {
+            this.answer = AnswerResponseDto.builder()
+                    .answerId(answerId)
+                    .content(answerContent)
+                    .build();
+        }
+    }
 }
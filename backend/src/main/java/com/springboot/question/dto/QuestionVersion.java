@@ -0,0 +1,8 @@
+package com.springboot.question.dto;
+
+// 목록 조회 응답의 ETag 계산에 필요한 값만 가져오는 조회 전용 projection
+public interface QuestionVersion {
+    Long getQuestionId();
+    Long getVersion();
+    Integer getViewCount();
+}
@@ -1,10 +1,12 @@
 package com.springboot.question.entity;
 
 import com.springboot.answer.entity.Answer;
+import com.springboot.audit.BaseEntity;
 import com.springboot.member.entity.Member;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 
@@ -12,9 +14,20 @@ import javax.persistence.*;
 @Setter
 @NoArgsConstructor
 @Entity
-public class Question {
+// 커서 기반 조회에서 (정렬 값, questionId) 순서로 바로 찾아갈 수 있도록 인덱스 추가
+@Table(indexes = {
+        @Index(name = "idx_question_like_count", columnList = "likeCount, questionId"),
+        @Index(name = "idx_question_view_count", columnList = "viewCount, questionId")
+})
+// 변경된 컬럼만 UPDATE 해야 버퍼에서 반영한 view_count 를 질문 수정 시 덮어쓰지 않음
+@DynamicUpdate
+// 인기순 랭킹을 다시 만들 때 작성 시각(createAt)이 필요함
+public class Question extends BaseEntity {
+    // IDENTITY 는 INSERT 를 실행해야 ID 를 알 수 있어서 Hibernate 가 INSERT 를 배치로 묶지 못함
+    // 시퀀스에서 50개씩 미리 받아두는(pooled) 방식으로 바꿔서 대량 등록 시 JDBC 배치 INSERT 가 가능하도록 함
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long questionId;
 
     @Column(nullable = false)
@@ -50,6 +63,11 @@ public class Question {
     @Column
     private String questionImage;
 
+    // 질문 내용, 상태, 답변, 좋아요 수가 바뀔 때마다 1씩 증가하는 값 (조회수 변경은 포함하지 않음)
+    // 조회 응답의 ETag 를 만드는 데 사용하고, 동시에 변경되어도 값이 겹치지 않도록 QuestionRepository.increaseVersion 으로만 증가시킴
+    @Column(nullable = false)
+    private long version = 0;
+
     // 동기화, 영속성 전이
     public void setAnswer(Answer answer) {
         this.answer = answer;
@@ -66,6 +84,15 @@ public class Question {
         }
     }
 
+    /*
+       회원의 질문 목록(member.questions)을 불러오지 않고 작성자(FK)만 설정 (대량 등록용)
+       setMember 는 목록에 이미 있는지 확인하느라 회원의 질문 전체를 조회하므로, 행마다 호출하면 목록을 반복해서 훑게 됨
+       같은 영속성 컨텍스트에서 회원의 질문 목록을 다시 사용하지 않을 때만 사용해야 함
+    */
+    public void setMemberWithoutSync(Member member) {
+        this.member = member;
+    }
+
     public enum QuestionStatus {
         QUESTION_REGISTERED("질문 등록"),
         QUESTION_ANSWERED("질문 답변 완료"),
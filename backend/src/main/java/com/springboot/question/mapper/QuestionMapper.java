@@ -8,14 +8,16 @@ import com.springboot.question.entity.Question;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring")
 public interface QuestionMapper {
     @Mapping(target = "member.memberId", source = "memberId")
     @Mapping(target = "visibility", source = "visibility")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "memberWithoutSync", ignore = true)
     Question questionPostDtoToQuestion(QuestionPostDto questionPostDto);
     @Mapping(target = "member.memberId", source = "memberId")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "memberWithoutSync", ignore = true)
     Question questionPatchDtoToQuestion(QuestionPatchDto questionPatchDto);
 
     default QuestionResponseDto questionToQuestionResponseDto(Question question) {
@@ -28,6 +30,8 @@ public interface QuestionMapper {
                 .visibility(question.getVisibility())
                 .likeCount(question.getLikeCount())
                 .viewCount(question.getViewCount())
+                .version(question.getVersion())
+                .memberId(question.getMember().getMemberId())
                 .name(question.getMember().getName());
 
         // 답변이 있는 경우에만 answerResponseDto 설정
@@ -43,6 +47,4 @@ public interface QuestionMapper {
         // 최종적으로 build() 호출
         return builder.build();
     }
-
-    List<QuestionResponseDto> questionsToQuestionResponseDtos(List<Question> questions);
 }
@@ -1,14 +1,135 @@
 package com.springboot.question.repository;
 
+import com.springboot.question.dto.QuestionExportDto;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.dto.QuestionVersion;
 import com.springboot.question.entity.Question;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import javax.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
-    Page<Question> findByQuestionStatusNotIn(List<Question.QuestionStatus> statuses,
-                                             Pageable pageable);
-}
\ No newline at end of file
+    /*
+       조회 전용 쿼리에서 공통으로 사용하는 SELECT 절
+       Question 엔티티를 불러오면 EAGER 인 member 와 지연 로딩이 안되는 answer 때문에 행마다 추가 SELECT 가 발생하므로
+       작성자 이름과 답변까지 조인해서 QuestionResponseDto 로 바로 만들어 한번의 쿼리로 끝냄
+    */
+    String RESPONSE_SELECT = "SELECT new com.springboot.question.dto.QuestionResponseDto(" +
+            "q.questionId, q.title, q.content, q.questionImage, m.memberId, m.name, " +
+            "q.questionStatus, q.visibility, q.likeCount, q.viewCount, a.answerId, a.content, q.version) " +
+            "FROM Question q JOIN q.member m LEFT JOIN q.answer a ";
+
+    String VERSION_SELECT = "SELECT q.questionId AS questionId, q.version AS version, q.viewCount AS viewCount " +
+            "FROM Question q ";
+
+    @Query(value = RESPONSE_SELECT + "WHERE q.questionId = :questionId")
+    Optional<QuestionResponseDto> findResponseById(@Param("questionId") long questionId);
+
+    // 랭킹(Redis)에서 가져온 질문 ID 들의 응답 조회, 순서는 보장되지 않으므로 호출한 쪽에서 다시 정렬해야 함
+    @Query(RESPONSE_SELECT + "WHERE q.questionId IN :questionIds AND q.questionStatus NOT IN :statuses")
+    List<QuestionResponseDto> findResponsesByIdIn(@Param("questionIds") List<Long> questionIds,
+                                                  @Param("statuses") List<Question.QuestionStatus> statuses);
+
+    @Query(value = RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.questionStatus NOT IN :statuses")
+    Page<QuestionResponseDto> findResponsesByQuestionStatusNotIn(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                                 Pageable pageable);
+
+    // 목록 조회 ETag 사전 확인용, 목록 조회와 같은 조건과 정렬로 ID, version 만 가져옴 (작성자, 답변을 조인하지 않음)
+    @Query(value = VERSION_SELECT + "WHERE q.questionStatus NOT IN :statuses",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.questionStatus NOT IN :statuses")
+    Page<QuestionVersion> findVersionsByQuestionStatusNotIn(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                            Pageable pageable);
+
+    @Query(VERSION_SELECT + "WHERE q.questionId IN :questionIds AND q.questionStatus NOT IN :statuses")
+    List<QuestionVersion> findVersionsByIdIn(@Param("questionIds") List<Long> questionIds,
+                                             @Param("statuses") List<Question.QuestionStatus> statuses);
+
+    /*
+       관리자 내보내기용, questionId 가 since 보다 큰 질문을 ID 순서대로 한 행씩 읽음
+       fetch size 만큼씩만 DB 에서 가져오기 때문에 전체 결과를 메모리에 올리지 않음 (트랜잭션 안에서 사용하고 반드시 close 해야 함)
+    */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.springboot.question.dto.QuestionExportDto(" +
+            "q.questionId, q.title, q.content, m.memberId, m.name, q.questionStatus, q.visibility, " +
+            "q.likeCount, q.viewCount, a.answerId, a.content) " +
+            "FROM Question q JOIN q.member m LEFT JOIN q.answer a " +
+            "WHERE q.questionId > :since ORDER BY q.questionId ASC")
+    Stream<QuestionExportDto> streamExportsByIdAfter(@Param("since") long since);
+
+    /*
+       질문 내용, 상태, 답변, 좋아요가 바뀌었을 때 version 을 1 증가
+       엔티티 값을 읽어서 +1 한 값을 저장하면 동시에 변경된 두 요청이 같은 version 을 가질 수 있으므로 DB 에서 직접 증가시킴
+    */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Question q SET q.version = q.version + 1 WHERE q.questionId IN :questionIds")
+    int increaseVersion(@Param("questionIds") List<Long> questionIds);
+
+    // 좋아요 수를 DB 에서 직접 +-1 하고 ETag 용 version 도 함께 증가 (Question 을 조회하지 않으므로 동시에 눌러도 값이 유실되지 않음)
+    @Modifying
+    @Query("UPDATE Question q SET q.likeCount = q.likeCount + :delta, q.version = q.version + 1 " +
+            "WHERE q.questionId = :questionId AND q.questionStatus NOT IN :statuses")
+    int increaseLikeCount(@Param("questionId") long questionId,
+                          @Param("delta") int delta,
+                          @Param("statuses") List<Question.QuestionStatus> statuses);
+
+    // 커서 기반 조회 쿼리들, Slice 로 반환해서 count 쿼리를 실행하지 않음
+    // 정렬 값이 같을 때는 questionId 로 순서를 정함 (정렬 방향은 Pageable 의 Sort 와 맞춰야 함)
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND q.questionId < :questionId")
+    Slice<QuestionResponseDto> findByCursorIdBefore(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                    @Param("questionId") long questionId,
+                                                    Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND q.questionId > :questionId")
+    Slice<QuestionResponseDto> findByCursorIdAfter(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                   @Param("questionId") long questionId,
+                                                   Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND (q.likeCount < :likeCount OR (q.likeCount = :likeCount AND q.questionId < :questionId))")
+    Slice<QuestionResponseDto> findByCursorLikeCountBefore(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                           @Param("likeCount") int likeCount,
+                                                           @Param("questionId") long questionId,
+                                                           Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND (q.likeCount > :likeCount OR (q.likeCount = :likeCount AND q.questionId > :questionId))")
+    Slice<QuestionResponseDto> findByCursorLikeCountAfter(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                          @Param("likeCount") int likeCount,
+                                                          @Param("questionId") long questionId,
+                                                          Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND (q.viewCount < :viewCount OR (q.viewCount = :viewCount AND q.questionId < :questionId))")
+    Slice<QuestionResponseDto> findByCursorViewCountBefore(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                           @Param("viewCount") int viewCount,
+                                                           @Param("questionId") long questionId,
+                                                           Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE q.questionStatus NOT IN :statuses " +
+            "AND (q.viewCount > :viewCount OR (q.viewCount = :viewCount AND q.questionId > :questionId))")
+    Slice<QuestionResponseDto> findByCursorViewCountAfter(@Param("statuses") List<Question.QuestionStatus> statuses,
+                                                          @Param("viewCount") int viewCount,
+                                                          @Param("questionId") long questionId,
+                                                          Pageable pageable);
+}
@@ -0,0 +1,126 @@
+package com.springboot.question.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.springboot.question.dto.QuestionExportDto;
+import com.springboot.question.repository.QuestionRepository;
+import com.springboot.utils.CheckValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+   관리자용 질문 내보내기 서비스
+   페이지 단위로 나눠서 조회하면 페이지마다 count 쿼리가 다시 실행되고, 뒤쪽 페이지일수록 OFFSET 때문에 느려지므로
+   questionId 순서의 Stream 쿼리 하나로 한 행씩 읽으면서 바로 응답 스트림에 써서 전체 결과를 메모리에 올리지 않음
+   조회 결과는 엔티티가 아닌 DTO 라서 영속성 컨텍스트에 쌓이지 않기 때문에 행 수가 많아도 사용하는 메모리가 일정함
+*/
+@Slf4j
+@Service
+public class QuestionExportService {
+    private static final String CSV_HEADER = "questionId,title,content,memberId,name,questionStatus,visibility," +
+            "likeCount,viewCount,answerId,answerContent";
+
+    private final QuestionRepository questionRepository;
+    private final CheckValidator checkValidator;
+    private final ObjectWriter jsonWriter;
+
+    public QuestionExportService(QuestionRepository questionRepository,
+                                 CheckValidator checkValidator,
+                                 ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.checkValidator = checkValidator;
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    public enum ExportFormat {
+        NDJSON, CSV
+    }
+
+    // 내보내기 전에 관리자인지 검증 (응답을 쓰기 시작한 뒤에는 에러 응답을 보낼 수 없으므로 먼저 호출해야 함)
+    public void verifyExportPermission() {
+        checkValidator.checkAdmin();
+    }
+
+    /*
+       since 보다 큰 questionId 의 질문을 ID 순서대로 outputStream 에 씀 (삭제, 비활성화된 질문도 포함)
+       중간에 연결이 끊어졌다면 마지막으로 받은 questionId 를 since 로 넘겨서 이어서 받을 수 있음
+       Stream 은 트랜잭션 안에서만 읽을 수 있으므로 다 쓸 때까지 읽기 전용 트랜잭션을 유지함
+    */
+    @Transactional(readOnly = true)
+    public long exportQuestions(long since, ExportFormat format, OutputStream outputStream) throws IOException {
+        checkValidator.checkAdmin();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long count = 0;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<QuestionExportDto> questions = questionRepository.streamExportsByIdAfter(since)) {
+            Iterator<QuestionExportDto> iterator = questions.iterator();
+            while (iterator.hasNext()) {
+                QuestionExportDto question = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, question);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(question));
+                }
+                writer.write('\n');
+                count++;
+            }
+        }
+
+        writer.flush();
+        log.info("# Exported {} questions after questionId {} as {}", count, since, format);
+        return count;
+    }
+
+    private void writeCsv(Writer writer, QuestionExportDto question) throws IOException {
+        writer.write(String.valueOf(question.getQuestionId()));
+        writer.write(',');
+        writer.write(escapeCsv(question.getTitle()));
+        writer.write(',');
+        writer.write(escapeCsv(question.getContent()));
+        writer.write(',');
+        writer.write(String.valueOf(question.getMemberId()));
+        writer.write(',');
+        writer.write(escapeCsv(question.getName()));
+        writer.write(',');
+        writer.write(question.getQuestionStatus().name());
+        writer.write(',');
+        writer.write(question.getVisibility().name());
+        writer.write(',');
+        writer.write(String.valueOf(question.getLikeCount()));
+        writer.write(',');
+        writer.write(String.valueOf(question.getViewCount()));
+        writer.write(',');
+        if (question.getAnswerId() != null) {
+            writer.write(String.valueOf(question.getAnswerId()));
+        }
+        writer.write(',');
+        writer.write(escapeCsv(question.getAnswerContent()));
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있는 값은 큰따옴표로 감싸고 안의 큰따옴표는 두번 써야 함 (RFC 4180)
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,188 @@
+package com.springboot.question.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.question.dto.QuestionImportResponseDto;
+import com.springboot.question.dto.QuestionPostDto;
+import com.springboot.question.entity.Question;
+import com.springboot.utils.CheckValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+   관리자용 질문 대량 등록 서비스 (초기 데이터 등록, 데이터 이관용)
+   POST /v1/questions 를 한 건씩 호출하면 요청마다 트랜잭션과 INSERT 가 따로 실행되므로
+   chunk-size 만큼씩 한 트랜잭션으로 묶어서 persist 하고, Question 의 ID 를 시퀀스(pooled)로 미리 받아두기 때문에
+   Hibernate 가 INSERT 를 hibernate.jdbc.batch_size 단위의 JDBC 배치로 실행함
+
+   검증에 실패한 행은 건너뛰고 실패 사유만 모아서 반환하며, 나머지 행은 계속 등록함
+   DB 오류로 chunk 하나가 롤백되면 그 chunk 의 행만 실패로 처리하고 다음 chunk 를 이어서 등록함
+*/
+@Slf4j
+@Service
+public class QuestionImportService {
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final CheckValidator checkValidator;
+    private final Validator validator;
+    private final QuestionRanking questionRanking;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final int chunkSize;
+    private final int maxRows;
+    private final String defaultImagePath;
+
+    public QuestionImportService(EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 MemberRepository memberRepository,
+                                 CheckValidator checkValidator,
+                                 Validator validator,
+                                 QuestionRanking questionRanking,
+                                 QuestionSearchIndex questionSearchIndex,
+                                 @Value("${question.import.chunk-size}") int chunkSize,
+                                 @Value("${question.import.max-rows}") int maxRows,
+                                 @Value("${file.default-image}") String defaultImagePath) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberRepository = memberRepository;
+        this.checkValidator = checkValidator;
+        this.validator = validator;
+        this.questionRanking = questionRanking;
+        this.questionSearchIndex = questionSearchIndex;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.defaultImagePath = defaultImagePath;
+    }
+
+    public QuestionImportResponseDto importQuestions(List<QuestionPostDto> questionPostDtos) {
+        checkValidator.checkAdmin();
+
+        if (questionPostDtos.size() > maxRows) {
+            throw new BusinessLogicException(ExceptionCode.IMPORT_SIZE_EXCEEDED);
+        }
+
+        long startTime = System.nanoTime();
+        List<QuestionImportResponseDto.RowError> errors = new ArrayList<>();
+
+        // 작성자는 행마다 조회하지 않고 한번에 조회해서 검증
+        Set<Long> activeMemberIds = findActiveMemberIds(questionPostDtos);
+
+        List<Integer> validRows = new ArrayList<>();
+        for (int row = 0; row < questionPostDtos.size(); row++) {
+            List<QuestionImportResponseDto.RowError> rowErrors = validate(row, questionPostDtos.get(row), activeMemberIds);
+            if (rowErrors.isEmpty()) {
+                validRows.add(row);
+            } else {
+                errors.addAll(rowErrors);
+            }
+        }
+
+        int importedCount = 0;
+        for (int from = 0; from < validRows.size(); from += chunkSize) {
+            List<Integer> chunk = validRows.subList(from, Math.min(from + chunkSize, validRows.size()));
+            try {
+                importChunk(questionPostDtos, chunk);
+                importedCount += chunk.size();
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                log.error("# Failed to import question rows {} ~ {}", chunk.get(0), chunk.get(chunk.size() - 1), e);
+                // DB 오류 메시지(테이블, 제약 조건 이름 등)는 로그에만 남기고 응답에는 내려주지 않음
+                chunk.forEach(row -> errors.add(new QuestionImportResponseDto.RowError(row, null,
+                        ExceptionCode.IMPORT_ROW_FAILED.getMessage())));
+            } finally {
+                // 등록한 엔티티가 영속성 컨텍스트에 계속 쌓이지 않도록 chunk 마다 비움
+                entityManager.clear();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        double rowsPerSecond = elapsedMillis == 0 ? importedCount : importedCount * 1000.0 / elapsedMillis;
+        log.info("# Imported {} of {} questions in {} ms ({} rows/s)",
+                importedCount, questionPostDtos.size(), elapsedMillis, String.format("%.1f", rowsPerSecond));
+
+        return new QuestionImportResponseDto(questionPostDtos.size(), importedCount,
+                questionPostDtos.size() - importedCount, elapsedMillis, rowsPerSecond, errors);
+    }
+
+    private void importChunk(List<QuestionPostDto> questionPostDtos, List<Integer> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // 작성자는 이미 검증했으므로 조회하지 않고 FK 로만 사용할 프록시를 가져옴
+            Map<Long, Member> members = new HashMap<>();
+            List<Question> questions = new ArrayList<>();
+
+            for (int row : rows) {
+                QuestionPostDto questionPostDto = questionPostDtos.get(row);
+                Member member = members.computeIfAbsent(questionPostDto.getMemberId(),
+                        memberId -> entityManager.getReference(Member.class, memberId));
+
+                Question question = new Question();
+                question.setTitle(questionPostDto.getTitle());
+                question.setContent(questionPostDto.getContent());
+                question.setVisibility(questionPostDto.getVisibility() == null
+                        ? Question.Visibility.QUESTION_PUBLIC : questionPostDto.getVisibility());
+                question.setQuestionImage(defaultImagePath);
+                question.setMemberWithoutSync(member);
+
+                entityManager.persist(question);
+                questions.add(question);
+            }
+            // persist 할 때는 시퀀스에서 ID 만 받고, INSERT 는 flush 할 때 배치로 실행됨
+            entityManager.flush();
+
+            questionRanking.addAll(questions.stream().map(Question::getQuestionId).collect(Collectors.toList()));
+            questions.forEach(questionSearchIndex::index);
+        });
+    }
+
+    private List<QuestionImportResponseDto.RowError> validate(int row, QuestionPostDto questionPostDto,
+                                                              Set<Long> activeMemberIds) {
+        List<QuestionImportResponseDto.RowError> rowErrors = new ArrayList<>();
+        if (questionPostDto == null) {
+            rowErrors.add(new QuestionImportResponseDto.RowError(row, null, "must not be null"));
+            return rowErrors;
+        }
+
+        for (ConstraintViolation<QuestionPostDto> violation : validator.validate(questionPostDto)) {
+            rowErrors.add(new QuestionImportResponseDto.RowError(row,
+                    violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+
+        if (questionPostDto.getMemberId() == null || !activeMemberIds.contains(questionPostDto.getMemberId())) {
+            rowErrors.add(new QuestionImportResponseDto.RowError(row, "memberId",
+                    ExceptionCode.MEMBER_NOT_FOUND.getMessage()));
+        }
+        return rowErrors;
+    }
+
+    // 요청에 있는 작성자 중 탈퇴하지 않은 회원의 ID 목록
+    private Set<Long> findActiveMemberIds(List<QuestionPostDto> questionPostDtos) {
+        Set<Long> memberIds = questionPostDtos.stream()
+                .filter(Objects::nonNull)
+                .map(QuestionPostDto::getMemberId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return memberRepository.findAllById(memberIds).stream()
+                .filter(member -> member.getStatus() != Member.Status.MEMBER_QUIT)
+                .map(Member::getMemberId)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,385 @@
+package com.springboot.question.service;
+
+import com.springboot.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/*
+   좋아요 많은 순(like_desc), 조회수 많은 순(view_desc) 정렬을 위해
+   질문별 likeCount, viewCount 를 Redis Sorted Set 에 복제해두는 클래스
+   상위 페이지는 DB 전체를 정렬하지 않고 ZREVRANGE 로 질문 ID 만 가져온 뒤 해당 ID 들만 조회함
+
+   Redis 는 DB 값을 복제한 보조 저장소이기 때문에 Redis 에 문제가 생겨도 요청이 실패하지 않도록
+   반영 실패는 로그만 남기고, 조회 실패 시에는 Optional.empty() 를 반환해서 DB 정렬로 대체하게 함
+   Redis 가 초기화된 경우에는 rebuild() 로 DB 에서 다시 채울 수 있음
+
+   인기순(trending) 랭킹은 좋아요, 조회수에 시간 감쇠를 적용한 점수로 정렬함
+   점수를 요청마다 다시 계산하지 않도록 forward decay 방식을 사용해서
+   이벤트가 발생한 시각 t 에 weight * 2^((t - epoch) / halfLife) 를 더함
+   최근 이벤트일수록 더 큰 값을 더하게 되므로 모든 점수를 주기적으로 줄이지 않아도 오래된 이벤트의 비중이 반감기마다 절반이 됨
+   epoch 에서 멀어질수록 더하는 값이 커지므로 일정 기간이 지나면 Lua 스크립트 안에서 전체 점수를 줄이고 epoch 를 옮김
+*/
+@Slf4j
+@Component
+public class QuestionRanking {
+    // 랭킹, epoch, 재구성용 임시 키를 한 스크립트(RENAME 포함)에서 사용하므로 클러스터에서도 같은 슬롯에 있도록 해시 태그를 붙임
+    public static final String LIKE_RANKING_KEY = "{question:ranking}:like";
+    public static final String VIEW_RANKING_KEY = "{question:ranking}:view";
+    public static final String TRENDING_RANKING_KEY = "{question:ranking}:trending";
+    static final String TRENDING_EPOCH_KEY = "{question:ranking}:trending:epoch";
+    private static final String TRENDING_RESCALE_KEY = "{question:ranking}:trending:rescale";
+
+    private static final String REBUILD_SUFFIX = ":rebuild";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final String REBUILD_SQL = "SELECT question_id, like_count, view_count, create_at FROM question " +
+            "WHERE question_status NOT IN ('QUESTION_DELETED', 'QUESTION_DEACTIVED')";
+
+    /*
+       인기 점수 증가 스크립트
+       ARGV[1] 현재 시각(ms), ARGV[2] 반감기(ms), ARGV[3] 랭킹에 없는 질문도 추가할지(1/0), 이후 (질문, 가중치) 쌍
+       KEYS[1] 인기 랭킹, KEYS[2] epoch, KEYS[3] 점수를 줄일 때 사용하는 임시 키
+       epoch 로부터 반감기의 64배가 지나면 모든 점수에 2^-age 를 곱해서(ZUNIONSTORE WEIGHTS) 임시 키에 만든 뒤 랭킹과 바꾸고 현재 시각을 새 epoch 로 만듦
+       ARGV[3] 이 0 이면 삭제된 질문의 조회수 반영 등으로 랭킹에 다시 추가되지 않도록 이미 있는 질문만 증가시킴
+    */
+    private static final RedisScript<Long> TRENDING_INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) " +
+            "local halfLife = tonumber(ARGV[2]) " +
+            "local epoch = tonumber(redis.call('GET', KEYS[2])) " +
+            "if not epoch then epoch = now redis.call('SET', KEYS[2], now) end " +
+            "local age = (now - epoch) / halfLife " +
+            "if age > 64 then " +
+            "  if redis.call('ZUNIONSTORE', KEYS[3], 1, KEYS[1], 'WEIGHTS', 2 ^ (-age)) > 0 then " +
+            "    redis.call('RENAME', KEYS[3], KEYS[1]) " +
+            "  end " +
+            "  redis.call('SET', KEYS[2], now) " +
+            "  age = 0 " +
+            "end " +
+            "local factor = 2 ^ age " +
+            "local updated = 0 " +
+            "for i = 4, #ARGV, 2 do " +
+            "  if ARGV[3] == '1' or redis.call('ZSCORE', KEYS[1], ARGV[i]) then " +
+            "    redis.call('ZINCRBY', KEYS[1], tonumber(ARGV[i + 1]) * factor, ARGV[i]) " +
+            "    updated = updated + 1 " +
+            "  end " +
+            "end " +
+            "return updated", Long.class);
+
+    /*
+       좋아요, 조회수 랭킹 증가 스크립트
+       KEYS[1] 랭킹, 이후 (질문, 증가량) 쌍
+       ZINCRBY 는 없는 질문을 새로 추가하므로, 삭제되어 랭킹에서 빠진 질문이 다시 추가되지 않도록 ZADD XX INCR 로 이미 있는 질문만 증가시킴
+    */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local updated = 0 " +
+            "for i = 1, #ARGV, 2 do " +
+            "  if redis.call('ZADD', KEYS[1], 'XX', 'INCR', ARGV[i + 1], ARGV[i]) then " +
+            "    updated = updated + 1 " +
+            "  end " +
+            "end " +
+            "return updated", Long.class);
+
+    /*
+       재구성한 임시 키로 랭킹을 교체하는 스크립트
+       KEYS[1..3] 랭킹(좋아요, 조회수, 인기), KEYS[4] epoch, KEYS[5..7] 임시 키, ARGV[1] 재구성할 때의 epoch
+       RENAME 은 기존 키를 덮어쓰므로 먼저 지우지 않고, 인기 랭킹과 epoch 를 같이 바꿔야 점수 증가 스크립트가 중간 상태를 보지 않음
+       질문이 하나도 없으면 임시 키가 만들어지지 않으므로 랭킹을 비움
+    */
+    private static final RedisScript<Long> REBUILD_SWAP_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[5]) == 0 then " +
+            "  redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4]) " +
+            "  return 0 " +
+            "end " +
+            "redis.call('RENAME', KEYS[5], KEYS[1]) " +
+            "redis.call('RENAME', KEYS[6], KEYS[2]) " +
+            "redis.call('RENAME', KEYS[7], KEYS[3]) " +
+            "redis.call('SET', KEYS[4], ARGV[1]) " +
+            "return 1", Long.class);
+
+    // 스크립트 한번에 넘기는 (질문, 가중치) 또는 (질문, 증가량) 쌍의 최대 개수
+    private static final int TRENDING_SCRIPT_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final long trendingHalfLifeMillis;
+    private final double trendingLikeWeight;
+    private final double trendingViewWeight;
+    private final double trendingCreatedWeight;
+
+    public QuestionRanking(RedisTemplate<String, Object> redisTemplate,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${question.trending.half-life-hours}") double trendingHalfLifeHours,
+                           @Value("${question.trending.like-weight}") double trendingLikeWeight,
+                           @Value("${question.trending.view-weight}") double trendingViewWeight,
+                           @Value("${question.trending.created-weight}") double trendingCreatedWeight) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.trendingHalfLifeMillis = (long) (trendingHalfLifeHours * 60 * 60 * 1000);
+        this.trendingLikeWeight = trendingLikeWeight;
+        this.trendingViewWeight = trendingViewWeight;
+        this.trendingCreatedWeight = trendingCreatedWeight;
+    }
+
+    // 새 질문은 점수 0 으로 등록해야 Sorted Set 의 크기가 목록 조회 대상 질문 수와 같아짐
+    // 인기순 랭킹에는 새 질문이 노출될 수 있도록 작성 시점에 created-weight 만큼의 점수를 줌
+    public void add(long questionId) {
+        TransactionUtils.runAfterCommit(() -> execute("add", () -> {
+            redisTemplate.opsForZSet().add(LIKE_RANKING_KEY, toMember(questionId), 0);
+            redisTemplate.opsForZSet().add(VIEW_RANKING_KEY, toMember(questionId), 0);
+            incrementTrendingScores(Map.of(questionId, trendingCreatedWeight), true);
+        }));
+    }
+
+    // 대량 등록된 질문들을 한번의 파이프라인으로 등록
+    public void addAll(List<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> execute("addAll", () -> executePipelined(operations -> {
+            for (Long questionId : questionIds) {
+                operations.opsForZSet().add(LIKE_RANKING_KEY, toMember(questionId), 0);
+                operations.opsForZSet().add(VIEW_RANKING_KEY, toMember(questionId), 0);
+            }
+        })));
+        Map<Long, Double> weights = new LinkedHashMap<>();
+        questionIds.forEach(questionId -> weights.put(questionId, trendingCreatedWeight));
+        TransactionUtils.runAfterCommit(() -> execute("addAll", () -> incrementTrendingScores(weights, true)));
+    }
+
+    // 삭제되거나 비활성화된 질문은 목록에 나오면 안되므로 랭킹에서도 제거
+    public void remove(List<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        Object[] members = questionIds.stream().map(QuestionRanking::toMember).toArray();
+        TransactionUtils.runAfterCommit(() -> execute("remove", () -> {
+            redisTemplate.opsForZSet().remove(LIKE_RANKING_KEY, members);
+            redisTemplate.opsForZSet().remove(VIEW_RANKING_KEY, members);
+            redisTemplate.opsForZSet().remove(TRENDING_RANKING_KEY, members);
+        }));
+    }
+
+    // 좋아요 취소는 취소한 시점의 가중치로 빼기 때문에 오래전에 받은 좋아요를 취소하면 받았을 때보다 점수가 더 줄어듦
+    public void incrementLikeCount(long questionId, int delta) {
+        TransactionUtils.runAfterCommit(() -> execute("incrementLikeCount", () -> {
+            incrementScores(LIKE_RANKING_KEY, Map.of(questionId, delta));
+            incrementTrendingScores(Map.of(questionId, trendingLikeWeight * delta), false);
+        }));
+    }
+
+    // 보정된 좋아요 수로 랭킹 점수를 덮어씀, 랭킹에 없는 질문(삭제된 질문 등)은 추가하지 않음 (ZADD XX)
+    public void updateLikeCounts(Map<Long, Integer> likeCounts) {
+        if (likeCounts.isEmpty()) {
+            return;
+        }
+        byte[] key = LIKE_RANKING_KEY.getBytes(StandardCharsets.UTF_8);
+        execute("updateLikeCounts", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            likeCounts.forEach((questionId, likeCount) -> connection.zSetCommands().zAdd(key, likeCount,
+                    toMember(questionId).getBytes(StandardCharsets.UTF_8), RedisZSetCommands.ZAddArgs.ifExists()));
+            return null;
+        }));
+    }
+
+    // 조회수 버퍼가 DB 에 반영한 조회수를 한번의 파이프라인으로 반영
+    public void incrementViewCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        execute("incrementViewCounts", () -> incrementScores(VIEW_RANKING_KEY, deltas));
+
+        Map<Long, Double> weights = new LinkedHashMap<>();
+        deltas.forEach((questionId, delta) -> weights.put(questionId, trendingViewWeight * delta));
+        execute("incrementViewCounts", () -> incrementTrendingScores(weights, false));
+    }
+
+    // 랭킹에 있는 질문의 점수만 증가, (질문, 증가량) 쌍을 TRENDING_SCRIPT_BATCH_SIZE 개씩 나눠서 실행
+    private void incrementScores(String key, Map<Long, ? extends Number> deltas) {
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<Long, ? extends Number> delta : deltas.entrySet()) {
+            args.add(toMember(delta.getKey()));
+            args.add(String.valueOf(delta.getValue()));
+            if (args.size() == TRENDING_SCRIPT_BATCH_SIZE * 2) {
+                redisTemplate.execute(INCREMENT_SCRIPT, List.of(key), args.toArray());
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            redisTemplate.execute(INCREMENT_SCRIPT, List.of(key), args.toArray());
+        }
+    }
+
+    // 인기 점수를 현재 시각 기준의 가중치로 증가, (질문, 가중치) 쌍을 TRENDING_SCRIPT_BATCH_SIZE 개씩 나눠서 실행
+    private void incrementTrendingScores(Map<Long, Double> weights, boolean create) {
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<Long, Double> weight : weights.entrySet()) {
+            args.add(toMember(weight.getKey()));
+            args.add(String.valueOf(weight.getValue()));
+            if (args.size() == TRENDING_SCRIPT_BATCH_SIZE * 2) {
+                runTrendingScript(args, create);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            runTrendingScript(args, create);
+        }
+    }
+
+    private void runTrendingScript(List<Object> pairs, boolean create) {
+        Object[] args = new Object[pairs.size() + 3];
+        args[0] = String.valueOf(System.currentTimeMillis());
+        args[1] = String.valueOf(trendingHalfLifeMillis);
+        args[2] = create ? "1" : "0";
+        for (int i = 0; i < pairs.size(); i++) {
+            args[i + 3] = pairs.get(i);
+        }
+        redisTemplate.execute(TRENDING_INCREMENT_SCRIPT, List.of(TRENDING_RANKING_KEY, TRENDING_EPOCH_KEY, TRENDING_RESCALE_KEY), args);
+    }
+
+    // 점수가 높은 순으로 page 번째 페이지의 질문 ID 목록, Redis 를 사용할 수 없으면 empty
+    public Optional<List<Long>> findTopQuestionIds(String key, int page, int size) {
+        try {
+            long start = (long) (page - 1) * size;
+            Set<Object> members = redisTemplate.opsForZSet().reverseRange(key, start, start + size - 1);
+            if (members == null) {
+                return Optional.empty();
+            }
+            List<Long> questionIds = new ArrayList<>();
+            for (Object member : members) {
+                questionIds.add(Long.parseLong((String) member));
+            }
+            return Optional.of(questionIds);
+        } catch (DataAccessException e) {
+            log.warn("# Failed to read question ranking {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // 랭킹에 등록된 질문 수, 비어있다면(Redis 초기화 등) empty 를 반환해서 DB 정렬로 대체하게 함
+    public Optional<Long> count(String key) {
+        try {
+            Long count = redisTemplate.opsForZSet().zCard(key);
+            return count == null || count == 0 ? Optional.empty() : Optional.of(count);
+        } catch (DataAccessException e) {
+            log.warn("# Failed to read question ranking {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // 애플리케이션 시작 시 랭킹이 없다면(처음 배포, Redis 초기화) DB 에서 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        try {
+            if (Boolean.FALSE.equals(redisTemplate.hasKey(LIKE_RANKING_KEY))
+                    || Boolean.FALSE.equals(redisTemplate.hasKey(TRENDING_RANKING_KEY))) {
+                rebuild();
+            }
+        } catch (DataAccessException e) {
+            log.warn("# Skipped question ranking rebuild: {}", e.getMessage());
+        }
+    }
+
+    /*
+       DB 의 likeCount, viewCount 로 랭킹을 다시 만드는 메서드 (Redis flush 이후 복구용)
+       임시 키에 모두 채운 뒤 Lua 스크립트 한번으로 RENAME 과 epoch 변경을 함께 실행하기 때문에
+       재구성 중에도 기존 랭킹으로 조회할 수 있고, 인기 점수 증가가 새 랭킹에 이전 epoch 를 적용하는 일이 없음
+       재구성 도중 들어온 좋아요/조회수 변경은 교체 시점에 사라질 수 있음
+
+       DB 에는 좋아요, 조회가 언제 발생했는지 남아있지 않으므로 인기 점수는 모든 이벤트가 질문 작성 시점에 발생했다고 보고 계산함
+       지금을 epoch 로 해서 점수가 음수 지수(2^-age)로 작아지므로 값이 넘치지 않음
+    */
+    public long rebuild() {
+        String likeTempKey = LIKE_RANKING_KEY + REBUILD_SUFFIX;
+        String viewTempKey = VIEW_RANKING_KEY + REBUILD_SUFFIX;
+        String trendingTempKey = TRENDING_RANKING_KEY + REBUILD_SUFFIX;
+        // 이전 재구성이 중간에 실패해서 남은 임시 키 (랭킹 키는 지우지 않음)
+        redisTemplate.delete(List.of(likeTempKey, viewTempKey, trendingTempKey));
+
+        long epoch = System.currentTimeMillis();
+        List<long[]> batch = new ArrayList<>();
+        long[] total = {0};
+        jdbcTemplate.query(REBUILD_SQL, resultSet -> {
+            Timestamp createAt = resultSet.getTimestamp(4);
+            batch.add(new long[]{resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                    createAt == null ? epoch : createAt.getTime()});
+            if (batch.size() == REBUILD_BATCH_SIZE) {
+                total[0] += writeRebuildBatch(likeTempKey, viewTempKey, trendingTempKey, epoch, batch);
+            }
+        });
+        total[0] += writeRebuildBatch(likeTempKey, viewTempKey, trendingTempKey, epoch, batch);
+
+        redisTemplate.execute(REBUILD_SWAP_SCRIPT,
+                List.of(LIKE_RANKING_KEY, VIEW_RANKING_KEY, TRENDING_RANKING_KEY, TRENDING_EPOCH_KEY,
+                        likeTempKey, viewTempKey, trendingTempKey),
+                String.valueOf(epoch));
+        log.info("# Question ranking rebuilt with {} questions", total[0]);
+        return total[0];
+    }
+
+    private int writeRebuildBatch(String likeKey, String viewKey, String trendingKey, long epoch, List<long[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        executePipelined(operations -> {
+            for (long[] row : batch) {
+                operations.opsForZSet().add(likeKey, toMember(row[0]), row[1]);
+                operations.opsForZSet().add(viewKey, toMember(row[0]), row[2]);
+                double weight = trendingCreatedWeight + trendingLikeWeight * row[1] + trendingViewWeight * row[2];
+                double age = (double) (row[3] - epoch) / trendingHalfLifeMillis;
+                operations.opsForZSet().add(trendingKey, toMember(row[0]), weight * Math.pow(2, age));
+            }
+        });
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    // commands 의 명령들을 파이프라인 한번으로 보냄
+    private void executePipelined(Consumer<RedisOperations<String, Object>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                // executePipelined 는 redisTemplate 자신을 넘겨주므로 키, 값 타입이 redisTemplate 과 같음
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    private void execute(String operation, Runnable command) {
+        try {
+            command.run();
+        } catch (DataAccessException e) {
+            log.warn("# Failed to update question ranking ({}): {}", operation, e.getMessage());
+        }
+    }
+
+    /*
+       점수가 같으면 Redis 는 멤버 문자열의 사전 역순으로 정렬하므로
+       ID 를 0 으로 채운 고정 길이 문자열로 저장해서 동점일 때 최신 질문(ID 가 큰 질문)이 먼저 오도록 함
+    */
+    private static String toMember(long questionId) {
+        return String.format("%019d", questionId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.springboot.question.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.utils.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/*
+   특정 질문 조회 응답(QuestionResponseDto)을 질문 ID 기준으로 보관하는 메모리 캐시
+   질문은 자주 바뀌지 않기 때문에 매번 Question, Member, Answer 를 다시 조회하지 않도록 함
+   최대 개수와 저장 후 만료 시간으로 크기를 제한하고, 질문/답변/좋아요가 바뀌면 해당 질문을 바로 지움
+   적중/미스/제거 횟수는 /actuator/metrics 의 cache.gets, cache.evictions 로 확인할 수 있음
+*/
+@Component
+public class QuestionResponseCache {
+    private static final String CACHE_NAME = "questionResponse";
+
+    private final Cache<Long, QuestionResponseDto> cache;
+
+    public QuestionResponseCache(@Value("${question.cache.maximum-size}") long maximumSize,
+                                 @Value("${question.cache.expire-after-write-seconds}") long expireAfterWriteSeconds,
+                                 MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // 캐시에 있으면 바로 반환하고 없으면 loader 로 조회해서 저장 (같은 질문을 동시에 조회해도 DB 조회는 한번만 일어남)
+    public QuestionResponseDto get(long questionId, Function<Long, QuestionResponseDto> loader) {
+        return cache.get(questionId, loader);
+    }
+
+    // 질문 내용이나 상태가 바뀌었을 때 호출해서 다음 조회 때 DB 에서 다시 가져오도록 함
+    // 트랜잭션 안에서 호출되면 커밋 이후에 지워야 커밋 전의 값이 다시 캐시에 들어가지 않음
+    public void evict(long questionId) {
+        TransactionUtils.runAfterCommit(() -> cache.invalidate(questionId));
+    }
+
+    public void evictAll(Collection<Long> questionIds) {
+        TransactionUtils.runAfterCommit(() -> cache.invalidateAll(questionIds));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
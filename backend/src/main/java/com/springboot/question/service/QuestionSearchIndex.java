@@ -0,0 +1,232 @@
+package com.springboot.question.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.question.entity.Question;
+import com.springboot.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/*
+   질문 제목, 내용 검색을 위한 메모리 역색인 (단어 -> 질문 ID 목록)
+   LIKE '%검색어%' 는 인덱스를 탈 수 없어서 매번 테이블 전체를 읽어야 하기 때문에
+   애플리케이션 시작 시 한번 DB 에서 색인을 만들고, 이후에는 질문 생성/수정/삭제 때마다 해당 질문만 다시 색인함
+
+   한국어는 띄어쓰기 단위로 자르면 조사("질문이", "질문을") 때문에 검색이 안되므로
+   단어를 2글자씩 겹치게 자른 bigram 을 색인 단위로 사용함 ("회원가입" -> "회원", "원가", "가입")
+   한 글자 단어는 bigram 이 없어서 다른 단어 안에 있는 글자를 찾을 수 없으므로 색인과 검색어에서 모두 제외함
+   검색어의 bigram 을 모두 가지고 있는 질문만 결과에 포함하고 TF-IDF 점수가 높은 순으로 정렬 (제목에 있으면 가중치 부여)
+*/
+@Slf4j
+@Component
+public class QuestionSearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final String INDEX_SQL = "SELECT question_id, member_id, visibility, title, content FROM question " +
+            "WHERE question_status NOT IN ('QUESTION_DELETED', 'QUESTION_DEACTIVED')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+    // 시작 시 색인을 만드는 동안 들어온 변경, 색인이 완성된 뒤 순서대로 다시 적용함
+    private List<Runnable> pendingChanges;
+
+    public QuestionSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 애플리케이션 시작 시 목록에 노출되는 질문 전체를 색인
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // 새 색인은 별도로 만들고 마지막에 교체하기 때문에 만드는 동안에도 검색은 기존 색인으로 동작함
+        Index built = new Index();
+        jdbcTemplate.query(INDEX_SQL, resultSet -> {
+            built.put(resultSet.getLong("question_id"),
+                    resultSet.getLong("member_id"),
+                    Question.Visibility.QUESTION_SECRET.name().equals(resultSet.getString("visibility")),
+                    resultSet.getString("title"),
+                    resultSet.getString("content"));
+        });
+
+        lock.writeLock().lock();
+        try {
+            index = built;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("# Question search index built with {} questions", built.questions.size());
+    }
+
+    // 질문을 색인하거나 다시 색인 (DB 커밋 이후에 반영)
+    public void index(Question question) {
+        long questionId = question.getQuestionId();
+        long ownerId = question.getMember().getMemberId();
+        boolean secret = question.getVisibility() == Question.Visibility.QUESTION_SECRET;
+        String title = question.getTitle();
+        String content = question.getContent();
+
+        TransactionUtils.runAfterCommit(() -> change(() -> index.put(questionId, ownerId, secret, title, content)));
+    }
+
+    // 삭제되거나 비활성화된 질문을 색인에서 제거 (DB 커밋 이후에 반영)
+    public void remove(List<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> change(() -> questionIds.forEach(questionId -> index.delete(questionId))));
+    }
+
+    /*
+       검색어와 일치하는 질문 ID 를 점수가 높은 순으로 반환
+       canRead 는 비밀글을 볼 수 있는 사용자인지 판단하는 조건 (작성자 ID 를 받아서 판단)
+       검색어에 2글자 이상인 단어가 없으면 찾을 수 있는 질문이 없으므로 빈 결과 대신 잘못된 검색어로 응답함
+    */
+    public List<Long> search(String query, LongPredicate canRead) {
+        List<String> terms = new ArrayList<>(tokenize(query).keySet());
+        if (terms.isEmpty()) {
+            throw new BusinessLogicException(ExceptionCode.SEARCH_QUERY_TOO_SHORT);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> matchedPostings = new ArrayList<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = index.postings.get(term);
+                if (posting == null) {
+                    return List.of();
+                }
+                matchedPostings.add(posting);
+            }
+            // 가장 짧은 목록부터 확인해야 교집합을 구할 때 비교 횟수가 적음
+            matchedPostings.sort(Comparator.comparingInt(Map::size));
+
+            double totalCount = index.questions.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (Long questionId : matchedPostings.get(0).keySet()) {
+                IndexedQuestion question = index.questions.get(questionId);
+                if (question.secret && !canRead.test(question.ownerId)) {
+                    continue;
+                }
+                double score = 0;
+                for (Map<Long, Integer> posting : matchedPostings) {
+                    Integer frequency = posting.get(questionId);
+                    if (frequency == null) {
+                        score = -1;
+                        break;
+                    }
+                    score += frequency * Math.log(1 + totalCount / posting.size());
+                }
+                if (score >= 0) {
+                    scores.put(questionId, score);
+                }
+            }
+
+            // 점수가 같으면 최신 질문이 먼저 오도록 함
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 문자, 숫자가 아닌 문자를 기준으로 단어를 나누고 각 단어를 bigram 으로 자름 (한 글자 단어는 제외)
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int[] codePoints = word.codePoints().toArray();
+            for (int i = 0; i < codePoints.length - 1; i++) {
+                terms.merge(new String(codePoints, i, 2), 1, Integer::sum);
+            }
+        }
+        return terms;
+    }
+
+    private static class Index {
+        // 단어(bigram) -> (질문 ID -> 가중치가 적용된 등장 횟수)
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        // 질문 ID -> 색인된 질문 정보 (수정, 삭제 시 기존 단어를 지우기 위해 필요)
+        private final Map<Long, IndexedQuestion> questions = new HashMap<>();
+
+        private void put(long questionId, long ownerId, boolean secret, String title, String content) {
+            delete(questionId);
+
+            Map<String, Integer> terms = tokenize(content);
+            tokenize(title).forEach((term, count) -> terms.merge(term, count * TITLE_WEIGHT, Integer::sum));
+
+            terms.forEach((term, count) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(questionId, count));
+            questions.put(questionId, new IndexedQuestion(ownerId, secret, terms.keySet()));
+        }
+
+        private void delete(long questionId) {
+            IndexedQuestion question = questions.remove(questionId);
+            if (question == null) {
+                return;
+            }
+            for (String term : question.terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(questionId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static class IndexedQuestion {
+        private final long ownerId;
+        private final boolean secret;
+        private final List<String> terms;
+
+        private IndexedQuestion(long ownerId, boolean secret, Set<String> terms) {
+            this.ownerId = ownerId;
+            this.secret = secret;
+            this.terms = new ArrayList<>(terms);
+        }
+    }
+}
@@ -3,40 +3,87 @@ package com.springboot.question.service;
 import com.springboot.answer.entity.Answer;
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
+import com.springboot.like.service.LikeService;
+import com.springboot.like.service.RedisLikeStore;
 import com.springboot.member.entity.Member;
 import com.springboot.member.repository.MemberRepository;
 import com.springboot.member.service.MemberService;
+import com.springboot.question.dto.QuestionCursor;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.dto.QuestionVersion;
 import com.springboot.question.entity.Question;
 import com.springboot.question.repository.QuestionRepository;
 import com.springboot.utils.CheckValidator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional
 public class QuestionService {
+    // 목록 조회에서 제외해야 하는 질문 상태
+    private static final List<Question.QuestionStatus> HIDDEN_STATUSES = List.of(
+            Question.QuestionStatus.QUESTION_DELETED,
+            Question.QuestionStatus.QUESTION_DEACTIVED
+    );
+    // 로그인하지 않은 요청의 회원 ID, 존재하지 않는 회원 ID 라서 비밀글 작성자와 일치하지 않고 좋아요 여부도 조회하지 않음
+    public static final long ANONYMOUS_MEMBER_ID = 0;
     private final QuestionRepository questionRepository;
     private final StorageService storageService;
     private final MemberService memberService;
     private final CheckValidator checkValidator;
+    private final QuestionViewCountBuffer viewCountBuffer;
+    private final QuestionResponseCache questionResponseCache;
+    private final QuestionRanking questionRanking;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final LikeService likeService;
+    // like.storage=redis 일 때만 존재함
+    private final RedisLikeStore redisLikeStore;
+    private final int rankingPages;
     private final String defaultImagePath;
 
     public QuestionService(QuestionRepository questionRepository,
                            StorageService storageService,
                            MemberService memberService,
                            CheckValidator checkValidator,
+                           QuestionViewCountBuffer viewCountBuffer,
+                           QuestionResponseCache questionResponseCache,
+                           QuestionRanking questionRanking,
+                           QuestionSearchIndex questionSearchIndex,
+                           LikeService likeService,
+                           ObjectProvider<RedisLikeStore> redisLikeStore,
+                           @Value("${question.ranking.pages}") int rankingPages,
                            @Value("${file.default-image}") String defaultImagePath) {
         this.questionRepository = questionRepository;
         this.storageService = storageService;
         this.memberService = memberService;
         this.checkValidator = checkValidator;
+        this.viewCountBuffer = viewCountBuffer;
+        this.questionResponseCache = questionResponseCache;
+        this.questionRanking = questionRanking;
+        this.questionSearchIndex = questionSearchIndex;
+        this.likeService = likeService;
+        this.redisLikeStore = redisLikeStore.getIfAvailable();
+        this.rankingPages = rankingPages;
         this.defaultImagePath = defaultImagePath;
     }
 
@@ -59,7 +106,11 @@ public class QuestionService {
             }
         }
         memberService.findVerifiedMember(question.getMember().getMemberId());
-        return questionRepository.save(question);
+        Question savedQuestion = questionRepository.save(question);
+        questionRanking.add(savedQuestion.getQuestionId());
+        questionSearchIndex.index(savedQuestion);
+
+        return savedQuestion;
     }
 
     // 질문 수정 서비스 로직 구현
@@ -87,15 +138,27 @@ public class QuestionService {
                     }
                 });
 
-        return questionRepository.save(findQuestion);
+        Question savedQuestion = questionRepository.save(findQuestion);
+        questionRepository.increaseVersion(List.of(savedQuestion.getQuestionId()));
+        questionResponseCache.evict(savedQuestion.getQuestionId());
+        questionSearchIndex.index(savedQuestion);
+
+        return savedQuestion;
     }
 
     // 특정 질문 조회 서비스 로직 구현
-    public Question findQuestion(long questionId, long principalId) {
-        Question question = findVerifiedQuestion(questionId);
+    public QuestionResponseDto findQuestion(long questionId, long principalId) {
+        // 캐시에 없으면 질문, 작성자, 답변을 한번의 쿼리로 가져와서 캐시에 저장
+        // 캐시에서 꺼낸 경우에도 아래의 비밀글, 삭제 상태 검증은 항상 수행해야 함
+        // 조회수 flush 와 겹쳐서 조회수가 줄어들어 보이지 않도록 대기 중인 조회수까지 함께 읽음
+        QuestionResponseDto question = viewCountBuffer.readConsistently(() -> applyPendingCounts(List.of(
+                questionResponseCache.get(questionId, id ->
+                        questionRepository.findResponseById(id)
+                                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.QUESTION_NOT_FOUND)))))
+                .get(0));
 
         // 질문의 작성자 ID가 뭔지 알기 위해 가져옴
-        long ownerId = question.getMember().getMemberId();
+        long ownerId = question.getMemberId();
 
         // 비밀글인 경우에는 작성자와 관리자만 접근 가능하도록 검증
         if (question.getVisibility() == Question.Visibility.QUESTION_SECRET) {
@@ -103,27 +166,243 @@ public class QuestionService {
         }
 
         // 이미 삭제된 질문은 조회할 수 없음
-        verifyQuestionDeleteStatus(question);
+        if (question.getQuestionStatus() == Question.QuestionStatus.QUESTION_DELETED) {
+            throw new BusinessLogicException(ExceptionCode.QUESTION_NOT_FOUND);
+        }
+
+        // 조회수 증가, 매번 save 하지 않고 버퍼에 모아뒀다가 주기적으로 DB에 반영
+        viewCountBuffer.increment(questionId);
+
+        return applyLikedByMe(List.of(question), principalId).get(0);
+    }
+
+    // 요청한 회원이 좋아요를 눌렀는지를 목록 전체에 대해 한번에 조회해서 likedByMe 를 설정
+    // 캐시에서 꺼낸 DTO 를 바꾸면 다른 회원의 응답에도 보이므로 좋아요를 누른 질문만 복사본을 만들어서 설정함
+    public List<QuestionResponseDto> applyLikedByMe(List<QuestionResponseDto> questions, long principalId) {
+        if (principalId == ANONYMOUS_MEMBER_ID) {
+            return questions;
+        }
+        List<Long> questionIds = questions.stream()
+                .map(QuestionResponseDto::getQuestionId)
+                .collect(Collectors.toList());
+        Set<Long> likedIds = likeService.findLikedQuestionIds(questionIds, principalId);
+
+        return questions.stream()
+                .map(question -> likedIds.contains(question.getQuestionId())
+                        ? question.toBuilder().likedByMe(true).build()
+                        : question)
+                .collect(Collectors.toList());
+    }
 
-        // 조회수 증가
-        question.setViewCount(question.getViewCount() + 1);
+    /*
+       DB 에 아직 반영되지 않은 좋아요 수와 조회수를 목록 전체에 적용
+       Redis 에 좋아요를 저장하는 경우 DB 의 like_count 는 저널이 반영될 때까지 늦고 like_desc 랭킹은 바로 바뀌므로
+       목록의 순서와 보이는 좋아요 수가 맞도록 Redis 의 좋아요 수(SCARD)를 파이프라인 한번으로 조회해서 바꿈
+    */
+    public List<QuestionResponseDto> applyPendingCounts(List<QuestionResponseDto> questions) {
+        Map<Long, Integer> likeCounts = redisLikeStore == null || questions.isEmpty()
+                ? Map.of()
+                : redisLikeStore.findLikeCounts(questions.stream()
+                        .map(QuestionResponseDto::getQuestionId)
+                        .collect(Collectors.toList()));
 
-        return questionRepository.save(question);
+        return questions.stream()
+                .map(question -> {
+                    Integer likeCount = likeCounts.get(question.getQuestionId());
+                    return likeCount == null || likeCount == question.getLikeCount()
+                            ? question
+                            : question.toBuilder().likeCount(likeCount).build();
+                })
+                .map(this::applyPendingViewCount)
+                .collect(Collectors.toList());
+    }
+
+    // DB에 반영된 조회수에 아직 반영되지 않은 조회수를 더한 응답을 반환
+    private QuestionResponseDto applyPendingViewCount(QuestionResponseDto question) {
+        long pending = viewCountBuffer.getPendingCount(question.getQuestionId());
+        if (pending == 0) {
+            return question;
+        }
+        return question.toBuilder()
+                .viewCount(question.getViewCount() + (int) pending)
+                .build();
     }
 
     // 전체 질문 조회 서비스 로직 구현
-    public Page<Question> findQuestions(int page, int size, String sortBy) {
+    public Page<QuestionResponseDto> findQuestions(int page, int size, String sortBy) {
         if (page < 1) {
             throw new IllegalArgumentException("페이지 번호 1이상이여야 하는데용");
         }
 
         Sort sort = getSortBy(sortBy);
 
-        return questionRepository.findByQuestionStatusNotIn(Arrays.asList(
-                Question.QuestionStatus.QUESTION_DELETED,
-                Question.QuestionStatus.QUESTION_DEACTIVED
-        ), PageRequest.of(page-1, size, sort));
-        // 비밀글인 상태 SECRET 이여도 가져오긴해야됨 보이긴해야지, 비밀글입니다 로 보여야지
+        // DB 의 조회수와 대기 중인 조회수를 조회수 flush 와 겹치지 않게 함께 읽음
+        return viewCountBuffer.readConsistently(() -> {
+            // 좋아요 많은 순, 조회수 많은 순의 앞쪽 페이지는 Redis 랭킹에서 ID 만 가져와서 조회
+            Optional<Page<Long>> rankedIds = findRankedQuestionIds(page, size, sortBy, sort);
+            if (rankedIds.isPresent()) {
+                Page<Long> ids = rankedIds.get();
+                return new PageImpl<>(applyPendingCounts(findResponsesInOrder(ids.getContent())),
+                        ids.getPageable(), ids.getTotalElements());
+            }
+
+            // 작성자 이름과 답변까지 한번에 조인해서 가져옴 (목록 조회 쿼리 1번 + count 쿼리 1번)
+            Page<QuestionResponseDto> questionPage =
+                    questionRepository.findResponsesByQuestionStatusNotIn(HIDDEN_STATUSES, PageRequest.of(page-1, size, sort));
+            return new PageImpl<>(applyPendingCounts(questionPage.getContent()),
+                    questionPage.getPageable(), questionPage.getTotalElements());
+            // 비밀글인 상태 SECRET 이여도 가져오긴해야됨 보이긴해야지, 비밀글입니다 로 보여야지
+        });
+    }
+
+    /*
+       DB 에서 읽은 응답과 대기 중인 조회수를 조회수 flush 와 겹치지 않게 함께 읽음
+       DB 조회와 보정(applyPendingCounts)을 따로 하는 커서 기반 조회처럼 reader 안에서 둘 다 해야 함
+    */
+    public <T> T readWithPendingCounts(Supplier<T> reader) {
+        return viewCountBuffer.readConsistently(reader);
+    }
+
+    /*
+       전체 질문 조회 응답의 ETag 를 본문을 만들기 전에 계산
+       같은 조건으로 질문 ID 와 version 만 조회해서 만들기 때문에 변경이 없으면 작성자, 답변을 조인한 조회와 DTO 변환 없이 304 를 반환할 수 있음
+       좋아요, 수정, 답변은 version 을 올리므로 version 만으로 바뀐 것을 알 수 있고, likedByMe 가 회원마다 다르므로 회원 ID 도 포함함
+    */
+    @Transactional(readOnly = true)
+    public String getQuestionsETag(int page, int size, String sortBy, long principalId) {
+        if (page < 1) {
+            throw new IllegalArgumentException("페이지 번호 1이상이여야 하는데용");
+        }
+
+        Sort sort = getSortBy(sortBy);
+        List<QuestionVersion> versions;
+        long total;
+
+        Optional<Page<Long>> rankedIds = findRankedQuestionIds(page, size, sortBy, sort);
+        if (rankedIds.isPresent()) {
+            List<Long> ids = rankedIds.get().getContent();
+            Map<Long, QuestionVersion> versionMap = new HashMap<>();
+            if (!ids.isEmpty()) {
+                questionRepository.findVersionsByIdIn(ids, HIDDEN_STATUSES)
+                        .forEach(version -> versionMap.put(version.getQuestionId(), version));
+            }
+            versions = ids.stream()
+                    .map(versionMap::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            total = rankedIds.get().getTotalElements();
+        } else {
+            Page<QuestionVersion> versionPage =
+                    questionRepository.findVersionsByQuestionStatusNotIn(HIDDEN_STATUSES, PageRequest.of(page - 1, size, sort));
+            versions = versionPage.getContent();
+            total = versionPage.getTotalElements();
+        }
+
+        StringBuilder source = questionsETagSource(page - 1, size, sortBy, total, principalId);
+        for (QuestionVersion version : versions) {
+            long viewCount = version.getViewCount() + viewCountBuffer.getPendingCount(version.getQuestionId());
+            appendQuestionsETagSource(source, sortBy, version.getQuestionId(), version.getVersion(), viewCount);
+        }
+        return toETag(source);
+    }
+
+    /*
+       본문으로 만든 조회 결과(questionPage, 응답 목록)로 전체 질문 조회 응답의 ETag 를 계산
+       사전 확인 이후 본문을 조회하기 전에 질문이 바뀌었을 수 있으므로 200 응답에는 실제로 보낸 본문의 ETag 를 붙임
+       사전 확인과 같은 값으로 만들기 때문에 그 사이에 바뀐 것이 없으면 두 ETag 가 같음
+    */
+    public String getQuestionsETag(Page<QuestionResponseDto> questionPage, List<QuestionResponseDto> responses,
+                                   String sortBy, long principalId) {
+        StringBuilder source = questionsETagSource(questionPage.getNumber(), questionPage.getSize(), sortBy,
+                questionPage.getTotalElements(), principalId);
+        for (QuestionResponseDto response : responses) {
+            appendQuestionsETagSource(source, sortBy, response.getQuestionId(), response.getVersion(),
+                    response.getViewCount());
+        }
+        return toETag(source);
+    }
+
+    private static StringBuilder questionsETagSource(int pageNumber, int size, String sortBy, long total, long principalId) {
+        return new StringBuilder()
+                .append(principalId).append(':')
+                .append(pageNumber).append(':').append(size).append(':').append(sortBy).append(':').append(total);
+    }
+
+    // 조회수 정렬은 조회수가 바뀌면 순서가 바뀌므로 조회수도 포함하고, 다른 정렬은 조회할 때마다 바뀌는 조회수를 제외함
+    private static void appendQuestionsETagSource(StringBuilder source, String sortBy, long questionId, long version,
+                                                  long viewCount) {
+        source.append(':').append(questionId).append('-').append(version);
+        if (sortBy.startsWith("view_")) {
+            source.append('-').append(viewCount);
+        }
+    }
+
+    private static String toETag(StringBuilder source) {
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // 특정 질문 조회 응답의 ETag, 질문 ID 와 version 으로 만듦 (조회수는 조회할 때마다 바뀌므로 포함하지 않음)
+    public String getQuestionETag(QuestionResponseDto question) {
+        // Redis 의 좋아요 수는 version 에 아직 반영되지 않았을 수 있으므로 좋아요 수도 포함
+        return "\"" + question.getQuestionId() + "-" + question.getVersion() + "-" + question.getLikeCount()
+                + (question.isLikedByMe() ? "-L" : "") + "\"";
+    }
+
+    // 질문 검색 서비스 로직 구현
+    // 역색인에서 점수 순으로 질문 ID 를 찾은 뒤 해당 페이지의 질문만 한번에 조회함
+    public Page<QuestionResponseDto> searchQuestions(String query, int page, int size, long principalId) {
+        if (page < 1) {
+            throw new IllegalArgumentException("페이지 번호 1이상이여야 하는데용");
+        }
+
+        // 비밀글은 작성자 본인과 관리자에게만 검색되어야 함
+        boolean isAdmin = checkValidator.isAdmin();
+        List<Long> questionIds = questionSearchIndex.search(query, ownerId -> isAdmin || ownerId == principalId);
+
+        int fromIndex = (int) Math.min((long) (page - 1) * size, questionIds.size());
+        int toIndex = Math.min(fromIndex + size, questionIds.size());
+        List<QuestionResponseDto> content = applyLikedByMe(viewCountBuffer.readConsistently(() ->
+                applyPendingCounts(findResponsesInOrder(questionIds.subList(fromIndex, toIndex)))), principalId);
+
+        return new PageImpl<>(content, PageRequest.of(page - 1, size), questionIds.size());
+    }
+
+    // 커서 기반 전체 질문 조회 서비스 로직 구현
+    // OFFSET 으로 앞의 행을 건너뛰지 않고 마지막으로 본 위치 이후부터 가져오기 때문에 뒤쪽 페이지도 느려지지 않음
+    // 다음 커서는 DB에 저장된 정렬 값으로 만들어야 하므로 좋아요 수, 조회수 보정(applyPendingCounts)은 커서를 만든 뒤에 적용해야 함
+    public Slice<QuestionResponseDto> findQuestionsByCursor(String cursor, int size, String sortBy) {
+        if (size < 1) {
+            throw new IllegalArgumentException("페이지 크기는 1 이상이여야 하는데용");
+        }
+
+        QuestionCursor questionCursor = cursor == null || cursor.isBlank()
+                ? QuestionCursor.first(sortBy)
+                : QuestionCursor.decode(cursor, sortBy);
+
+        // 정렬 값이 같은 질문끼리도 순서가 항상 같아야 커서가 의미가 있으므로 questionId 를 보조 정렬 기준으로 추가
+        Pageable pageable = PageRequest.of(0, size, getKeysetSortBy(sortBy));
+        long questionId = questionCursor.getQuestionId();
+        int sortValue = questionCursor.getSortValue();
+
+        switch (sortBy) {
+            case "latest":
+                return questionRepository.findByCursorIdBefore(HIDDEN_STATUSES, questionId, pageable);
+            case "oldest":
+                return questionRepository.findByCursorIdAfter(HIDDEN_STATUSES, questionId, pageable);
+            case "like_desc":
+                return questionRepository.findByCursorLikeCountBefore(HIDDEN_STATUSES, sortValue, questionId, pageable);
+            case "like_asc":
+                return questionRepository.findByCursorLikeCountAfter(HIDDEN_STATUSES, sortValue, questionId, pageable);
+            case "view_desc":
+                return questionRepository.findByCursorViewCountBefore(HIDDEN_STATUSES, sortValue, questionId, pageable);
+            case "view_asc":
+                return questionRepository.findByCursorViewCountAfter(HIDDEN_STATUSES, sortValue, questionId, pageable);
+            case "trending":
+                // 인기 점수는 시간에 따라 계속 바뀌므로 커서를 만들 수 없음, 페이지 번호로 조회해야 함
+                throw new IllegalArgumentException("인기순은 페이지 번호로만 조회할 수 있습니다.");
+            default:
+                throw new IllegalArgumentException("지원하지 않는 정렬 기준입니다.");
+        }
     }
 
     // 질문 삭제 서비스 로직 구현
@@ -145,6 +424,65 @@ public class QuestionService {
         question.setQuestionStatus(Question.QuestionStatus.QUESTION_DELETED);
 
         questionRepository.save(question);
+        questionRepository.increaseVersion(List.of(questionId));
+        questionResponseCache.evict(questionId);
+        questionRanking.remove(List.of(questionId));
+        questionSearchIndex.remove(List.of(questionId));
+        if (redisLikeStore != null) {
+            redisLikeStore.remove(List.of(questionId));
+        }
+    }
+
+    /*
+       랭킹(Redis Sorted Set)으로 like_desc, view_desc 정렬의 앞쪽 페이지에 해당하는 질문 ID 를 조회
+       ZREVRANGE 로 해당 페이지의 질문 ID 를 가져오고 호출한 쪽에서 그 ID 들만 한번에 조회하기 때문에 전체 정렬이 필요 없음
+       다른 정렬 기준이거나, 설정한 페이지 수를 넘어가거나, Redis 를 사용할 수 없으면 empty 를 반환해서 DB 정렬을 사용
+    */
+    private Optional<Page<Long>> findRankedQuestionIds(int page, int size, String sortBy, Sort sort) {
+        String rankingKey;
+        if (sortBy.equals("like_desc")) {
+            rankingKey = QuestionRanking.LIKE_RANKING_KEY;
+        } else if (sortBy.equals("view_desc")) {
+            rankingKey = QuestionRanking.VIEW_RANKING_KEY;
+        } else if (sortBy.equals("trending")) {
+            // 인기 점수는 DB 에 없으므로 모든 페이지를 Redis 랭킹에서 조회함
+            rankingKey = QuestionRanking.TRENDING_RANKING_KEY;
+        } else {
+            return Optional.empty();
+        }
+        if (page > rankingPages && !sortBy.equals("trending")) {
+            return Optional.empty();
+        }
+
+        Optional<Long> total = questionRanking.count(rankingKey);
+        Optional<List<Long>> questionIds = total.flatMap(count -> questionRanking.findTopQuestionIds(rankingKey, page, size));
+        if (questionIds.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new PageImpl<>(questionIds.get(), PageRequest.of(page - 1, size, sort), total.get()));
+    }
+
+    // 질문 ID 목록의 응답을 한번에 조회해서 ID 목록 순서대로 정렬, 삭제되었거나 비활성화된 질문은 제외됨
+    private List<QuestionResponseDto> findResponsesInOrder(List<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, QuestionResponseDto> questions = new HashMap<>();
+        questionRepository.findResponsesByIdIn(questionIds, HIDDEN_STATUSES)
+                .forEach(question -> questions.put(question.getQuestionId(), question));
+
+        return questionIds.stream()
+                .map(questions::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // 관리자가 Redis 랭킹을 DB 기준으로 다시 만드는 기능
+    public long rebuildRanking() {
+        checkValidator.checkAdmin();
+        return questionRanking.rebuild();
     }
 
     // 질문이 DB에 존재하는지 검증 후 가져온 질문을 반환하는 메서드
@@ -173,16 +511,29 @@ public class QuestionService {
                 return Sort.by(Sort.Direction.DESC, "questionId");
             case "oldest": // 오래된 순
                 return Sort.by(Sort.Direction.ASC, "questionId");
+            // 같은 점수는 Redis 랭킹(ZREVRANGE)처럼 questionId 가 큰 순으로 정렬해야 페이지가 Redis 와 DB 중 어디서 조회되든 순서가 같음
             case "like_desc": // 좋아요 많은 순
-                return Sort.by(Sort.Direction.DESC, "likeCount");
+                return Sort.by(Sort.Order.desc("likeCount"), Sort.Order.desc("questionId"));
             case "like_asc": // 좋아요 적은 순
                 return Sort.by(Sort.Direction.ASC, "likeCount");
             case "view_desc": // 조회수 많은 순
-                return Sort.by(Sort.Direction.DESC, "viewCount");
+                return Sort.by(Sort.Order.desc("viewCount"), Sort.Order.desc("questionId"));
             case "view_asc": // 조회수 적은 순
                 return Sort.by(Sort.Direction.ASC, "viewCount");
+            case "trending": // 인기순 (Redis 랭킹을 사용할 수 없으면 최신순으로 대체)
+                return Sort.by(Sort.Direction.DESC, "questionId");
             default:
                 throw new IllegalArgumentException("지원하지 않는 정렬 기준입니다.");
         }
     }
+
+    // 커서 기반 조회용 정렬, questionId 정렬이 없는 기준에는 같은 방향의 questionId 정렬을 덧붙임
+    private Sort getKeysetSortBy(String sortBy) {
+        Sort sort = getSortBy(sortBy);
+        if (sort.getOrderFor("questionId") != null) {
+            return sort;
+        }
+        Sort.Direction direction = sortBy.endsWith("_asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return sort.and(Sort.by(direction, "questionId"));
+    }
 }
@@ -0,0 +1,163 @@
+package com.springboot.question.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/*
+   질문 조회수를 메모리에 모아두었다가 주기적으로 한번에 DB에 반영하는 클래스
+   조회할 때마다 Question 을 save 하면 인기 있는 질문 한 행이 계속 다시 쓰이기 때문에
+   질문별 LongAdder(내부적으로 스트라이핑 되어있어 경합이 적음)에 조회수를 누적하고
+   flush 시점에 UPDATE question SET view_count = view_count + ? 를 배치로 실행함
+
+   응답의 조회수는 DB(또는 캐시)의 view_count + 대기 중인 조회수이므로
+   flush 가 DB 에 반영하고, 캐시를 지우고, 대기 중인 조회수를 차감하는 사이에 읽으면 같은 조회수를 두번 더하거나 빼서 값이 줄어들 수 있음
+   flush 는 이 구간을 쓰기 잠금으로 감싸고, 조회는 readConsistently 로 낙관적 읽기를 해서 겹쳤을 때만 다시 읽음
+*/
+@Slf4j
+@Component
+public class QuestionViewCountBuffer {
+    private static final String FLUSH_SQL =
+            "UPDATE question SET view_count = view_count + ? WHERE question_id = ?";
+
+    // 질문 ID -> 아직 DB에 반영되지 않은 조회수
+    private final Map<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+    // flush 의 DB 반영부터 대기 중인 조회수 차감까지를 감싸는 잠금
+    private final StampedLock flushLock = new StampedLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionResponseCache questionResponseCache;
+    private final QuestionRanking questionRanking;
+
+    public QuestionViewCountBuffer(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   QuestionResponseCache questionResponseCache,
+                                   QuestionRanking questionRanking) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.questionResponseCache = questionResponseCache;
+        this.questionRanking = questionRanking;
+    }
+
+    // 조회수 1 증가 (DB 에는 다음 flush 때 반영됨)
+    public void increment(long questionId) {
+        add(questionId, 1);
+    }
+
+    /*
+       DB(또는 캐시)의 조회수와 대기 중인 조회수를 함께 읽는 작업을 flush 와 겹치지 않게 실행
+       잠금 없이 먼저 읽고 그 사이에 flush 가 진행되었으면 flush 가 끝난 뒤에 다시 읽음 (reader 는 여러번 실행될 수 있음)
+    */
+    public <T> T readConsistently(Supplier<T> reader) {
+        long stamp = flushLock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = reader.get();
+            if (flushLock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = flushLock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            flushLock.unlockRead(stamp);
+        }
+    }
+
+    // 아직 DB에 반영되지 않은 조회수, 응답의 viewCount 는 DB 값 + 이 값으로 내려줘야 flush 전에도 줄어들지 않음
+    public long getPendingCount(long questionId) {
+        LongAdder adder = pendingCounts.get(questionId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${question.view-count.flush-interval-ms}")
+    public synchronized void flush() {
+        Map<LongAdder, Long> flushTargets = new LinkedHashMap<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        Map<Long, Long> flushedCounts = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, LongAdder> entry : pendingCounts.entrySet()) {
+            long delta = entry.getValue().sum();
+            if (delta == 0) {
+                // 한 주기 동안 조회가 없던 질문은 맵에서 제거해서 메모리가 계속 늘어나지 않게 함
+                evictIdle(entry.getKey(), entry.getValue());
+                continue;
+            }
+            flushTargets.put(entry.getValue(), delta);
+            batchArgs.add(new Object[]{delta, entry.getKey()});
+            flushedCounts.put(entry.getKey(), delta);
+        }
+
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        long stamp = flushLock.writeLock();
+        try {
+            try {
+                // 배치 전체를 하나의 트랜잭션으로 묶어야 일부만 반영된 채로 재시도되는 일이 없음
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+            } catch (DataAccessException e) {
+                // 반영에 실패하면 누적된 값을 그대로 두고 다음 flush 때 다시 시도
+                log.error("# Failed to flush question view counts", e);
+                return;
+            }
+
+            // 캐시된 응답은 flush 이전의 view_count 를 가지고 있으므로 차감하기 전에 지워서 다음 조회 때 새 값을 읽도록 함
+            questionResponseCache.evictAll(flushedCounts.keySet());
+
+            // DB에 반영한 만큼만 차감, flush 도중에 들어온 조회수는 그대로 남아있음
+            flushTargets.forEach((adder, delta) -> adder.add(-delta));
+        } finally {
+            flushLock.unlockWrite(stamp);
+        }
+
+        // 조회수 많은 순 랭킹(Redis)에도 같은 값을 반영
+        questionRanking.incrementViewCounts(flushedCounts);
+    }
+
+    // 애플리케이션 종료 시 남아있는 조회수를 모두 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void evictIdle(Long questionId, LongAdder adder) {
+        if (pendingCounts.remove(questionId, adder)) {
+            // 제거하는 사이에 들어온 조회수가 있다면 다시 넣어줌
+            long late = adder.sumThenReset();
+            if (late != 0) {
+                add(questionId, late);
+            }
+        }
+    }
+
+    /*
+       맵에서 꺼낸 LongAdder 에 더한 뒤, 그 사이에 evictIdle 이 제거한 LongAdder 였다면 남은 값을 맵에 있는 LongAdder 로 옮김
+       제거한 쪽(evictIdle)과 더한 쪽이 모두 sumThenReset 으로 가져가므로 같은 조회수를 두번 옮기거나 잃어버리지 않음
+    */
+    private void add(long questionId, long delta) {
+        LongAdder adder = pendingCounts.computeIfAbsent(questionId, id -> new LongAdder());
+        adder.add(delta);
+        if (pendingCounts.get(questionId) != adder) {
+            long moved = adder.sumThenReset();
+            if (moved != 0) {
+                add(questionId, moved);
+            }
+        }
+    }
+}
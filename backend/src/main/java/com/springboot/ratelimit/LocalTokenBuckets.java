@@ -0,0 +1,71 @@
+package com.springboot.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+   서버 메모리에 저장하는 토큰 버킷 (rate-limit.storage=memory 이거나 Redis 를 사용할 수 없을 때)
+   계산 방식은 RateLimiter 의 Lua 스크립트와 같고, 여러 버킷의 확인과 차감을 한번에 처리하기 위해 전체를 하나의 락으로 감쌈
+   IP 마다 버킷이 생기므로 maximum-size 개까지만 저장하고, 가득 채워지는 시간 동안 사용하지 않은 버킷은 처음 상태와 같으므로 지움
+*/
+class LocalTokenBuckets {
+    private final Cache<String, State> buckets;
+
+    LocalTokenBuckets(long maximumSize) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, State>() {
+                    @Override
+                    public long expireAfterCreate(String key, State state, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(state.periodMillis);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, State state, long currentTime, long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(state.periodMillis);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, State state, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    synchronized RateLimitResult acquire(List<RateLimiter.Bucket> requested, long now) {
+        double[] tokens = new double[requested.size()];
+        boolean allowed = true;
+        for (int i = 0; i < requested.size(); i++) {
+            RateLimiter.Bucket bucket = requested.get(i);
+            State state = buckets.getIfPresent(bucket.getKey());
+            tokens[i] = state == null ? bucket.getCapacity() : bucket.refill(state.tokens, now - state.updatedAt);
+            if (tokens[i] < 1) {
+                allowed = false;
+            }
+        }
+        if (allowed) {
+            for (int i = 0; i < requested.size(); i++) {
+                tokens[i] -= 1;
+                buckets.put(requested.get(i).getKey(), new State(tokens[i], now, requested.get(i).getPeriodMillis()));
+            }
+        }
+        return RateLimitResult.of(allowed, requested, tokens);
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long updatedAt;
+        private final long periodMillis;
+
+        private State(double tokens, long updatedAt, long periodMillis) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+            this.periodMillis = periodMillis;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.springboot.ratelimit;
+
+import com.springboot.auth.utils.ErrorResponder;
+import com.springboot.auth.utils.IdAndEmailPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+   RateLimitRoute 에 등록된 API 의 요청 수를 제한하는 필터
+   회원 ID 를 알아야 하므로 JwtVerificationFilter 다음에 실행되고, 컨트롤러(파일 저장, DB)까지 가기 전에 거절함
+
+   제한하는 API 의 응답에는 X-RateLimit-Limit, X-RateLimit-Remaining, X-RateLimit-Reset(초) 헤더를 넣고,
+   한도를 넘으면 429 와 다시 요청할 수 있을 때까지의 시간(초)을 Retry-After 헤더로 보냄
+   IP 는 request.getRemoteAddr() 를 사용하므로 프록시 뒤에서는 server.forward-headers-strategy 설정이 필요함
+*/
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter rateLimiter;
+    private final Map<RateLimitRoute, RequestMatcher> matchers = new EnumMap<>(RateLimitRoute.class);
+
+    public RateLimitFilter(RateLimiter rateLimiter, HandlerMappingIntrospector introspector) {
+        this.rateLimiter = rateLimiter;
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            matchers.put(route, route.requestMatcher(introspector));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // 제한하지 않는 API 면 그대로 진행
+        RateLimitRoute route = match(request);
+        RateLimitResult result = route == null ? null : rateLimiter.tryAcquire(route, currentMemberId(), request.getRemoteAddr());
+        if (result != null) {
+            response.setHeader("X-RateLimit-Limit", String.valueOf(result.getLimit()));
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(result.getRemaining()));
+            response.setHeader("X-RateLimit-Reset", String.valueOf(result.getResetSeconds()));
+            if (!result.isAllowed()) {
+                response.setHeader("Retry-After", String.valueOf(result.getRetryAfterSeconds()));
+                ErrorResponder.sendErrorResponse(response, HttpStatus.TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // 요청에 해당하는 API, 제한하지 않는 API 면 null
+    private RateLimitRoute match(HttpServletRequest request) {
+        for (Map.Entry<RateLimitRoute, RequestMatcher> entry : matchers.entrySet()) {
+            if (entry.getValue().matches(request)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    // 로그인하지 않은 요청이면 null
+    private Long currentMemberId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof IdAndEmailPrincipal) {
+            return ((IdAndEmailPrincipal) authentication.getPrincipal()).getMemberId();
+        }
+        return null;
+    }
+}
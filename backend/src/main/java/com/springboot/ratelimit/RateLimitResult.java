@@ -0,0 +1,48 @@
+package com.springboot.ratelimit;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 요청 수 제한 결과, 헤더에는 남은 토큰이 가장 적은(가장 먼저 제한에 걸리는) 버킷의 값을 내려줌
+@Getter
+public class RateLimitResult {
+    private final boolean allowed;
+    // 버킷 크기 (X-RateLimit-Limit)
+    private final long limit;
+    // 남은 요청 수 (X-RateLimit-Remaining)
+    private final long remaining;
+    // 버킷이 가득 찰 때까지 남은 시간(초) (X-RateLimit-Reset)
+    private final long resetSeconds;
+    // 거절된 경우 다시 요청할 수 있을 때까지 남은 시간(초) (Retry-After)
+    private final long retryAfterSeconds;
+
+    private RateLimitResult(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+        this.allowed = allowed;
+        this.limit = limit;
+        this.remaining = remaining;
+        this.resetSeconds = resetSeconds;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // tokens 는 버킷마다 요청을 처리한 뒤(거절된 경우 처리하기 전) 남은 토큰 수
+    static RateLimitResult of(boolean allowed, List<RateLimiter.Bucket> buckets, double[] tokens) {
+        int tightest = 0;
+        long retryAfterMillis = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            if (tokens[i] < tokens[tightest]) {
+                tightest = i;
+            }
+            if (!allowed && tokens[i] < 1) {
+                retryAfterMillis = Math.max(retryAfterMillis, buckets.get(i).millisUntil(tokens[i], 1));
+            }
+        }
+        RateLimiter.Bucket bucket = buckets.get(tightest);
+        return new RateLimitResult(allowed, bucket.getCapacity(), (long) Math.floor(tokens[tightest]),
+                toSeconds(bucket.millisUntil(tokens[tightest], bucket.getCapacity())), toSeconds(retryAfterMillis));
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+}
@@ -0,0 +1,43 @@
+package com.springboot.ratelimit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+/*
+   요청 수를 제한하는 API 목록
+   한도는 application.yml 의 rate-limit.<key> 아래에 API 별로 설정함
+*/
+public enum RateLimitRoute {
+    // 이미지 업로드가 포함될 수 있어서 디스크와 DB 를 가장 많이 사용함
+    QUESTION_CREATE("question-create", HttpMethod.POST, "/v1/questions"),
+    // 한번에 최대 10000 개의 질문을 저장함
+    QUESTION_IMPORT("question-import", HttpMethod.POST, "/v1/questions/import"),
+    LIKE_TOGGLE("like-toggle", HttpMethod.POST, "/v1/questions/*/like"),
+    MEMBER_CREATE("member-create", HttpMethod.POST, "/v1/members");
+
+    private final String key;
+    private final HttpMethod method;
+    private final String pattern;
+
+    RateLimitRoute(String key, HttpMethod method, String pattern) {
+        this.key = key;
+        this.method = method;
+        this.pattern = pattern;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /*
+       컨트롤러를 찾을 때와 같은 규칙으로 요청을 비교하는 matcher
+       요청 URI 를 그대로 비교하면 /v1/questions/ 처럼 끝에 / 를 붙이거나 인코딩한 경로는 같은 컨트롤러로 가는데도 제한을 피할 수 있음
+    */
+    public RequestMatcher requestMatcher(HandlerMappingIntrospector introspector) {
+        MvcRequestMatcher matcher = new MvcRequestMatcher(introspector, pattern);
+        matcher.setMethod(method);
+        return matcher;
+    }
+}
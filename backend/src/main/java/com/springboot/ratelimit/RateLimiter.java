@@ -0,0 +1,200 @@
+package com.springboot.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+   API 별 요청 수를 토큰 버킷으로 제한하는 클래스
+   버킷마다 capacity 개의 토큰이 있고 요청마다 하나씩 사용하며, 토큰은 refill-seconds 동안 capacity 개가 일정하게 다시 채워짐
+   (짧은 시간에 capacity 개까지는 몰아서 보낼 수 있고, 평균적으로는 refill-seconds 당 capacity 개)
+
+   로그인한 요청은 회원 ID 버킷과 IP 버킷을 모두 확인하고, 로그인하지 않은 요청은 IP 버킷만 확인함
+   rate-limit.storage 가 redis 면 모든 서버가 Redis 의 같은 버킷을 사용하고, 여러 버킷의 확인과 차감을 Lua 스크립트 한번으로 처리함
+   Redis 에 실패하면 redis-retry-ms 동안은 Redis 를 호출하지 않고 서버 메모리의 버킷(LocalTokenBuckets)으로 제한함 (서버마다 따로 제한됨)
+
+   허용/거절 횟수는 ratelimit.requests{route, outcome} 로 확인할 수 있음
+*/
+@Slf4j
+@Component
+public class RateLimiter {
+    // 한 요청의 버킷들을 스크립트 하나에서 사용하므로 API 별 해시 태그를 붙여서 클러스터에서도 같은 슬롯에 있도록 함
+    private static final String KEY_PREFIX = "{ratelimit:";
+
+    /*
+       KEYS = 버킷들, ARGV[1] = 현재 시각(ms), ARGV[2i], ARGV[2i+1] = i 번째 버킷의 크기, 가득 채워지는 시간(ms)
+       버킷마다 마지막으로 계산한 토큰 수(tokens)와 시각(ts)을 해시에 저장하고, 지난 시간만큼 채운 뒤 모든 버킷에 토큰이 있으면 하나씩 차감함
+       반환값은 {허용 여부(1/0), 버킷별 남은 토큰 수 * 1000}, 거절하면 아무것도 저장하지 않음
+       버킷은 비어있어도 가득 채워지는 시간이 지나면 처음 상태와 같으므로 그 시간 뒤에 만료되게 함
+    */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) " +
+            "local allowed = 1 " +
+            "local tokens = {} " +
+            "for i = 1, #KEYS do " +
+            "  local capacity = tonumber(ARGV[i * 2]) " +
+            "  local period = tonumber(ARGV[i * 2 + 1]) " +
+            "  local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts') " +
+            "  local current = tonumber(bucket[1]) or capacity " +
+            "  local elapsed = math.max(0, now - (tonumber(bucket[2]) or now)) " +
+            "  tokens[i] = math.min(capacity, current + elapsed * capacity / period) " +
+            "  if tokens[i] < 1 then allowed = 0 end " +
+            "end " +
+            "local result = {allowed} " +
+            "for i = 1, #KEYS do " +
+            "  if allowed == 1 then " +
+            "    tokens[i] = tokens[i] - 1 " +
+            "    redis.call('HMSET', KEYS[i], 'tokens', tostring(tokens[i]), 'ts', ARGV[1]) " +
+            "    redis.call('PEXPIRE', KEYS[i], ARGV[i * 2 + 1]) " +
+            "  end " +
+            "  table.insert(result, math.floor(tokens[i] * 1000)) " +
+            "end " +
+            "return result", List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final LocalTokenBuckets localTokenBuckets;
+    private final Map<RateLimitRoute, Limit> limits = new EnumMap<>(RateLimitRoute.class);
+    private final boolean useRedis;
+    private final long redisRetryMillis;
+    // 요청마다 레지스트리에서 찾지 않도록 API 별 허용/거절 카운터를 미리 등록함
+    private final Map<RateLimitRoute, Counter> allowedCounters = new EnumMap<>(RateLimitRoute.class);
+    private final Map<RateLimitRoute, Counter> limitedCounters = new EnumMap<>(RateLimitRoute.class);
+
+    // 이 시각까지는 Redis 를 호출하지 않고 서버 메모리의 버킷을 사용함
+    private volatile long redisRetryAt;
+
+    public RateLimiter(RedisTemplate<String, Object> redisTemplate,
+                       Environment environment,
+                       @Value("${rate-limit.storage}") String storage,
+                       @Value("${rate-limit.redis-retry-ms}") long redisRetryMillis,
+                       @Value("${rate-limit.local-maximum-size}") long localMaximumSize,
+                       MeterRegistry meterRegistry) {
+        if (!storage.equals("redis") && !storage.equals("memory")) {
+            throw new IllegalArgumentException("rate-limit.storage 는 redis, memory 중 하나여야 합니다.");
+        }
+        this.redisTemplate = redisTemplate;
+        this.localTokenBuckets = new LocalTokenBuckets(localMaximumSize);
+        this.useRedis = storage.equals("redis");
+        this.redisRetryMillis = redisRetryMillis;
+
+        // API 마다 설정 키가 같은 모양이라 Environment 에서 직접 읽음 (rate-limit.<key>.member, ip, refill-seconds)
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            String prefix = "rate-limit." + route.getKey() + ".";
+            limits.put(route, new Limit(
+                    environment.getRequiredProperty(prefix + "member", Integer.class),
+                    environment.getRequiredProperty(prefix + "ip", Integer.class),
+                    environment.getRequiredProperty(prefix + "refill-seconds", Long.class) * 1000));
+            allowedCounters.put(route, requestCounter(route, "allowed", meterRegistry));
+            limitedCounters.put(route, requestCounter(route, "limited", meterRegistry));
+        }
+    }
+
+    // 요청 하나를 처리할 수 있는지 확인하고 토큰을 차감함, 한도가 설정되지 않은 API 면 null (memberId 는 로그인하지 않았으면 null)
+    public RateLimitResult tryAcquire(RateLimitRoute route, Long memberId, String ip) {
+        Limit limit = limits.get(route);
+        List<Bucket> buckets = new ArrayList<>();
+        if (memberId != null && limit.memberCapacity > 0) {
+            buckets.add(new Bucket(KEY_PREFIX + route.getKey() + "}:member:" + memberId, limit.memberCapacity, limit.periodMillis));
+        }
+        if (limit.ipCapacity > 0) {
+            buckets.add(new Bucket(KEY_PREFIX + route.getKey() + "}:ip:" + ip, limit.ipCapacity, limit.periodMillis));
+        }
+        if (buckets.isEmpty()) {
+            return null;
+        }
+
+        RateLimitResult result = acquire(buckets, System.currentTimeMillis());
+        (result.isAllowed() ? allowedCounters : limitedCounters).get(route).increment();
+        return result;
+    }
+
+    private RateLimitResult acquire(List<Bucket> buckets, long now) {
+        if (useRedis && now >= redisRetryAt) {
+            try {
+                return acquireInRedis(buckets, now);
+            } catch (DataAccessException e) {
+                redisRetryAt = now + redisRetryMillis;
+                log.warn("# Rate limiter falls back to local buckets for {} ms: {}", redisRetryMillis, e.getMessage());
+            }
+        }
+        return localTokenBuckets.acquire(buckets, now);
+    }
+
+    private RateLimitResult acquireInRedis(List<Bucket> buckets, long now) {
+        List<String> keys = new ArrayList<>();
+        Object[] args = new Object[buckets.size() * 2 + 1];
+        args[0] = String.valueOf(now);
+        for (int i = 0; i < buckets.size(); i++) {
+            keys.add(buckets.get(i).key);
+            args[i * 2 + 1] = String.valueOf(buckets.get(i).capacity);
+            args[i * 2 + 2] = String.valueOf(buckets.get(i).periodMillis);
+        }
+
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args);
+        double[] tokens = new double[buckets.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = ((Number) result.get(i + 1)).longValue() / 1000.0;
+        }
+        return RateLimitResult.of(((Number) result.get(0)).longValue() == 1, buckets, tokens);
+    }
+
+    private static Counter requestCounter(RateLimitRoute route, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("ratelimit.requests")
+                .description("요청 수 제한을 확인한 요청 수")
+                .tag("route", route.getKey())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // 요청 하나가 사용하는 버킷
+    @Getter
+    static final class Bucket {
+        private final String key;
+        private final int capacity;
+        // 빈 버킷이 가득 채워지는 시간
+        private final long periodMillis;
+
+        Bucket(String key, int capacity, long periodMillis) {
+            this.key = key;
+            this.capacity = capacity;
+            this.periodMillis = periodMillis;
+        }
+
+        // elapsedMillis 동안 채워진 토큰을 더한 토큰 수
+        double refill(double tokens, long elapsedMillis) {
+            return Math.min(capacity, tokens + (double) Math.max(0, elapsedMillis) * capacity / periodMillis);
+        }
+
+        // 토큰이 target 개가 될 때까지 걸리는 시간
+        long millisUntil(double tokens, double target) {
+            return tokens >= target ? 0 : (long) Math.ceil((target - tokens) * periodMillis / capacity);
+        }
+    }
+
+    // API 별 한도, 0 이면 그 기준으로는 제한하지 않음
+    private static final class Limit {
+        private final int memberCapacity;
+        private final int ipCapacity;
+        private final long periodMillis;
+
+        private Limit(int memberCapacity, int ipCapacity, long periodMillis) {
+            this.memberCapacity = memberCapacity;
+            this.ipCapacity = ipCapacity;
+            this.periodMillis = periodMillis;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.springboot.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/*
+   DTO 를 Redis 에 캐시할 때 사용하는 타입별 RedisTemplate 을 만드는 클래스
+   키(해시 키)는 redisTemplate 과 같은 문자열이고, 값(해시 값)은 CompactRedisSerializer 로 저장함
+
+   사용하는 쪽에서 생성자에서 한번 만들어서 필드로 가지고 사용함
+   ex) this.questionTemplate = compactRedisTemplates.create(QuestionResponseDto.class, 1);
+
+   DTO 는 Jackson 이 읽을 수 있어야 함 (기본 생성자 또는 @JsonCreator)
+   캐시는 응답이 아니라 객체를 그대로 저장해야 하므로, 응답에서 숨기려고 붙인 @JsonIgnore 는 무시하고 모든 필드를 저장함
+   (QuestionResponseDto 의 memberId, version 처럼 응답에는 없지만 작성자 확인이나 ETag 에 사용하는 필드)
+*/
+public class CompactRedisTemplates {
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final ObjectMapper smileMapper;
+    private final int compressThresholdBytes;
+
+    public CompactRedisTemplates(RedisConnectionFactory redisConnectionFactory, int compressThresholdBytes) {
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.smileMapper = smileMapper();
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    // schemaVersion 은 type 의 필드 구성이 바뀔 때마다 올려서 이전 구성으로 저장된 값을 읽지 않도록 함
+    public <T> RedisTemplate<String, T> create(Class<T> type, int schemaVersion) {
+        CompactRedisSerializer<T> valueSerializer = serializer(type, schemaVersion);
+
+        RedisTemplate<String, T> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(valueSerializer);
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(valueSerializer);
+        redisTemplate.afterPropertiesSet();
+
+        return redisTemplate;
+    }
+
+    public <T> CompactRedisSerializer<T> serializer(Class<T> type, int schemaVersion) {
+        return new CompactRedisSerializer<>(smileMapper, type, schemaVersion, compressThresholdBytes);
+    }
+
+    // 값마다 붙는 Smile 헤더(4 바이트)는 CompactRedisSerializer 의 헤더로 대신하므로 쓰지 않음
+    static ObjectMapper smileMapper() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+
+        return Jackson2ObjectMapperBuilder.smile()
+                .factory(smileFactory)
+                .annotationIntrospector(cacheAnnotationIntrospector())
+                // 날짜는 문자열 대신 숫자로 저장해서 크기를 줄임
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // @JsonIgnore 를 무시하는 것 외에는 기본 규칙과 같음
+    static JacksonAnnotationIntrospector cacheAnnotationIntrospector() {
+        return new JacksonAnnotationIntrospector() {
+            @Override
+            public boolean hasIgnoreMarker(AnnotatedMember member) {
+                return false;
+            }
+        };
+    }
+}
@@ -1,15 +1,52 @@
 package com.springboot.redis;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+   Redis 연결 설정
+   Redis 가 느려지거나 멈춰도 요청이 같이 멈추지 않도록 모든 명령에 timeout-ms, 연결에 connect-timeout-ms 제한을 두고,
+   연결이 끊겨 있는 동안 들어온 명령은 재연결을 기다리며 쌓아두지 않고 바로 실패시킴
+
+   일반 명령은 모든 스레드가 하나의 연결을 공유해서 보내고(Lettuce 가 여러 스레드의 명령을 한 연결로 파이프라이닝함),
+   블로킹 명령과 트랜잭션처럼 연결을 혼자 써야 하는 명령만 풀에서 연결을 빌려서 사용함
+   executePipelined 로 여러 명령을 보낼 때는 pipeline-flush-size 개씩 모아서 소켓에 씀
+
+   mode 로 standalone, sentinel, cluster 구성을 선택함
+
+   redisTemplate 은 값도 문자열로 저장하고, DTO 를 캐시할 때는 compactRedisTemplates 로 타입별 템플릿을 만들어서
+   Smile(바이너리 JSON) 형식으로 저장함 (CompactRedisSerializer)
+*/
+@Slf4j
 @Configuration
 @EnableRedisRepositories
 public class RedisRepositoryConfig {
@@ -19,18 +56,120 @@ public class RedisRepositoryConfig {
     private String host;
     @Value("${spring.data.redis.port}")
     private int port;
+    @Value("${spring.data.redis.password}")
+    private String password;
+    @Value("${spring.data.redis.mode}")
+    private String mode;
+    @Value("${spring.data.redis.nodes}")
+    private String nodes;
+    @Value("${spring.data.redis.sentinel-master}")
+    private String sentinelMaster;
+    @Value("${spring.data.redis.cluster.max-redirects}")
+    private int clusterMaxRedirects;
+    @Value("${spring.data.redis.cluster.refresh-period-ms}")
+    private long clusterRefreshPeriodMillis;
+    @Value("${spring.data.redis.timeout-ms}")
+    private long commandTimeoutMillis;
+    @Value("${spring.data.redis.connect-timeout-ms}")
+    private long connectTimeoutMillis;
+    @Value("${spring.data.redis.pipeline-flush-size}")
+    private int pipelineFlushSize;
+    @Value("${spring.data.redis.pool.max-active}")
+    private int poolMaxActive;
+    @Value("${spring.data.redis.pool.max-idle}")
+    private int poolMaxIdle;
+    @Value("${spring.data.redis.pool.min-idle}")
+    private int poolMinIdle;
+    @Value("${spring.data.redis.pool.max-wait-ms}")
+    private long poolMaxWaitMillis;
+    @Value("${spring.data.redis.compact.compress-threshold-bytes}")
+    private int compressThresholdBytes;
 
     @Bean
     public RedisConnectionFactory redisConnectionFactory(){
-        RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
-        redisStandaloneConfiguration.setHostName(host);
-        redisStandaloneConfiguration.setPort(port);
+        LettuceConnectionFactory lettuceConnectionFactory = new LettuceConnectionFactory(redisConfiguration(), lettuceClientConfiguration());
 
-        LettuceConnectionFactory lettuceConnectionFactory = new LettuceConnectionFactory(redisStandaloneConfiguration);
+        // 일반 명령은 공유 연결 하나로 보내고, 풀은 블로킹 명령과 트랜잭션에만 사용함 (기본값이지만 풀을 쓸 때도 유지되도록 명시)
+        lettuceConnectionFactory.setShareNativeConnection(true);
+        // executePipelined 의 명령을 하나씩 소켓에 쓰지 않고 pipeline-flush-size 개씩 모아서 씀
+        lettuceConnectionFactory.setPipeliningFlushPolicy(pipelineFlushSize > 0
+                ? LettuceConnection.PipeliningFlushPolicy.buffered(pipelineFlushSize)
+                : LettuceConnection.PipeliningFlushPolicy.flushEachCommand());
 
         return lettuceConnectionFactory;
     }
 
+    private RedisConfiguration redisConfiguration() {
+        switch (mode) {
+            case "standalone": {
+                RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+                configuration.setPassword(RedisPassword.of(password));
+                return configuration;
+            }
+            case "sentinel": {
+                RedisSentinelConfiguration configuration = new RedisSentinelConfiguration(sentinelMaster, new HashSet<>(parseNodes()));
+                configuration.setPassword(RedisPassword.of(password));
+                return configuration;
+            }
+            case "cluster": {
+                RedisClusterConfiguration configuration = new RedisClusterConfiguration(parseNodes());
+                configuration.setMaxRedirects(clusterMaxRedirects);
+                configuration.setPassword(RedisPassword.of(password));
+                return configuration;
+            }
+            default:
+                throw new IllegalArgumentException("spring.data.redis.mode 는 standalone, sentinel, cluster 중 하나여야 합니다.");
+        }
+    }
+
+    private LettuceClientConfiguration lettuceClientConfiguration() {
+        GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(poolMaxActive);
+        poolConfig.setMaxIdle(poolMaxIdle);
+        poolConfig.setMinIdle(poolMinIdle);
+        // 풀의 연결이 모두 사용 중이면 max-wait-ms 까지만 기다리고 실패함
+        poolConfig.setMaxWait(Duration.ofMillis(poolMaxWaitMillis));
+
+        return LettucePoolingClientConfiguration.builder()
+                .poolConfig(poolConfig)
+                .commandTimeout(Duration.ofMillis(commandTimeoutMillis))
+                .clientOptions(clientOptions())
+                .build();
+    }
+
+    private ClientOptions clientOptions() {
+        // cluster 는 노드가 추가되거나 장애 조치(failover)로 바뀐 구성을 주기적으로, 그리고 MOVED 응답 등을 받을 때 다시 읽어옴
+        ClientOptions.Builder builder = "cluster".equals(mode)
+                ? ClusterClientOptions.builder()
+                        .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                                .enablePeriodicRefresh(Duration.ofMillis(clusterRefreshPeriodMillis))
+                                .enableAllAdaptiveRefreshTriggers()
+                                .build())
+                : ClientOptions.builder();
+
+        return builder
+                // RESP3 기능을 사용하지 않으므로 접속할 때 HELLO 협상 없이 RESP2 로 접속함 (Redis 6 미만도 지원)
+                .protocolVersion(ProtocolVersion.RESP2)
+                .socketOptions(SocketOptions.builder()
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                        .keepAlive(true)
+                        .build())
+                // commandTimeout 이 동기 API 뿐 아니라 Spring Data Redis 가 사용하는 비동기 명령에도 적용되도록 함
+                .timeoutOptions(TimeoutOptions.enabled())
+                // 연결이 끊겨 있는 동안의 명령은 쌓아두지 않고 바로 실패시킴, 재연결은 백그라운드에서 계속 시도함
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .autoReconnect(true)
+                .build();
+    }
+
+    // "host:port,host:port" 형식의 노드 목록
+    private List<String> parseNodes() {
+        return Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .collect(Collectors.toList());
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate() {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
@@ -42,4 +181,29 @@ public class RedisRepositoryConfig {
 
         return redisTemplate;
     }
+
+    @Bean
+    public CompactRedisTemplates compactRedisTemplates() {
+        return new CompactRedisTemplates(redisConnectionFactory(), compressThresholdBytes);
+    }
+
+    // Redis pub/sub 메시지를 받는 컨테이너, 구독할 채널은 각 리스너가 등록함
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            // Redis 에 연결할 수 없어도 서버는 시작되도록 함, 구독은 isListening() 을 확인하는 쪽에서 다시 시도함
+            @Override
+            public void start() {
+                try {
+                    super.start();
+                } catch (RuntimeException e) {
+                    log.warn("# Failed to subscribe Redis channels: {}", e.getMessage());
+                }
+            }
+        };
+
+        container.setConnectionFactory(redisConnectionFactory());
+
+        return container;
+    }
 }
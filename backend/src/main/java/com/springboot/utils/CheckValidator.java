@@ -24,15 +24,24 @@ public class CheckValidator {
             throw new BusinessLogicException(ExceptionCode.ACCESS_DENIED);
         }
 
-        boolean isAdmin = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(role -> role.equals("ROLE_ADMIN"));
-
-        if (!isAdmin) {
+        if (!isAdmin()) {
             throw new BusinessLogicException(ExceptionCode.UNAUTHORIZED_ACCESS);
         }
     }
 
+    // 로그인한 사용자가 관리자인지 여부 (예외를 던지지 않음)
+    public boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            return false;
+        }
+
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+    }
+
     // 관리자 또는 작성자인지 검증 (둘 중 하나라도 만족하면 통과)
     public void checkAdminOrOwner(long ownerId, long principalOwnerId) {
         if (principalOwnerId == ownerId) return; // 본인이면 통과
@@ -0,0 +1,21 @@
+package com.springboot.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+    // 트랜잭션 안이라면 커밋된 이후에, 트랜잭션 밖이라면 바로 실행
+    // 캐시 삭제나 Redis 반영처럼 DB 커밋 결과를 기준으로 해야하는 작업에 사용
+    public static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+            return;
+        }
+        task.run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.springboot.auth.controller;
+
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// RefreshToken 으로 재발급할 때마다 새 RefreshToken 으로 바뀌고, 이미 사용한 RefreshToken 이 다시 오면 세션이 지워지는지 검증
+@SpringBootTest(properties = {
+        "jwt.token-store=memory",
+        "rate-limit.storage=memory"
+})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+    private static final String EMAIL = "refresh@gmail.com";
+    private static final String PASSWORD = "password1!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private long memberId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setEmail(EMAIL);
+        member.setName("refresh");
+        member.setPhone("010-3333-0000");
+        member.setPassword(passwordEncoder.encode(PASSWORD));
+        member.setRoles(List.of("USER"));
+        memberId = memberRepository.save(member).getMemberId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteById(memberId);
+    }
+
+    @Test
+    void refreshRotatesBothTokens() throws Exception {
+        MockHttpServletResponse login = login();
+
+        MockHttpServletResponse refreshed = refresh(login.getHeader("Refresh"));
+
+        assertThat(refreshed.getStatus()).isEqualTo(200);
+        assertThat(refreshed.getHeader("Authorization")).startsWith("Bearer ");
+        assertThat(refreshed.getHeader("Refresh")).isNotEqualTo(login.getHeader("Refresh"));
+
+        // 새 RefreshToken 으로 다시 재발급할 수 있음
+        assertThat(refresh(refreshed.getHeader("Refresh")).getStatus()).isEqualTo(200);
+    }
+
+    // 탈취된 RefreshToken 이 사용된 것으로 보고 그 세션의 최신 RefreshToken 도 사용할 수 없게 됨
+    @Test
+    void reusedRefreshTokenRevokesSession() throws Exception {
+        String firstRefreshToken = login().getHeader("Refresh");
+        String secondRefreshToken = refresh(firstRefreshToken).getHeader("Refresh");
+
+        mockMvc.perform(post("/auth/refresh").header("Refresh", firstRefreshToken))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("이미 사용된 토큰입니다. 다시 로그인해주세요."));
+
+        mockMvc.perform(post("/auth/refresh").header("Refresh", secondRefreshToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // 다른 기기의 세션은 영향을 받지 않음
+    @Test
+    void reuseOnOneDeviceKeepsOtherSessions() throws Exception {
+        String firstDevice = login().getHeader("Refresh");
+        String secondDevice = login().getHeader("Refresh");
+        refresh(firstDevice);
+
+        assertThat(refresh(firstDevice).getStatus()).isEqualTo(401);
+        assertThat(refresh(secondDevice).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void missingOrInvalidRefreshTokenIsRejected() throws Exception {
+        mockMvc.perform(post("/auth/refresh"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh").header("Refresh", "not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        // AccessToken 은 RefreshToken 으로 사용할 수 없음
+        String accessToken = login().getHeader("Authorization").substring("Bearer ".length());
+        mockMvc.perform(post("/auth/refresh").header("Refresh", accessToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MockHttpServletResponse login() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(response.getHeader("Refresh")).isNotNull();
+        return response;
+    }
+
+    private MockHttpServletResponse refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh").header("Refresh", refreshToken))
+                .andReturn().getResponse();
+    }
+}
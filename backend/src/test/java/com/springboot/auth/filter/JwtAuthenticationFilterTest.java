@@ -0,0 +1,151 @@
+package com.springboot.auth.filter;
+
+import com.springboot.auth.utils.LoginLimiter;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+   동시에 비밀번호를 검증하는 로그인 수가 가득 차면 503 과 Retry-After 로 거절하는지,
+   낮은 비용(4)의 bcrypt 해시로 저장된 비밀번호가 로그인에 성공하면 설정된 비용(10)으로 다시 저장되는지 검증
+*/
+@SpringBootTest(properties = {
+        "jwt.token-store=memory",
+        "rate-limit.storage=memory",
+        "auth.login.max-concurrent=1",
+        "auth.login.max-wait-ms=50",
+        "auth.login.retry-after-seconds=3",
+        "auth.password.bcrypt-strength=10"
+})
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+    private static final String EMAIL = "login@gmail.com";
+    private static final String PASSWORD = "password1!";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoginLimiter loginLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long memberId;
+
+    // 설정보다 낮은 비용으로 해시된 비밀번호를 가진 회원
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setEmail(EMAIL);
+        member.setName("login");
+        member.setPhone("010-4444-0000");
+        member.setPassword("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD));
+        member.setRoles(List.of("USER"));
+        memberId = memberRepository.save(member).getMemberId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteById(memberId);
+    }
+
+    // 다른 로그인이 검증 중이라 max-wait-ms 안에 차례가 오지 않으면 비밀번호를 검증하지 않고 거절함
+    @Test
+    void loginIsRejectedWithRetryAfterWhenSaturated() throws Exception {
+        long rejected = meterRegistry.get("auth.login.queue").tag("outcome", "rejected").timer().count();
+        assertThat(loginLimiter.tryAcquire()).isTrue();
+        try {
+            login(PASSWORD)
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                    .andExpect(header().doesNotExist("Authorization"));
+        } finally {
+            loginLimiter.release();
+        }
+        assertThat(meterRegistry.get("auth.login.queue").tag("outcome", "rejected").timer().count())
+                .isEqualTo(rejected + 1);
+
+        // 차례가 비면 다시 로그인할 수 있고, 검증이 끝나면 차례를 돌려줌
+        login(PASSWORD).andExpect(status().isOk());
+        assertThat(loginLimiter.tryAcquire()).isTrue();
+        loginLimiter.release();
+    }
+
+    // 비밀번호가 틀려서 실패해도 차례를 돌려줌
+    @Test
+    void failedLoginReleasesPermit() throws Exception {
+        login("wrong-password").andExpect(status().isUnauthorized());
+
+        assertThat(loginLimiter.tryAcquire()).isTrue();
+        loginLimiter.release();
+    }
+
+    @Test
+    void weakHashIsUpgradedOnSuccessfulLogin() throws Exception {
+        String oldPassword = password();
+        assertThat(oldPassword).startsWith("{bcrypt}$2a$04$");
+        long encoded = hashCount("encode");
+        long matched = hashCount("matches");
+
+        login(PASSWORD).andExpect(status().isOk());
+
+        // 검증 한번과 새 비용으로 다시 해시한 한번이 auth.password.hash 에 기록됨
+        assertThat(hashCount("matches")).isEqualTo(matched + 1);
+        assertThat(hashCount("encode")).isEqualTo(encoded + 1);
+
+        String upgradedPassword = password();
+        assertThat(upgradedPassword).startsWith("{bcrypt}$2a$10$");
+        assertThat(new BCryptPasswordEncoder().matches(PASSWORD, upgradedPassword.substring("{bcrypt}".length())))
+                .isTrue();
+
+        // 이미 설정된 비용의 해시는 다시 저장하지 않고, 새 해시로도 로그인할 수 있음
+        login(PASSWORD).andExpect(status().isOk());
+        assertThat(password()).isEqualTo(upgradedPassword);
+    }
+
+    // 비밀번호가 틀리면 해시를 바꾸지 않음
+    @Test
+    void weakHashIsKeptOnFailedLogin() throws Exception {
+        String oldPassword = password();
+
+        login("wrong-password").andExpect(status().isUnauthorized());
+
+        assertThat(password()).isEqualTo(oldPassword);
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + EMAIL + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private long hashCount(String operation) {
+        return meterRegistry.get("auth.password.hash").tag("operation", operation).timer().count();
+    }
+
+    private String password() {
+        return memberRepository.findById(memberId).orElseThrow().getPassword();
+    }
+}
@@ -0,0 +1,44 @@
+package com.springboot.auth.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenStoreTest extends TokenStoreContractTest {
+    private InMemoryTokenStore inMemoryTokenStore;
+
+    @Override
+    protected TokenStore createTokenStore() {
+        inMemoryTokenStore = new InMemoryTokenStore(MAX_DEVICES);
+        return inMemoryTokenStore;
+    }
+
+    @Override
+    protected void closeTokenStore() {
+        inMemoryTokenStore.shutdown();
+    }
+
+    @Test
+    void timerWheelRemovesOnlyExpiredSessions() throws Exception {
+        inMemoryTokenStore.create("a@gmail.com", "sid-1", "jti-1", 10);
+        inMemoryTokenStore.create("b@gmail.com", "sid-1", "jti-1", 60_000);
+        Thread.sleep(50);
+
+        inMemoryTokenStore.expireSessions(System.currentTimeMillis() + 2_000);
+
+        assertThat(inMemoryTokenStore.sessionCount()).isEqualTo(1);
+        assertThat(inMemoryTokenStore.isActive("b@gmail.com", "sid-1")).isTrue();
+    }
+
+    @Test
+    void rotatedSessionIsNotRemovedByPreviousTimer() throws Exception {
+        inMemoryTokenStore.create("a@gmail.com", "sid-1", "jti-1", 10);
+        inMemoryTokenStore.rotate("a@gmail.com", "sid-1", "jti-1", "jti-2", 60_000);
+        Thread.sleep(50);
+
+        inMemoryTokenStore.expireSessions(System.currentTimeMillis() + 2_000);
+
+        assertThat(inMemoryTokenStore.sessionCount()).isEqualTo(1);
+        assertThat(inMemoryTokenStore.isActive("a@gmail.com", "sid-1")).isTrue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.springboot.auth.jwt;
+
+import com.springboot.exception.BusinessLogicException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 키 링에서 kid 로 검증 키를 찾고, 키를 교체해도 이전 키로 서명된 토큰이 검증되는지 확인
+class JwtTokenizerTest {
+    private static final String OLD_SECRET = "old-secret-key-for-jwt-tokenizer-test-0001";
+    private static final String NEW_SECRET = "new-secret-key-for-jwt-tokenizer-test-0002";
+    private static final String OTHER_SECRET = "other-secret-key-for-jwt-tokenizer-test-03";
+
+    private final InMemoryTokenStore tokenStore = new InMemoryTokenStore(10);
+
+    @AfterEach
+    void tearDown() {
+        tokenStore.shutdown();
+    }
+
+    @Test
+    void tokenCarriesSigningKeyIdAndIsVerified() {
+        JwtTokenizer tokenizer = tokenizer(NEW_SECRET, "k2", "", "");
+
+        Jws<Claims> claims = tokenizer.getClaims(accessToken(tokenizer));
+
+        assertThat(claims.getHeader().getKeyId()).isEqualTo("k2");
+        assertThat(claims.getBody().getSubject()).isEqualTo("user@gmail.com");
+    }
+
+    // 새 키로 교체한 뒤에도 verification-keys 에 남긴 이전 키로 서명된 토큰은 만료될 때까지 검증됨
+    @Test
+    void tokenSignedWithPreviousKeyIsVerifiedAfterRotation() {
+        JwtTokenizer before = tokenizer(OLD_SECRET, "k1", "", "");
+        String oldToken = accessToken(before);
+
+        JwtTokenizer after = tokenizer(NEW_SECRET, "k2", "k1=" + OLD_SECRET, "");
+
+        assertThat(after.getClaims(oldToken).getHeader().getKeyId()).isEqualTo("k1");
+        assertThat(after.getClaims(accessToken(after)).getHeader().getKeyId()).isEqualTo("k2");
+
+        // 이전 키를 목록에서 빼면 그 키로 서명된 토큰은 거절됨
+        JwtTokenizer removed = tokenizer(NEW_SECRET, "k2", "", "");
+        assertThatThrownBy(() -> removed.getClaims(oldToken)).isInstanceOf(SignatureException.class);
+    }
+
+    // 재시작 없이 키를 추가해도 이전 키로 서명된 토큰이 검증되고, 검증 키로만 추가하면 서명 키는 그대로임
+    @Test
+    void keyIsAddedAndRotatedWithoutRestart() {
+        JwtTokenizer tokenizer = tokenizer(OLD_SECRET, "k1", "", "k1");
+        String oldToken = accessToken(tokenizer);
+
+        tokenizer.addKey("k2", NEW_SECRET, false);
+        assertThat(tokenizer.getClaims(accessToken(tokenizer)).getHeader().getKeyId()).isEqualTo("k1");
+
+        tokenizer.addKey("k2", NEW_SECRET, true);
+        String newToken = accessToken(tokenizer);
+
+        assertThat(tokenizer.getClaims(newToken).getHeader().getKeyId()).isEqualTo("k2");
+        assertThat(tokenizer.getClaims(oldToken).getHeader().getKeyId()).isEqualTo("k1");
+
+        // 현재 서명 키와 kid 가 없는 토큰을 검증하는 키는 제거할 수 없고, 나머지 검증 키는 제거하면 거절됨
+        assertThatThrownBy(() -> tokenizer.removeVerificationKey("k2")).isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> tokenizer.removeVerificationKey("k1")).isInstanceOf(BusinessLogicException.class);
+
+        tokenizer.addKey("k3", OTHER_SECRET, true);
+        tokenizer.removeVerificationKey("k2");
+
+        assertThatThrownBy(() -> tokenizer.getClaims(newToken)).isInstanceOf(SignatureException.class);
+        assertThat(tokenizer.getClaims(oldToken).getHeader().getKeyId()).isEqualTo("k1");
+    }
+
+    // 이미 있는 키 ID 를 다른 비밀 키로 바꾸거나 HMAC-SHA256 에 짧은 키는 거절하고 키 링을 바꾸지 않음
+    @Test
+    void invalidKeyIsRejectedWithoutChangingKeyRing() {
+        JwtTokenizer tokenizer = tokenizer(OLD_SECRET, "k1", "", "");
+
+        assertThatThrownBy(() -> tokenizer.addKey("k1", NEW_SECRET, true)).isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> tokenizer.addKey("k2", "short", true)).isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> tokenizer.addKey(" ", NEW_SECRET, true)).isInstanceOf(BusinessLogicException.class);
+
+        assertThat(tokenizer.getClaims(accessToken(tokenizer)).getHeader().getKeyId()).isEqualTo("k1");
+    }
+
+    // 헤더의 kid 가 가리키는 키로만 검증하므로 다른 키로 서명하고 kid 를 바꿔도 통과하지 못함
+    @Test
+    void unknownOrMismatchedKeyIdIsRejected() {
+        JwtTokenizer tokenizer = tokenizer(NEW_SECRET, "k2", "k1=" + OLD_SECRET, "");
+
+        String unknownKid = Jwts.builder().setHeaderParam("kid", "k9").setSubject("user@gmail.com")
+                .signWith(key(NEW_SECRET)).compact();
+        String mismatchedKid = Jwts.builder().setHeaderParam("kid", "k1").setSubject("user@gmail.com")
+                .signWith(key(NEW_SECRET)).compact();
+
+        assertThatThrownBy(() -> tokenizer.getClaims(unknownKid)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> tokenizer.getClaims(mismatchedKid)).isInstanceOf(SignatureException.class);
+    }
+
+    // kid 가 없는 토큰은 현재 서명 키가 아니라 legacy-key-id 의 키로 검증함
+    @Test
+    void tokenWithoutKeyIdIsVerifiedOnlyWithLegacyKey() {
+        String legacyToken = Jwts.builder().setSubject("user@gmail.com").signWith(key(OLD_SECRET)).compact();
+        String otherToken = Jwts.builder().setSubject("user@gmail.com").signWith(key(NEW_SECRET)).compact();
+
+        JwtTokenizer pinned = tokenizer(NEW_SECRET, "k2", "k1=" + OLD_SECRET, "k1");
+        assertThat(pinned.getClaims(legacyToken).getBody().getSubject()).isEqualTo("user@gmail.com");
+        assertThatThrownBy(() -> pinned.getClaims(otherToken)).isInstanceOf(SignatureException.class);
+
+        JwtTokenizer disabled = tokenizer(NEW_SECRET, "k2", "k1=" + OLD_SECRET, "");
+        assertThatThrownBy(() -> disabled.getClaims(legacyToken)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> disabled.getClaims(otherToken)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void invalidKeyConfigurationFailsAtStartup() {
+        assertThatThrownBy(() -> tokenizer(NEW_SECRET, "k2", "k1=" + OLD_SECRET, "k3"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tokenizer(NEW_SECRET, "k2", OTHER_SECRET, ""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private JwtTokenizer tokenizer(String secret, String keyId, String verificationKeys, String legacyKeyId) {
+        return new JwtTokenizer(tokenStore, secret, keyId, verificationKeys, legacyKeyId, 30, 60);
+    }
+
+    private static String accessToken(JwtTokenizer tokenizer) {
+        return tokenizer.generateAccessToken(Map.of("username", "user@gmail.com"), "user@gmail.com",
+                new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    private static Key key(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
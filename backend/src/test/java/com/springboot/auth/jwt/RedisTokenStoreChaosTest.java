@@ -0,0 +1,238 @@
+package com.springboot.auth.jwt;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import com.springboot.auth.utils.LocalRevocationList;
+import com.springboot.auth.utils.RedisCircuitBreaker;
+import com.springboot.auth.utils.TokenAllowlistCache;
+import com.springboot.exception.BusinessLogicException;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// jedis-mock 서버의 명령 처리에 지연을 넣어서 Redis 가 느려졌을 때 서킷 브레이커와 degraded mode 가 동작하는지 검증
+class RedisTokenStoreChaosTest {
+    private static final long COMMAND_TIMEOUT_MILLIS = 300;
+    // pub/sub 연결은 지연을 넣지 않으므로, 첫 연결이 느린 jedis-mock 에서도 구독이 실패하지 않도록 넉넉하게 둠
+    private static final long LISTENER_TIMEOUT_MILLIS = 5_000;
+    private static final long LATENCY_MILLIS = 1_000;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_DURATION_MILLIS = 500;
+    // 회로 상태가 바뀔 때까지 기다리는 최대 시간 (느린 명령이 모두 처리되는 시간보다 충분히 길게)
+    private static final long AWAIT_TIMEOUT_MILLIS = 10_000;
+    private static final Set<String> DELAYED_COMMANDS = Set.of("hget", "exists", "eval", "evalsha", "hdel", "del");
+
+    private final AtomicLong latencyMillis = new AtomicLong();
+    // 서버가 받은 인증 명령(DELAYED_COMMANDS) 수
+    private final AtomicInteger receivedCommands = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private LettuceConnectionFactory listenerConnectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisCircuitBreaker redisCircuitBreaker;
+    private LocalRevocationList localRevocationList;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer()
+                .setOptions(ServiceOptions.withInterceptor((state, command, params) -> {
+                    if (!DELAYED_COMMANDS.contains(command.toLowerCase())) {
+                        return MockExecutor.proceed(state, command, params);
+                    }
+                    receivedCommands.incrementAndGet();
+                    long latency = latencyMillis.get();
+                    if (latency > 0) {
+                        try {
+                            Thread.sleep(latency);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return MockExecutor.proceed(state, command, params);
+                }))
+                .start();
+
+        connectionFactory = connectionFactory(COMMAND_TIMEOUT_MILLIS);
+        listenerConnectionFactory = connectionFactory(LISTENER_TIMEOUT_MILLIS);
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(listenerConnectionFactory);
+        listenerContainer.afterPropertiesSet();
+
+        redisCircuitBreaker = new RedisCircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION_MILLIS, meterRegistry);
+        localRevocationList = new LocalRevocationList(1000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        latencyMillis.set(0);
+        listenerContainer.destroy();
+        listenerConnectionFactory.destroy();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void slowRedisOpensCircuitAndFallsBackToSignatureOnlyVerification() {
+        RedisTokenStore tokenStore = createTokenStore("allow");
+        latencyMillis.set(LATENCY_MILLIS);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThat(tokenStore.isActive("member@gmail.com", "sid-" + i)).isTrue();
+        }
+        assertThat(redisCircuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+
+        // 회로가 열린 뒤에는 Redis 로 명령을 보내지 않음
+        int commandsBeforeOpenCall = receivedCommands.get();
+        assertThat(tokenStore.isActive("member@gmail.com", "sid-open")).isTrue();
+        assertThat(receivedCommands.get()).isEqualTo(commandsBeforeOpenCall);
+
+        assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.redis.circuit.fallbacks").tag("operation", "isActive").counter().count())
+                .isEqualTo(FAILURE_THRESHOLD + 1);
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        RedisTokenStore tokenStore = createTokenStore("allow");
+        latencyMillis.set(LATENCY_MILLIS);
+        tripCircuit(tokenStore);
+
+        // open-duration-ms 가 지나서 probe 가 한번 실행될 때까지 요청을 보냄
+        awaitUntil(() -> {
+            tokenStore.isActive("member@gmail.com", "sid-probe");
+            return transitions("OPEN", "HALF_OPEN") == 1;
+        });
+
+        assertThat(redisCircuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1);
+        assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1);
+    }
+
+    @Test
+    void logoutDuringOutageIsEnforcedLocallyAndReplayedAfterRecovery() {
+        RedisTokenStore tokenStore = createTokenStore("allow");
+        tokenStore.create("member@gmail.com", "sid-1", "jti-1", 60_000);
+        tokenStore.create("member@gmail.com", "sid-2", "jti-2", 60_000);
+
+        latencyMillis.set(LATENCY_MILLIS);
+        tripCircuit(tokenStore);
+
+        assertThat(tokenStore.revoke("member@gmail.com", "sid-1")).isTrue();
+        assertThat(tokenStore.isActive("member@gmail.com", "sid-1")).isFalse();
+        assertThat(tokenStore.isActive("member@gmail.com", "sid-2")).isTrue();
+
+        // 지연을 없애고, 이미 보낸 느린 명령들이 처리되어 probe 가 성공할 때까지 요청을 보냄
+        // (allowlist 캐시에 들어가지 않도록 없는 세션으로 확인함)
+        latencyMillis.set(0);
+        awaitUntil(() -> {
+            tokenStore.isActive("other@gmail.com", "sid-probe");
+            return redisCircuitBreaker.isClosed();
+        });
+        assertThat(tokenStore.isActive("member@gmail.com", "sid-2")).isTrue();
+
+        tokenStore.replayRevocations();
+
+        assertThat(localRevocationList.isEmpty()).isTrue();
+        assertThat(sessionExists("member@gmail.com", "sid-1")).isFalse();
+        assertThat(sessionExists("member@gmail.com", "sid-2")).isTrue();
+        assertThat(tokenStore.isActive("member@gmail.com", "sid-1")).isFalse();
+    }
+
+    @Test
+    void denyPolicyRejectsTokensWhileCircuitIsOpen() {
+        RedisTokenStore tokenStore = createTokenStore("deny");
+        latencyMillis.set(LATENCY_MILLIS);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThat(tokenStore.isActive("member@gmail.com", "sid-" + i)).isFalse();
+        }
+
+        assertThatThrownBy(() -> tokenStore.create("member@gmail.com", "sid-new", "jti-1", 60_000))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> tokenStore.rotate("member@gmail.com", "sid-1", "jti-1", "jti-2", 60_000))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+
+    private LettuceConnectionFactory connectionFactory(long commandTimeoutMillis) {
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(commandTimeoutMillis))
+                .clientOptions(ClientOptions.builder()
+                        .protocolVersion(ProtocolVersion.RESP2)
+                        .timeoutOptions(TimeoutOptions.enabled())
+                        .build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private RedisTokenStore createTokenStore(String degradedPolicy) {
+        TokenAllowlistCache tokenAllowlistCache = new TokenAllowlistCache(listenerContainer, 1000, 5000, meterRegistry);
+        listenerContainer.start();
+        return new RedisTokenStore(redisTemplate, tokenAllowlistCache, redisCircuitBreaker, localRevocationList,
+                TokenStoreContractTest.MAX_DEVICES, degradedPolicy);
+    }
+
+    private void tripCircuit(RedisTokenStore tokenStore) {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            tokenStore.isActive("other@gmail.com", "sid-" + i);
+        }
+        assertThat(redisCircuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    // 조건이 참이 될 때까지 짧은 간격으로 다시 확인함
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within %d ms", AWAIT_TIMEOUT_MILLIS).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("auth.redis.circuit.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+
+    private boolean sessionExists(String email, String sessionId) {
+        return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.hExists(
+                ("session:" + email).getBytes(StandardCharsets.UTF_8), sessionId.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,59 @@
+package com.springboot.auth.jwt;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.springboot.auth.utils.LocalRevocationList;
+import com.springboot.auth.utils.RedisCircuitBreaker;
+import com.springboot.auth.utils.TokenAllowlistCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+// 실제 Redis 대신 Lua 스크립트와 pub/sub 을 지원하는 jedis-mock 서버를 띄워서 공통 테스트를 실행함
+class RedisTokenStoreTest extends TokenStoreContractTest {
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Override
+    protected TokenStore createTokenStore() throws Exception {
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+
+        // jedis-mock 은 RESP3 를 지원하지 않으므로 RESP2 로 접속함
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenAllowlistCache tokenAllowlistCache = new TokenAllowlistCache(listenerContainer, 1000, 5000, meterRegistry);
+        listenerContainer.start();
+
+        return new RedisTokenStore(redisTemplate, tokenAllowlistCache, new RedisCircuitBreaker(5, 10_000, meterRegistry),
+                new LocalRevocationList(1000, meterRegistry), MAX_DEVICES, "allow");
+    }
+
+    @Override
+    protected void closeTokenStore() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+}
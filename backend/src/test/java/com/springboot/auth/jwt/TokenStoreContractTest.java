@@ -0,0 +1,150 @@
+package com.springboot.auth.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 모든 TokenStore 구현체가 같은 방식으로 동작하는지 검증하는 공통 테스트, 구현체마다 상속해서 실행함
+abstract class TokenStoreContractTest {
+    protected static final int MAX_DEVICES = 3;
+    private static final long TTL_MILLIS = 60_000;
+    private static final int THREAD_COUNT = 16;
+
+    private final String email = "member" + UUID.randomUUID() + "@gmail.com";
+
+    protected TokenStore tokenStore;
+
+    // 최대 세션 수가 MAX_DEVICES 인 저장소를 만듦
+    protected abstract TokenStore createTokenStore() throws Exception;
+
+    protected void closeTokenStore() throws Exception {
+    }
+
+    @BeforeEach
+    void setUpTokenStore() throws Exception {
+        tokenStore = createTokenStore();
+    }
+
+    @AfterEach
+    void tearDownTokenStore() throws Exception {
+        closeTokenStore();
+    }
+
+    @Test
+    void createdSessionIsActive() {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+
+        assertThat(tokenStore.isActive(email, "sid-1")).isTrue();
+        assertThat(tokenStore.isActive(email, "sid-2")).isFalse();
+        assertThat(tokenStore.isActive("other@gmail.com", "sid-1")).isFalse();
+    }
+
+    @Test
+    void expiredSessionIsNotActive() throws Exception {
+        tokenStore.create(email, "sid-1", "jti-1", 100);
+
+        Thread.sleep(300);
+
+        assertThat(tokenStore.isActive(email, "sid-1")).isFalse();
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-1", "jti-2", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.EXPIRED);
+    }
+
+    @Test
+    void rotateReplacesRefreshTokenId() {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-1", "jti-2", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.ROTATED);
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-2", "jti-3", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.ROTATED);
+        assertThat(tokenStore.isActive(email, "sid-1")).isTrue();
+    }
+
+    @Test
+    void rotateUnknownSessionIsExpired() {
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-1", "jti-2", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.EXPIRED);
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesOnlyThatSession() {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+        tokenStore.create(email, "sid-2", "jti-2", TTL_MILLIS);
+        tokenStore.rotate(email, "sid-1", "jti-1", "jti-3", TTL_MILLIS);
+
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-1", "jti-4", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.REUSED);
+        assertThat(tokenStore.isActive(email, "sid-1")).isFalse();
+        assertThat(tokenStore.rotate(email, "sid-1", "jti-3", "jti-5", TTL_MILLIS)).isEqualTo(TokenStore.Rotation.EXPIRED);
+        assertThat(tokenStore.isActive(email, "sid-2")).isTrue();
+    }
+
+    @Test
+    void revokeRemovesOnlyThatSession() {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+        tokenStore.create(email, "sid-2", "jti-2", TTL_MILLIS);
+
+        assertThat(tokenStore.revoke(email, "sid-1")).isTrue();
+        assertThat(tokenStore.revoke(email, "sid-1")).isFalse();
+        assertThat(tokenStore.isActive(email, "sid-1")).isFalse();
+        assertThat(tokenStore.isActive(email, "sid-2")).isTrue();
+    }
+
+    @Test
+    void revokeAllRemovesEverySession() {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+        tokenStore.create(email, "sid-2", "jti-2", TTL_MILLIS);
+
+        assertThat(tokenStore.revoke(email, null)).isTrue();
+        assertThat(tokenStore.isActive(email, "sid-1")).isFalse();
+        assertThat(tokenStore.isActive(email, "sid-2")).isFalse();
+        assertThat(tokenStore.revokeAll(email)).isFalse();
+    }
+
+    @Test
+    void sessionsBeyondMaxDevicesEvictSoonestExpiring() {
+        for (int i = 0; i <= MAX_DEVICES; i++) {
+            tokenStore.create(email, "sid-" + i, "jti-" + i, TTL_MILLIS + i * 1000L);
+        }
+
+        assertThat(tokenStore.isActive(email, "sid-0")).isFalse();
+        for (int i = 1; i <= MAX_DEVICES; i++) {
+            assertThat(tokenStore.isActive(email, "sid-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void concurrentRotationWithSameRefreshTokenSucceedsOnce() throws Exception {
+        tokenStore.create(email, "sid-1", "jti-1", TTL_MILLIS);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<TokenStore.Rotation>> futures = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            String newRefreshTokenId = "jti-new-" + i;
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return tokenStore.rotate(email, "sid-1", "jti-1", newRefreshTokenId, TTL_MILLIS);
+            }));
+        }
+        startLatch.countDown();
+
+        List<TokenStore.Rotation> results = new ArrayList<>();
+        for (Future<TokenStore.Rotation> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+
+        // 처음 하나만 교체되고, 그 다음 요청은 이미 교체된 토큰으로 처리되어 세션이 지워짐 (이후 요청은 세션이 없으므로 EXPIRED)
+        assertThat(results).containsOnlyOnce(TokenStore.Rotation.ROTATED);
+        assertThat(results).contains(TokenStore.Rotation.REUSED);
+        assertThat(tokenStore.isActive(email, "sid-1")).isFalse();
+    }
+}
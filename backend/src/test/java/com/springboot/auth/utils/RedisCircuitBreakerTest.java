@@ -0,0 +1,54 @@
+package com.springboot.auth.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisCircuitBreakerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 한번 실패하면 열리고, 바로 다음 요청이 probe 가 됨
+    private final RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(1, 0, meterRegistry);
+
+    @Test
+    void countersAreRegisteredBeforeFirstUse() {
+        assertThat(transitions("CLOSED", "OPEN")).isZero();
+        assertThat(transitions("HALF_OPEN", "OPEN")).isZero();
+        for (RedisCircuitBreaker.Operation operation : RedisCircuitBreaker.Operation.values()) {
+            assertThat(meterRegistry.get("auth.redis.circuit.fallbacks").tag("operation", operation.getTag()).counter().count())
+                    .isZero();
+        }
+    }
+
+    @Test
+    void probeFailingWithNonRedisExceptionLeavesHalfOpen() {
+        assertThat(circuitBreaker.execute(RedisCircuitBreaker.Operation.IS_ACTIVE,
+                () -> { throw new QueryTimeoutException("timeout"); }, () -> false)).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> circuitBreaker.execute(RedisCircuitBreaker.Operation.IS_ACTIVE,
+                () -> { throw new IllegalStateException("unexpected"); }, () -> false))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1);
+
+        // 다음 probe 가 성공하면 닫힘
+        assertThat(circuitBreaker.execute(RedisCircuitBreaker.Operation.IS_ACTIVE, () -> true, () -> false)).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void nonRedisExceptionWhileClosedIsNotCounted() {
+        assertThatThrownBy(() -> circuitBreaker.execute(RedisCircuitBreaker.Operation.REVOKE,
+                () -> { throw new IllegalStateException("unexpected"); }, () -> false))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("auth.redis.circuit.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+}
@@ -0,0 +1,149 @@
+package com.springboot.auth.utils;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.springboot.auth.jwt.RedisTokenStore;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// jedis-mock 서버의 pub/sub 으로 다른 서버의 로그아웃 메시지를 받아 캐시를 지우는지, 최대 유지 시간과 구독이 끊겼을 때의 동작을 검증
+class TokenAllowlistCacheTest {
+    // 메시지를 받기 전에 만료되어 지워진 것처럼 보이지 않도록 충분히 길게 둠
+    private static final long MAX_STALENESS_MILLIS = 60_000;
+    private static final long AWAIT_TIMEOUT_MILLIS = 10_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+
+        // jedis-mock 은 RESP3 를 지원하지 않으므로 RESP2 로 접속함
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        // 구독은 각 테스트에서 시작함
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    // 다른 서버에서 발행한 메시지로 해당 세션만, 세션 ID 가 비어 있으면 회원의 모든 세션을 지움
+    @Test
+    void revokedMessageEvictsSessions() {
+        TokenAllowlistCache cache = new TokenAllowlistCache(listenerContainer, 1000, MAX_STALENESS_MILLIS, meterRegistry);
+        startListening();
+        cache.put("user@gmail.com", "sid-1");
+        cache.put("user@gmail.com", "sid-2");
+        cache.put("other@gmail.com", "sid-3");
+
+        publish("sid-1", "user@gmail.com");
+        awaitUntil(() -> !cache.contains("user@gmail.com", "sid-1"));
+        assertThat(cache.contains("user@gmail.com", "sid-2")).isTrue();
+        assertThat(cache.contains("other@gmail.com", "sid-3")).isTrue();
+
+        publish("", "user@gmail.com");
+        awaitUntil(() -> !cache.contains("user@gmail.com", "sid-2"));
+        assertThat(cache.contains("other@gmail.com", "sid-3")).isTrue();
+
+        assertThat(meterRegistry.get("auth.allowlist.invalidation.lag").timer().count()).isEqualTo(2);
+    }
+
+    // 메시지가 유실되어도 max-staleness-ms 가 지나면 Redis 에 다시 확인함
+    @Test
+    void entriesExpireAfterMaxStaleness() throws Exception {
+        TokenAllowlistCache cache = new TokenAllowlistCache(listenerContainer, 1000, 200, meterRegistry);
+        startListening();
+        cache.put("user@gmail.com", "sid-1");
+        assertThat(cache.contains("user@gmail.com", "sid-1")).isTrue();
+
+        Thread.sleep(400);
+
+        assertThat(cache.contains("user@gmail.com", "sid-1")).isFalse();
+    }
+
+    // 구독하지 않은 동안에는 저장하지 않고, 다시 구독할 때는 놓친 메시지가 있을 수 있으므로 캐시를 비움
+    @Test
+    void sessionsAreNotCachedWhileNotListening() {
+        TokenAllowlistCache cache = new TokenAllowlistCache(listenerContainer, 1000, MAX_STALENESS_MILLIS, meterRegistry);
+
+        cache.put("user@gmail.com", "sid-1");
+        assertThat(cache.contains("user@gmail.com", "sid-1")).isFalse();
+
+        cache.resubscribe();
+        awaitUntil(listenerContainer::isListening);
+        cache.put("user@gmail.com", "sid-1");
+        assertThat(cache.contains("user@gmail.com", "sid-1")).isTrue();
+
+        // 구독이 끊기면 저장된 세션은 다시 구독할 때 지워짐
+        listenerContainer.stop();
+        assertThat(listenerContainer.isListening()).isFalse();
+        cache.put("user@gmail.com", "sid-2");
+        assertThat(cache.contains("user@gmail.com", "sid-2")).isFalse();
+
+        cache.resubscribe();
+        assertThat(cache.contains("user@gmail.com", "sid-1")).isFalse();
+        awaitUntil(listenerContainer::isListening);
+    }
+
+    private void startListening() {
+        listenerContainer.start();
+        awaitUntil(listenerContainer::isListening);
+    }
+
+    // RedisTokenStore 와 같은 "발행 시각(ms):세션 ID:이메일" 형식
+    private void publish(String sessionId, String email) {
+        redisTemplate.convertAndSend(RedisTokenStore.REVOKED_CHANNEL,
+                System.currentTimeMillis() + ":" + sessionId + ":" + email);
+    }
+
+    // 조건이 참이 될 때까지 짧은 간격으로 다시 확인함
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within %d ms", AWAIT_TIMEOUT_MILLIS).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
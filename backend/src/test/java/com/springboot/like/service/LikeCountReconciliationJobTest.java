@@ -0,0 +1,180 @@
+package com.springboot.like.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.springboot.member.entity.Member;
+import com.springboot.question.entity.Question;
+import com.springboot.question.service.QuestionRanking;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+   like_count 가 LIKES 행 수와 다른 질문을 고치는지, 다른 서버가 락을 잡고 있으면 건너뛰는지,
+   like.storage=redis 에서 랭킹 점수를 Redis Set 의 좋아요 수로 맞추는지 jedis-mock 서버로 검증
+*/
+@SpringBootTest(properties = {
+        "like.storage=redis",
+        "like.reconcile.interval-ms=3600000"
+})
+class LikeCountReconciliationJobTest {
+    private static final RedisServer redisServer = startRedisServer();
+
+    @Autowired
+    private LikeCountReconciliationJob likeCountReconciliationJob;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> memberIds = new ArrayList<>();
+    private long driftedQuestionId;
+    private long correctQuestionId;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisServer::getHost);
+        registry.add("spring.data.redis.port", redisServer::getBindPort);
+    }
+
+    @AfterAll
+    static void stopRedisServer() throws IOException {
+        redisServer.stop();
+    }
+
+    // 좋아요 2개가 저장된 질문의 like_count 를 5 로 어긋나게 만들어 둠
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                Member member = new Member();
+                member.setEmail("drift" + i + "@gmail.com");
+                member.setName("drift" + i);
+                member.setPhone("010-2222-000" + i);
+                member.setPassword("password");
+                entityManager.persist(member);
+                memberIds.add(member.getMemberId());
+            }
+            driftedQuestionId = persistQuestion();
+            correctQuestionId = persistQuestion();
+        });
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.update("INSERT INTO likes (member_id, question_id) VALUES (?, ?)", memberIds.get(i), driftedQuestionId);
+        }
+        jdbcTemplate.update("UPDATE question SET like_count = 5 WHERE question_id = ?", driftedQuestionId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (RedisConnection connection = redisTemplate.getRequiredConnectionFactory().getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        for (long questionId : List.of(driftedQuestionId, correctQuestionId)) {
+            jdbcTemplate.update("DELETE FROM likes WHERE question_id = ?", questionId);
+            jdbcTemplate.update("DELETE FROM question WHERE question_id = ?", questionId);
+        }
+        for (Long memberId : memberIds) {
+            jdbcTemplate.update("DELETE FROM member_roles WHERE member_member_id = ?", memberId);
+            jdbcTemplate.update("DELETE FROM member WHERE member_id = ?", memberId);
+        }
+    }
+
+    @Test
+    void driftedLikeCountIsFixed() {
+        double fixed = meterRegistry.get("likes.count.reconcile.fixed").counter().count();
+        long version = version(driftedQuestionId);
+
+        likeCountReconciliationJob.reconcile();
+
+        assertThat(likeCount(driftedQuestionId)).isEqualTo(2);
+        assertThat(version(driftedQuestionId)).isGreaterThan(version);
+        assertThat(likeCount(correctQuestionId)).isZero();
+        assertThat(meterRegistry.get("likes.count.reconcile.fixed").counter().count()).isEqualTo(fixed + 1);
+        assertThat(redisTemplate.hasKey(LikeCountReconciliationJob.LOCK_KEY)).isFalse();
+    }
+
+    @Test
+    void skippedWhileAnotherServerHoldsLock() {
+        redisTemplate.opsForValue().set(LikeCountReconciliationJob.LOCK_KEY, "other-server");
+
+        likeCountReconciliationJob.reconcile();
+
+        assertThat(likeCount(driftedQuestionId)).isEqualTo(5);
+        assertThat(redisTemplate.opsForValue().get(LikeCountReconciliationJob.LOCK_KEY)).isEqualTo("other-server");
+
+        redisTemplate.delete(LikeCountReconciliationJob.LOCK_KEY);
+        likeCountReconciliationJob.reconcile();
+
+        assertThat(likeCount(driftedQuestionId)).isEqualTo(2);
+    }
+
+    // 저널이 아직 반영되지 않은 좋아요가 있으면 랭킹은 DB 의 행 수(2)가 아니라 Redis Set 의 좋아요 수(3)가 되어야 함
+    @Test
+    void rankingFollowsRedisLikeCount() {
+        String member = String.format("%019d", driftedQuestionId);
+        redisTemplate.opsForZSet().add(QuestionRanking.LIKE_RANKING_KEY, member, 5);
+        likeService.addOrMinusLike(driftedQuestionId, memberIds.get(2));
+
+        likeCountReconciliationJob.reconcile();
+
+        assertThat(likeCount(driftedQuestionId)).isEqualTo(2);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.LIKE_RANKING_KEY, member)).isEqualTo(3.0);
+    }
+
+    private long persistQuestion() {
+        Question question = new Question();
+        question.setTitle("title");
+        question.setContent("content");
+        question.setMember(entityManager.find(Member.class, memberIds.get(0)));
+        entityManager.persist(question);
+        return question.getQuestionId();
+    }
+
+    private int likeCount(long questionId) {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM question WHERE question_id = ?",
+                Integer.class, questionId);
+    }
+
+    private long version(long questionId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM question WHERE question_id = ?", Long.class, questionId);
+    }
+
+    private static RedisServer startRedisServer() {
+        try {
+            return RedisServer.newRedisServer().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.springboot.like.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.member.entity.Member;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.entity.Question;
+import com.springboot.question.service.QuestionRanking;
+import com.springboot.question.service.QuestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/*
+   like.storage=redis 에서 토글, 좋아요 여부 조회, 저널 반영, 반영 지연 메트릭을 jedis-mock 서버로 검증
+   반영은 테스트에서 reconcile() 을 직접 호출해서 실행함 (스케줄은 시작할 때 한번만 실행되도록 주기를 길게 설정)
+*/
+@SpringBootTest(properties = {
+        "like.storage=redis",
+        "like.reconcile.interval-ms=3600000"
+})
+class LikeReconcilerTest {
+    private static final RedisServer redisServer = startRedisServer();
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeReconciler likeReconciler;
+
+    @Autowired
+    private RedisLikeStore redisLikeStore;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long memberId;
+    private long questionId;
+    private long otherQuestionId;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisServer::getHost);
+        registry.add("spring.data.redis.port", redisServer::getBindPort);
+    }
+
+    @AfterAll
+    static void stopRedisServer() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = new Member();
+            member.setEmail("reconcile@gmail.com");
+            member.setName("reconcile");
+            member.setPhone("010-1111-0000");
+            member.setPassword("password");
+            entityManager.persist(member);
+            memberId = member.getMemberId();
+
+            Question question = new Question();
+            question.setTitle("title");
+            question.setContent("content");
+            question.setMember(member);
+            entityManager.persist(question);
+            questionId = question.getQuestionId();
+
+            Question otherQuestion = new Question();
+            otherQuestion.setTitle("other");
+            otherQuestion.setContent("content");
+            otherQuestion.setMember(member);
+            entityManager.persist(otherQuestion);
+            otherQuestionId = otherQuestion.getQuestionId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        try (RedisConnection connection = redisTemplate.getRequiredConnectionFactory().getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        for (long id : List.of(questionId, otherQuestionId)) {
+            jdbcTemplate.update("DELETE FROM likes WHERE question_id = ?", id);
+            jdbcTemplate.update("DELETE FROM question WHERE question_id = ?", id);
+        }
+        jdbcTemplate.update("DELETE FROM member_roles WHERE member_member_id = ?", memberId);
+        jdbcTemplate.update("DELETE FROM member WHERE member_id = ?", memberId);
+    }
+
+    // 목록 ETag 가 바로 바뀌도록 토글할 때 version 을 올리고, 저널이 반영되면 LIKES 와 like_count 가 맞춰짐
+    @Test
+    void toggleIncreasesVersionAndIsReconciled() {
+        long version = version();
+
+        assertThat(likeService.addOrMinusLike(questionId, memberId)).isEqualTo(1);
+
+        assertThat(version()).isGreaterThan(version);
+        assertThat(likeRows()).isZero();
+
+        likeReconciler.reconcile();
+
+        assertThat(likeRows()).isEqualTo(1);
+        assertThat(likeCount()).isEqualTo(1);
+        assertThat(redisTemplate.hasKey(RedisLikeStore.PROCESSING_KEY)).isFalse();
+    }
+
+    /*
+       좋아요 여부는 Set 이 채워진 질문만 Redis 에서 파이프라인 한번으로 확인하고(저널이 반영되기 전이어도 Redis 의 상태를 따름)
+       한번도 토글되지 않은 질문은 DB 의 LIKES 로 확인함
+    */
+    @Test
+    void likedByMeReadsLoadedQuestionsFromRedisAndOthersFromDatabase() {
+        likeService.addOrMinusLike(questionId, memberId);
+        jdbcTemplate.update("INSERT INTO likes (member_id, question_id) VALUES (?, ?)", memberId, otherQuestionId);
+
+        assertThat(redisLikeStore.findLikedStates(List.of(questionId, otherQuestionId), memberId))
+                .containsOnlyKeys(questionId)
+                .containsEntry(questionId, true);
+        assertThat(likeService.findLikedQuestionIds(List.of(questionId, otherQuestionId), memberId))
+                .containsExactlyInAnyOrder(questionId, otherQuestionId);
+        assertThat(likeService.findLikedQuestionIds(List.of(questionId, otherQuestionId), memberId + 1)).isEmpty();
+
+        // 좋아요를 취소하면 저널이 반영되기 전에도 Redis 의 상태로 응답함
+        likeService.addOrMinusLike(questionId, memberId);
+
+        assertThat(redisLikeStore.findLikedStates(List.of(questionId), memberId)).containsEntry(questionId, false);
+        assertThat(likeService.findLikedQuestionIds(List.of(questionId, otherQuestionId), memberId))
+                .containsExactly(otherQuestionId);
+    }
+
+    // 목록도 저널이 반영되기 전에 Redis Set 의 좋아요 수(SCARD)로 응답해서 like_desc 랭킹 순서와 맞음
+    @Test
+    void listShowsRedisLikeCountBeforeJournalIsApplied() {
+        likeService.addOrMinusLike(questionId, memberId);
+
+        QuestionResponseDto listed = questionService.findQuestions(1, 50, "latest").getContent().stream()
+                .filter(question -> question.getQuestionId() == questionId)
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(likeCount()).isZero();
+        assertThat(listed.getLikeCount()).isEqualTo(1);
+        assertThat(redisLikeStore.findLikeCounts(List.of(questionId, otherQuestionId)))
+                .containsOnlyKeys(questionId)
+                .containsEntry(questionId, 1);
+    }
+
+    /*
+       삭제된 질문은 Set 과 loaded 키를 지우므로 이후의 토글이 질문 상태 확인에서 거절되고 랭킹에 다시 추가되지 않음
+       삭제 전에 쌓인 저널은 Set 이 없으므로 DB 의 좋아요를 바꾸지 않음
+    */
+    @Test
+    void deletedQuestionRejectsToggleAndKeepsLikes() {
+        likeService.addOrMinusLike(questionId, memberId);
+        likeReconciler.reconcile();
+        likeService.addOrMinusLike(questionId, memberId);
+
+        questionService.deleteQuestion(questionId, memberId);
+
+        assertThat(redisTemplate.hasKey("{likes}:question:" + questionId)).isFalse();
+        assertThat(redisTemplate.hasKey("{likes}:question:" + questionId + ":loaded")).isFalse();
+        assertThatThrownBy(() -> likeService.addOrMinusLike(questionId, memberId))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.LIKE_RANKING_KEY,
+                String.format("%019d", questionId))).isNull();
+
+        likeReconciler.reconcile();
+
+        assertThat(likeRows()).isEqualTo(1);
+        assertThat(redisTemplate.hasKey(RedisLikeStore.PROCESSING_KEY)).isFalse();
+    }
+
+    /*
+       서버가 죽어서 처리 중 목록이 남은 두 경우
+       1. 저널을 처리 중 목록으로 옮긴 뒤 DB 에 반영하기 전
+       2. DB 에 반영한 뒤 처리 중 목록을 지우기 전 (같은 내역이 두번 반영됨)
+       다음 실행은 새 저널보다 처리 중 목록을 먼저 반영하고, 여러번 반영해도 결과가 같아야 함
+    */
+    @Test
+    void processingLeftByCrashedRunIsReappliedBeforeJournal() {
+        likeService.addOrMinusLike(questionId, memberId);
+        redisTemplate.opsForList().rightPopAndLeftPush(RedisLikeStore.JOURNAL_KEY, RedisLikeStore.PROCESSING_KEY);
+
+        likeReconciler.reconcile();
+
+        assertThat(likeRows()).isEqualTo(1);
+        assertThat(likeCount()).isEqualTo(1);
+
+        // 반영된 내역이 처리 중 목록에 다시 남아있고, 그 사이 좋아요가 취소된 경우
+        redisTemplate.opsForList().leftPush(RedisLikeStore.PROCESSING_KEY,
+                questionId + ":" + memberId + ":" + System.currentTimeMillis());
+        likeService.addOrMinusLike(questionId, memberId);
+
+        likeReconciler.reconcile();
+
+        // 처리 중 목록만 반영했고 Set 의 현재 상태(취소)로 맞춰짐
+        assertThat(likeRows()).isZero();
+        assertThat(likeCount()).isZero();
+        assertThat(redisTemplate.opsForList().size(RedisLikeStore.JOURNAL_KEY)).isEqualTo(1);
+
+        likeReconciler.reconcile();
+
+        assertThat(likeRows()).isZero();
+        assertThat(likeCount()).isZero();
+        assertThat(redisTemplate.opsForList().size(RedisLikeStore.JOURNAL_KEY)).isZero();
+        assertThat(redisTemplate.hasKey(RedisLikeStore.PROCESSING_KEY)).isFalse();
+    }
+
+    // 지연 시간은 처리 중 목록이 있으면 그 중 가장 오래된 내역, 없으면 저널에서 가장 오래된 내역 기준
+    @Test
+    void pendingCountAndLagReportOldestChange() {
+        assertThat(gauge("likes.journal.pending")).isZero();
+        assertThat(gauge("likes.journal.lag")).isZero();
+
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForList().leftPush(RedisLikeStore.JOURNAL_KEY, questionId + ":" + memberId + ":" + (now - 5_000));
+        redisTemplate.opsForList().leftPush(RedisLikeStore.JOURNAL_KEY, questionId + ":" + memberId + ":" + now);
+
+        assertThat(gauge("likes.journal.pending")).isEqualTo(2);
+        assertThat(gauge("likes.journal.lag")).isCloseTo(5, within(1.0));
+
+        redisTemplate.opsForList().leftPush(RedisLikeStore.PROCESSING_KEY, questionId + ":" + memberId + ":" + (now - 9_000));
+
+        assertThat(gauge("likes.journal.pending")).isEqualTo(3);
+        assertThat(gauge("likes.journal.lag")).isCloseTo(9, within(1.0));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private long version() {
+        return jdbcTemplate.queryForObject("SELECT version FROM question WHERE question_id = ?", Long.class, questionId);
+    }
+
+    private int likeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM question WHERE question_id = ?",
+                Integer.class, questionId);
+    }
+
+    private int likeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes WHERE question_id = ?",
+                Integer.class, questionId);
+    }
+
+    private static RedisServer startRedisServer() {
+        try {
+            return RedisServer.newRedisServer().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.springboot.like.service;
+
+import com.springboot.member.entity.Member;
+import com.springboot.question.entity.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 여러 스레드가 동시에 한 질문에 좋아요를 눌러도 좋아요 수가 유실되거나 중복 저장되지 않는지 검증
+// 트랜잭션을 커밋해야 동시성 문제가 드러나므로 @Transactional 을 사용하지 않고 끝나면 직접 정리함
+@SpringBootTest
+class LikeServiceConcurrencyTest {
+    private static final int MEMBER_COUNT = 50;
+    private static final int THREAD_COUNT = 16;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long questionId;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                Member member = new Member();
+                member.setEmail("liker" + i + "@gmail.com");
+                member.setName("liker" + i);
+                member.setPhone("010-0000-" + String.format("%04d", i));
+                member.setPassword("password");
+                entityManager.persist(member);
+                memberIds.add(member.getMemberId());
+            }
+
+            Question question = new Question();
+            question.setTitle("title");
+            question.setContent("content");
+            question.setMember(entityManager.find(Member.class, memberIds.get(0)));
+            entityManager.persist(question);
+            questionId = question.getQuestionId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM likes WHERE question_id = ?", questionId);
+        jdbcTemplate.update("DELETE FROM question WHERE question_id = ?", questionId);
+        for (Long memberId : memberIds) {
+            jdbcTemplate.update("DELETE FROM member_roles WHERE member_member_id = ?", memberId);
+            jdbcTemplate.update("DELETE FROM member WHERE member_id = ?", memberId);
+        }
+    }
+
+    @Test
+    void concurrentLikesFromDifferentMembersAreAllCounted() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        for (Long memberId : memberIds) {
+            tasks.add(() -> likeService.addOrMinusLike(questionId, memberId));
+        }
+
+        runConcurrently(tasks);
+
+        assertThat(likeCount()).isEqualTo(MEMBER_COUNT);
+        assertThat(likeRows()).isEqualTo(MEMBER_COUNT);
+    }
+
+    @Test
+    void concurrentTogglesFromSameMemberNeverDuplicateLikes() throws Exception {
+        // 회원마다 좋아요를 동시에 3번 누르면 (추가 -> 취소 -> 추가) 최종적으로 회원당 좋아요 1개가 남아야 함
+        int clicks = 3;
+        List<Runnable> tasks = new ArrayList<>();
+        // 같은 회원의 요청이 최대한 동시에 실행되도록 회원별로 연달아 넣음
+        for (Long memberId : memberIds) {
+            for (int i = 0; i < clicks; i++) {
+                tasks.add(() -> likeService.addOrMinusLike(questionId, memberId));
+            }
+        }
+
+        runConcurrently(tasks);
+
+        assertThat(likeRows()).isEqualTo(MEMBER_COUNT);
+        assertThat(likeCount()).isEqualTo(likeRows());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT member_id FROM likes WHERE question_id = ? " +
+                        "GROUP BY member_id HAVING COUNT(*) > 1) duplicated",
+                Integer.class, questionId)).isZero();
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Runnable task : tasks) {
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private int likeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM question WHERE question_id = ?",
+                Integer.class, questionId);
+    }
+
+    private int likeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes WHERE question_id = ?",
+                Integer.class, questionId);
+    }
+}
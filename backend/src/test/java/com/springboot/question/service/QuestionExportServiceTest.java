@@ -0,0 +1,115 @@
+package com.springboot.question.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.answer.entity.Answer;
+import com.springboot.member.entity.Member;
+import com.springboot.question.entity.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// NDJSON 과 CSV 내보내기가 같은 컬럼(작성자 memberId 포함)을 같은 순서로 내보내는지 검증
+@SpringBootTest
+@Transactional
+class QuestionExportServiceTest {
+    @Autowired
+    private QuestionExportService questionExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long memberId;
+    private long answeredQuestionId;
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setEmail("exporter@gmail.com");
+        member.setName("exporter");
+        member.setPhone("010-1234-5678");
+        member.setPassword("password");
+        entityManager.persist(member);
+        memberId = member.getMemberId();
+
+        Question answered = new Question();
+        answered.setTitle("answered, \"quoted\"");
+        answered.setContent("content");
+        answered.setMember(member);
+        entityManager.persist(answered);
+        answeredQuestionId = answered.getQuestionId();
+        since = answeredQuestionId - 1;
+
+        Answer answer = new Answer();
+        answer.setContent("answer");
+        answer.setMember(member);
+        answer.setQuestion(answered);
+        entityManager.persist(answer);
+
+        Question unanswered = new Question();
+        unanswered.setTitle("unanswered");
+        unanswered.setContent("content");
+        unanswered.setMember(member);
+        entityManager.persist(unanswered);
+        entityManager.flush();
+        entityManager.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@gmail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ndjsonAndCsvHaveSameColumns() throws Exception {
+        String[] lines = export(QuestionExportService.ExportFormat.NDJSON).split("\n");
+        String[] csvLines = export(QuestionExportService.ExportFormat.CSV).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(csvLines).hasSize(3);
+
+        JsonNode answered = objectMapper.readTree(lines[0]);
+        List<String> fields = new ArrayList<>();
+        answered.fieldNames().forEachRemaining(fields::add);
+        assertThat(String.join(",", fields)).isEqualTo(csvLines[0]);
+
+        assertThat(answered.get("questionId").asLong()).isEqualTo(answeredQuestionId);
+        assertThat(answered.get("memberId").asLong()).isEqualTo(memberId);
+        assertThat(answered.get("answerContent").asText()).isEqualTo("answer");
+        assertThat(csvLines[1]).isEqualTo(answeredQuestionId + ",\"answered, \"\"quoted\"\"\",content," + memberId
+                + ",exporter,QUESTION_REGISTERED,QUESTION_PUBLIC,0,0," + answered.get("answerId").asLong() + ",answer");
+
+        // 답변이 없는 질문은 answerId, answerContent 가 비어 있음
+        JsonNode unanswered = objectMapper.readTree(lines[1]);
+        assertThat(unanswered.get("memberId").asLong()).isEqualTo(memberId);
+        assertThat(unanswered.get("answerId").isNull()).isTrue();
+        assertThat(csvLines[2]).endsWith("," + memberId + ",exporter,QUESTION_REGISTERED,QUESTION_PUBLIC,0,0,,");
+    }
+
+    private String export(QuestionExportService.ExportFormat format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        questionExportService.exportQuestions(since, format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
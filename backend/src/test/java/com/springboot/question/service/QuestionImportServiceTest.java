@@ -0,0 +1,98 @@
+package com.springboot.question.service;
+
+import com.springboot.member.entity.Member;
+import com.springboot.question.dto.QuestionImportResponseDto;
+import com.springboot.question.dto.QuestionPostDto;
+import com.springboot.question.entity.Question;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class QuestionImportServiceTest {
+    private static final int ROWS = 30;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long memberId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setEmail("importer@gmail.com");
+        member.setName("importer");
+        member.setPhone("010-1234-5678");
+        member.setPassword("password");
+        entityManager.persist(member);
+        // 작성자에게 이미 질문이 있어도 등록할 때 목록을 불러오지 않아야 함
+        Question question = new Question();
+        question.setTitle("existing");
+        question.setContent("existing");
+        question.setMember(member);
+        entityManager.persist(question);
+        entityManager.flush();
+        entityManager.clear();
+        memberId = member.getMemberId();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@gmail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void importDoesNotLoadAuthorsQuestions() {
+        List<QuestionPostDto> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(row("title " + i, memberId));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        QuestionImportResponseDto result = questionImportService.importQuestions(rows);
+
+        assertThat(result.getImportedCount()).isEqualTo(ROWS);
+        assertThat(result.getErrors()).isEmpty();
+        // 작성자 검증으로 회원 한명만 조회하고, 회원의 질문 목록은 불러오지 않음
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionStatistics(Member.class.getName() + ".questions").getLoadCount()).isZero();
+        assertThat(entityManager.createQuery("select count(q) from Question q where q.member.memberId = :memberId", Long.class)
+                .setParameter("memberId", memberId)
+                .getSingleResult()).isEqualTo(ROWS + 1L);
+    }
+
+    private static QuestionPostDto row(String title, long memberId) {
+        QuestionPostDto questionPostDto = new QuestionPostDto();
+        ReflectionTestUtils.setField(questionPostDto, "title", title);
+        ReflectionTestUtils.setField(questionPostDto, "content", "content");
+        questionPostDto.setMemberId(memberId);
+        return questionPostDto;
+    }
+}
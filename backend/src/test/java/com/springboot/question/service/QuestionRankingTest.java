@@ -0,0 +1,195 @@
+package com.springboot.question.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+/*
+   인기 점수의 forward decay 계산과 랭킹 재구성을 jedis-mock 서버로 검증
+   반감기 1시간, 좋아요 5점, 조회 1점, 작성 10점
+   epoch 를 과거 시각으로 바꿔서 시간이 흐른 상태를 만듦
+*/
+class QuestionRankingTest {
+    private static final long HALF_LIFE_MILLIS = 60 * 60 * 1000;
+    private static final double LIKE_WEIGHT = 5;
+    private static final double CREATED_WEIGHT = 10;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QuestionRanking questionRanking;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = connectionFactory(redisServer.getHost(), redisServer.getBindPort());
+        redisTemplate = redisTemplate(connectionFactory);
+
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE question (question_id BIGINT PRIMARY KEY, like_count INT, view_count INT, " +
+                "create_at TIMESTAMP, question_status VARCHAR(30))");
+
+        questionRanking = new QuestionRanking(redisTemplate, jdbcTemplate, 1, LIKE_WEIGHT, 1, CREATED_WEIGHT);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+        database.shutdown();
+    }
+
+    // 반감기 하나 뒤의 좋아요는 2배를 더하므로, 지금 시점으로 보면 먼저 받은 좋아요의 비중이 절반이 됨
+    @Test
+    void laterEventAddsDoubleAfterOneHalfLife() {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(1), 0);
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(2), 0);
+        redisTemplate.opsForValue().set(QuestionRanking.TRENDING_EPOCH_KEY, String.valueOf(now));
+
+        questionRanking.incrementLikeCount(1, 1);
+        redisTemplate.opsForValue().set(QuestionRanking.TRENDING_EPOCH_KEY, String.valueOf(now - HALF_LIFE_MILLIS));
+        questionRanking.incrementLikeCount(2, 1);
+
+        assertThat(trendingScore(1)).isCloseTo(LIKE_WEIGHT, offset(0.01));
+        assertThat(trendingScore(2)).isCloseTo(LIKE_WEIGHT * 2, offset(0.01));
+
+        // 좋아요 취소는 취소한 시점의 가중치로 빼짐
+        questionRanking.incrementLikeCount(2, -1);
+        assertThat(trendingScore(2)).isCloseTo(0, offset(0.01));
+    }
+
+    // 조회수 반영처럼 랭킹에 없는 질문(삭제된 질문)은 다시 추가하지 않음
+    @Test
+    void incrementDoesNotAddMissingQuestion() {
+        redisTemplate.opsForZSet().add(QuestionRanking.LIKE_RANKING_KEY, member(1), 2);
+        redisTemplate.opsForZSet().add(QuestionRanking.VIEW_RANKING_KEY, member(1), 5);
+
+        questionRanking.incrementLikeCount(3, 1);
+        questionRanking.incrementLikeCount(1, 1);
+        questionRanking.incrementViewCounts(Map.of(1L, 4L, 3L, 7L));
+
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.TRENDING_RANKING_KEY, member(3))).isNull();
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.LIKE_RANKING_KEY, member(3))).isNull();
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.VIEW_RANKING_KEY, member(3))).isNull();
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.LIKE_RANKING_KEY, member(1))).isEqualTo(3.0);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.VIEW_RANKING_KEY, member(1))).isEqualTo(9.0);
+    }
+
+    // epoch 로부터 반감기의 64배가 지나면 모든 점수를 줄이고 지금을 새 epoch 로 만들어서 값이 계속 커지지 않음
+    @Test
+    void scoresAreRescaledAfter64HalfLives() {
+        long now = System.currentTimeMillis();
+        double oldScore = 1e20;
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(1), oldScore);
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(2), 0);
+        redisTemplate.opsForValue().set(QuestionRanking.TRENDING_EPOCH_KEY, String.valueOf(now - 65 * HALF_LIFE_MILLIS));
+
+        questionRanking.incrementLikeCount(2, 1);
+
+        assertThat(trendingScore(1)).isCloseTo(oldScore * Math.pow(2, -65), withinPercentage(0.1));
+        assertThat(trendingScore(2)).isCloseTo(LIKE_WEIGHT, offset(0.01));
+        assertThat(Long.parseLong((String) redisTemplate.opsForValue().get(QuestionRanking.TRENDING_EPOCH_KEY)))
+                .isGreaterThanOrEqualTo(now);
+    }
+
+    // 재구성은 기존 랭킹을 새 랭킹으로 바꾸고 epoch 도 함께 바꿔서, 이후 증가가 새 epoch 기준으로 계산됨
+    @Test
+    void rebuildReplacesRankingsAndEpochTogether() {
+        long now = System.currentTimeMillis();
+        insertQuestion(1, 3, 10, now, "QUESTION_REGISTERED");
+        insertQuestion(2, 0, 0, now - 2 * HALF_LIFE_MILLIS, "QUESTION_REGISTERED");
+        insertQuestion(3, 7, 7, now, "QUESTION_DELETED");
+        redisTemplate.opsForZSet().add(QuestionRanking.LIKE_RANKING_KEY, member(99), 100);
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(99), 100);
+        redisTemplate.opsForValue().set(QuestionRanking.TRENDING_EPOCH_KEY, String.valueOf(now - 10 * HALF_LIFE_MILLIS));
+
+        assertThat(questionRanking.rebuild()).isEqualTo(2);
+
+        assertThat(redisTemplate.opsForZSet().size(QuestionRanking.LIKE_RANKING_KEY)).isEqualTo(2);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.LIKE_RANKING_KEY, member(1))).isEqualTo(3.0);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.VIEW_RANKING_KEY, member(1))).isEqualTo(10.0);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.TRENDING_RANKING_KEY, member(99))).isNull();
+        // 작성 10 + 좋아요 3 * 5 + 조회 10 * 1 이 작성 시점(지금)에 발생한 것으로 계산
+        assertThat(trendingScore(1)).isCloseTo(35, offset(0.1));
+        // 반감기 2번 전에 작성된 질문은 1/4
+        assertThat(trendingScore(2)).isCloseTo(CREATED_WEIGHT / 4, offset(0.1));
+        assertThat(Long.parseLong((String) redisTemplate.opsForValue().get(QuestionRanking.TRENDING_EPOCH_KEY)))
+                .isGreaterThanOrEqualTo(now);
+        assertThat(redisTemplate.keys("*:rebuild")).isEmpty();
+
+        questionRanking.incrementLikeCount(2, 1);
+        assertThat(trendingScore(2)).isCloseTo(CREATED_WEIGHT / 4 + LIKE_WEIGHT, offset(0.1));
+    }
+
+    @Test
+    void rebuildWithoutQuestionsClearsRankings() {
+        redisTemplate.opsForZSet().add(QuestionRanking.LIKE_RANKING_KEY, member(99), 100);
+        redisTemplate.opsForZSet().add(QuestionRanking.TRENDING_RANKING_KEY, member(99), 100);
+        redisTemplate.opsForValue().set(QuestionRanking.TRENDING_EPOCH_KEY, "1");
+
+        assertThat(questionRanking.rebuild()).isZero();
+
+        assertThat(redisTemplate.hasKey(QuestionRanking.LIKE_RANKING_KEY)).isFalse();
+        assertThat(redisTemplate.hasKey(QuestionRanking.TRENDING_RANKING_KEY)).isFalse();
+        assertThat(redisTemplate.hasKey(QuestionRanking.TRENDING_EPOCH_KEY)).isFalse();
+    }
+
+    private void insertQuestion(long questionId, int likeCount, int viewCount, long createAt, String status) {
+        jdbcTemplate.update("INSERT INTO question VALUES (?, ?, ?, ?, ?)",
+                questionId, likeCount, viewCount, new Timestamp(createAt), status);
+    }
+
+    private double trendingScore(long questionId) {
+        return redisTemplate.opsForZSet().score(QuestionRanking.TRENDING_RANKING_KEY, member(questionId));
+    }
+
+    private static String member(long questionId) {
+        return String.format("%019d", questionId);
+    }
+
+    // jedis-mock 은 RESP3 를 지원하지 않으므로 RESP2 로 접속함
+    private static LettuceConnectionFactory connectionFactory(String host, int port) {
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(host, port), clientConfiguration);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,240 @@
+package com.springboot.question.service;
+
+import com.springboot.answer.entity.Answer;
+import com.springboot.answer.service.AnswerService;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.like.service.LikeService;
+import com.springboot.member.entity.Member;
+import com.springboot.member.service.MemberService;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.entity.Question;
+import com.springboot.question.repository.QuestionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+   캐시된 질문 조회 응답에도 비밀글 검증이 적용되는지, 질문/답변/좋아요/회원이 바뀌면 캐시에서 지워지는지 검증
+   캐시는 커밋된 이후에 지워지므로 @Transactional 을 사용하지 않고 끝나면 직접 정리함
+   조회수가 대기 중인 질문은 flush 때 캐시에서 지워지므로 findQuestion 대신 캐시에 직접 넣어서 확인함
+*/
+@SpringBootTest
+class QuestionResponseCacheTest {
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private AnswerService answerService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private QuestionResponseCache questionResponseCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long writerId;
+
+    private long otherId;
+
+    private long publicQuestionId;
+
+    private long secretQuestionId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member writer = member("cache-writer", "010-5555-0000");
+            Member other = member("cache-other", "010-5555-0001");
+            writerId = writer.getMemberId();
+            otherId = other.getMemberId();
+
+            publicQuestionId = question(writer, Question.Visibility.QUESTION_PUBLIC).getQuestionId();
+            secretQuestionId = question(writer, Question.Visibility.QUESTION_SECRET).getQuestionId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        for (long questionId : List.of(publicQuestionId, secretQuestionId)) {
+            jdbcTemplate.update("DELETE FROM answer WHERE question_id = ?", questionId);
+            jdbcTemplate.update("DELETE FROM likes WHERE question_id = ?", questionId);
+            jdbcTemplate.update("DELETE FROM question WHERE question_id = ?", questionId);
+        }
+        for (long memberId : List.of(writerId, otherId)) {
+            jdbcTemplate.update("DELETE FROM member_roles WHERE member_member_id = ?", memberId);
+            jdbcTemplate.update("DELETE FROM member WHERE member_id = ?", memberId);
+        }
+    }
+
+    // 캐시에서 꺼낸 비밀글도 작성자와 관리자만 조회할 수 있음
+    @Test
+    void secretQuestionIsCheckedOnCacheHit() {
+        cache(secretQuestionId);
+
+        assertThatThrownBy(() -> questionService.findQuestion(secretQuestionId, otherId))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThat(isCached(secretQuestionId)).isTrue();
+
+        assertThat(questionService.findQuestion(secretQuestionId, writerId).getQuestionId())
+                .isEqualTo(secretQuestionId);
+        loginAsAdmin();
+        assertThat(questionService.findQuestion(secretQuestionId, otherId).getQuestionId())
+                .isEqualTo(secretQuestionId);
+    }
+
+    @Test
+    void updateEvictsCachedQuestion() {
+        cache(publicQuestionId);
+
+        Question question = new Question();
+        question.setQuestionId(publicQuestionId);
+        question.setTitle("updated title");
+        questionService.updateQuestion(question, writerId);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(questionService.findQuestion(publicQuestionId, writerId).getTitle()).isEqualTo("updated title");
+    }
+
+    // 삭제된 질문은 캐시에서 지워지고 조회하면 404 로 응답함
+    @Test
+    void deleteEvictsCachedQuestion() {
+        cache(publicQuestionId);
+
+        questionService.deleteQuestion(publicQuestionId, writerId);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThatThrownBy(() -> questionService.findQuestion(publicQuestionId, writerId))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode")
+                .isEqualTo(ExceptionCode.QUESTION_NOT_FOUND);
+    }
+
+    // 답변 등록, 수정, 삭제는 모두 캐시된 응답의 답변을 바꾸므로 캐시에서 지움
+    @Test
+    void answerChangesEvictCachedQuestion() {
+        loginAsAdmin();
+        cache(publicQuestionId);
+
+        // AnswerMapper 처럼 ID 만 가진 회원, 질문으로 답변을 만듦
+        Member writer = new Member();
+        writer.setMemberId(otherId);
+        Question question = new Question();
+        question.setQuestionId(publicQuestionId);
+        Answer answer = new Answer();
+        answer.setContent("answer");
+        answer.setMember(writer);
+        answer.setQuestion(question);
+        long answerId = answerService.createAnswer(answer).getAnswerId();
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getAnswer().getContent()).isEqualTo("answer");
+
+        Answer patch = new Answer();
+        patch.setAnswerId(answerId);
+        patch.setContent("updated answer");
+        answerService.updateAnswer(patch);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getAnswer().getContent()).isEqualTo("updated answer");
+
+        answerService.deleteAnswer(answerId);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getAnswer()).isNull();
+    }
+
+    // 좋아요를 누르거나 취소하면 캐시된 응답의 좋아요 수가 바뀌므로 캐시에서 지움
+    @Test
+    void likeToggleEvictsCachedQuestion() {
+        cache(publicQuestionId);
+
+        likeService.addOrMinusLike(publicQuestionId, otherId);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getLikeCount()).isEqualTo(1);
+
+        likeService.addOrMinusLike(publicQuestionId, otherId);
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getLikeCount()).isZero();
+    }
+
+    // 회원이 탈퇴하면 비활성화된 질문 모두 캐시에서 지워짐 (요청 처리 중에는 open-in-view 로 세션이 열려 있으므로 트랜잭션 안에서 호출)
+    @Test
+    void memberDeletionEvictsCachedQuestions() {
+        loginAsAdmin();
+        cache(publicQuestionId);
+        cache(secretQuestionId);
+
+        transactionTemplate.executeWithoutResult(status -> memberService.deleteMember(writerId, writerId));
+
+        assertThat(isCached(publicQuestionId)).isFalse();
+        assertThat(isCached(secretQuestionId)).isFalse();
+        assertThat(cache(publicQuestionId).getQuestionStatus()).isEqualTo(Question.QuestionStatus.QUESTION_DEACTIVED);
+    }
+
+    private Member member(String name, String phone) {
+        Member member = new Member();
+        member.setEmail(name + "@gmail.com");
+        member.setName(name);
+        member.setPhone(phone);
+        member.setPassword("password");
+        entityManager.persist(member);
+        return member;
+    }
+
+    private Question question(Member writer, Question.Visibility visibility) {
+        Question question = new Question();
+        question.setTitle("title");
+        question.setContent("content");
+        question.setVisibility(visibility);
+        question.setMember(writer);
+        entityManager.persist(question);
+        return question;
+    }
+
+    // findQuestion 과 같은 쿼리로 캐시에 넣음 (이미 있으면 캐시된 응답을 반환)
+    private QuestionResponseDto cache(long questionId) {
+        return questionResponseCache.get(questionId, id -> questionRepository.findResponseById(id).orElseThrow());
+    }
+
+    // loader 가 null 을 반환하면 캐시에 저장하지 않으므로 캐시에 있는지만 확인할 수 있음
+    private boolean isCached(long questionId) {
+        return questionResponseCache.get(questionId, id -> null) != null;
+    }
+
+    private void loginAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@gmail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+}
@@ -0,0 +1,75 @@
+package com.springboot.question.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// bigram 색인 검색과 한 글자 검색어 처리, 비밀글 필터를 H2 에 저장한 질문으로 검증
+class QuestionSearchIndexTest {
+    private static final long OWNER_ID = 1;
+
+    private EmbeddedDatabase database;
+    private QuestionSearchIndex questionSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE question (question_id BIGINT PRIMARY KEY, member_id BIGINT, " +
+                "visibility VARCHAR(30), title VARCHAR(100), content VARCHAR(1000), question_status VARCHAR(30))");
+        insertQuestion(jdbcTemplate, 1, "QUESTION_PUBLIC", "회원가입이 안돼요", "가입 버튼을 눌러도 반응이 없어요");
+        insertQuestion(jdbcTemplate, 2, "QUESTION_PUBLIC", "배송 문의", "A 상품 배송이 언제 되나요");
+        insertQuestion(jdbcTemplate, 3, "QUESTION_SECRET", "회원 탈퇴", "회원 정보를 지워주세요");
+
+        questionSearchIndex = new QuestionSearchIndex(jdbcTemplate);
+        questionSearchIndex.build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void bigramsMatchWordsWithParticles() {
+        assertThat(questionSearchIndex.search("회원가입", ownerId -> false)).containsExactly(1L);
+        assertThat(questionSearchIndex.search("배송이", ownerId -> false)).containsExactly(2L);
+    }
+
+    // 비밀글은 canRead 가 true 인 경우(작성자, 관리자)에만 결과에 포함됨
+    @Test
+    void secretQuestionsAreFilteredByCanRead() {
+        assertThat(questionSearchIndex.search("회원", ownerId -> false)).containsExactly(1L);
+        assertThat(questionSearchIndex.search("회원", ownerId -> ownerId == OWNER_ID)).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    // 한 글자 단어는 bigram 색인으로 찾을 수 없으므로 검색어에서 제외하고, 남는 단어가 없으면 잘못된 검색어로 거절함
+    @Test
+    void singleCharacterWordsAreIgnoredOrRejected() {
+        assertThat(questionSearchIndex.search("A 상품", ownerId -> false)).containsExactly(2L);
+
+        assertThatThrownBy(() -> questionSearchIndex.search("회", ownerId -> false))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.SEARCH_QUERY_TOO_SHORT);
+        assertThatThrownBy(() -> questionSearchIndex.search("a ?", ownerId -> false))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+
+    private static void insertQuestion(JdbcTemplate jdbcTemplate, long questionId, String visibility,
+                                       String title, String content) {
+        jdbcTemplate.update("INSERT INTO question VALUES (?, ?, ?, ?, ?, 'QUESTION_REGISTERED')",
+                questionId, OWNER_ID, visibility, title, content);
+    }
+}
@@ -0,0 +1,194 @@
+package com.springboot.question.service;
+
+import com.springboot.answer.entity.Answer;
+import com.springboot.like.entity.Like;
+import com.springboot.member.entity.Member;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.entity.Question;
+import com.springboot.question.repository.QuestionRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class QuestionServiceTest {
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private long firstQuestionId;
+
+    private long likerId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setEmail("writer@gmail.com");
+        member.setName("writer");
+        member.setPhone("010-1234-5678");
+        member.setPassword("password");
+        entityManager.persist(member);
+        likerId = member.getMemberId();
+
+        // 절반의 질문에만 답변을 달아서 answer 가 있는 행과 없는 행을 섞음
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Question question = new Question();
+            question.setTitle("title " + i);
+            question.setContent("content " + i);
+            question.setMember(member);
+            entityManager.persist(question);
+
+            if (i % 2 == 0) {
+                Answer answer = new Answer();
+                answer.setContent("answer " + i);
+                answer.setMember(member);
+                answer.setQuestion(question);
+                entityManager.persist(answer);
+            }
+            // 3의 배수 번째 질문에만 좋아요
+            if (i % 3 == 0) {
+                Like like = new Like();
+                like.setMember(member);
+                like.setQuestion(question);
+                entityManager.persist(like);
+            }
+            if (i == 0) {
+                firstQuestionId = question.getQuestionId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findQuestionsRunsOneSelectAndOneCountPerPage() {
+        Page<QuestionResponseDto> page = questionService.findQuestions(1, PAGE_SIZE, "latest");
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(question -> assertThat(question.getName()).isEqualTo("writer"));
+        assertThat(page.getContent()).filteredOn(question -> question.getAnswer() != null).hasSize(PAGE_SIZE / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findQuestionsByCursorRunsOneSelectPerPage() {
+        Slice<QuestionResponseDto> slice = questionService.findQuestionsByCursor(null, PAGE_SIZE, "like_desc");
+
+        assertThat(slice.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // DB 정렬도 Redis 랭킹처럼 같은 좋아요 수, 조회수는 questionId 가 큰 순으로 정렬함
+    @Test
+    void descendingCountSortsBreakTiesByQuestionIdDescending() {
+        List<QuestionResponseDto> byLikes = questionService.findQuestions(1, PAGE_SIZE, "like_desc").getContent();
+        List<QuestionResponseDto> byViews = questionService.findQuestions(1, PAGE_SIZE, "view_desc").getContent();
+
+        assertThat(byLikes).isSortedAccordingTo(Comparator.comparing(QuestionResponseDto::getLikeCount)
+                .thenComparing(QuestionResponseDto::getQuestionId).reversed());
+        assertThat(byViews).isSortedAccordingTo(Comparator.comparing(QuestionResponseDto::getViewCount)
+                .thenComparing(QuestionResponseDto::getQuestionId).reversed());
+    }
+
+    @Test
+    void findQuestionRunsQuestionAndLikedByMeSelects() {
+        QuestionResponseDto question = questionService.findQuestion(firstQuestionId, likerId);
+
+        assertThat(question.getAnswer().getContent()).isEqualTo("answer 0");
+        assertThat(question.isLikedByMe()).isTrue();
+        // 질문 조회 1번 + 좋아요 여부 조회 1번
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void applyLikedByMeRunsOneSelectPerPage() {
+        List<QuestionResponseDto> questions = questionService.findQuestions(1, PAGE_SIZE, "latest").getContent();
+        statistics.clear();
+
+        List<QuestionResponseDto> responses = questionService.applyLikedByMe(questions, likerId);
+
+        // 최신순이므로 목록의 i 번째 질문은 (PAGE_SIZE - 1 - i) 번째로 등록된 질문
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            assertThat(responses.get(i).isLikedByMe()).isEqualTo((PAGE_SIZE - 1 - i) % 3 == 0);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // 로그인하지 않은 요청은 좋아요 여부를 조회하지 않고 모두 false 로 응답함
+    @Test
+    void applyLikedByMeSkipsAnonymousPrincipal() {
+        List<QuestionResponseDto> questions = questionService.findQuestions(1, PAGE_SIZE, "latest").getContent();
+        statistics.clear();
+
+        List<QuestionResponseDto> responses =
+                questionService.applyLikedByMe(questions, QuestionService.ANONYMOUS_MEMBER_ID);
+
+        assertThat(responses).noneMatch(QuestionResponseDto::isLikedByMe);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // 목록 ETag 사전 확인은 ID, version 만 조회하는 쿼리와 count 쿼리만 실행하고 본문으로 계산한 ETag 와 같음
+    @Test
+    void questionsETagIsCheckedBeforeBodyAndMatchesBody() {
+        String eTag = questionService.getQuestionsETag(1, PAGE_SIZE, "latest", likerId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        Page<QuestionResponseDto> page = questionService.findQuestions(1, PAGE_SIZE, "latest");
+        List<QuestionResponseDto> responses = questionService.applyLikedByMe(page.getContent(), likerId);
+
+        assertThat(questionService.getQuestionsETag(page, responses, "latest", likerId)).isEqualTo(eTag);
+        assertThat(questionService.getQuestionsETag(1, PAGE_SIZE, "latest", likerId + 1)).isNotEqualTo(eTag);
+
+        // 조회수 정렬은 조회수까지 포함해서 계산함
+        Page<QuestionResponseDto> viewPage = questionService.findQuestions(1, PAGE_SIZE, "view_desc");
+        List<QuestionResponseDto> viewResponses = questionService.applyLikedByMe(viewPage.getContent(), likerId);
+
+        assertThat(questionService.getQuestionsETag(viewPage, viewResponses, "view_desc", likerId))
+                .isEqualTo(questionService.getQuestionsETag(1, PAGE_SIZE, "view_desc", likerId));
+    }
+
+    // 사전 확인 이후에 version 이 바뀌면 본문으로 계산한 ETag 가 달라져서 바뀐 본문에 맞는 ETag 로 응답함
+    @Test
+    void questionsETagChangesWithVersion() {
+        String eTag = questionService.getQuestionsETag(1, PAGE_SIZE, "latest", likerId);
+
+        questionRepository.increaseVersion(List.of(firstQuestionId));
+        entityManager.clear();
+        Page<QuestionResponseDto> changedPage = questionService.findQuestions(1, PAGE_SIZE, "latest");
+        List<QuestionResponseDto> changedResponses = questionService.applyLikedByMe(changedPage.getContent(), likerId);
+
+        assertThat(questionService.getQuestionsETag(changedPage, changedResponses, "latest", likerId)).isNotEqualTo(eTag);
+        assertThat(questionService.getQuestionsETag(1, PAGE_SIZE, "latest", likerId))
+                .isEqualTo(questionService.getQuestionsETag(changedPage, changedResponses, "latest", likerId));
+    }
+}
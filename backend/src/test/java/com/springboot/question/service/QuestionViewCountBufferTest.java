@@ -0,0 +1,213 @@
+package com.springboot.question.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.springboot.question.dto.QuestionResponseDto;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+   조회수 버퍼의 flush, 종료 시 flush, flush 와 겹친 조회의 조회수가 줄어들지 않는지를 H2 와 jedis-mock 서버로 검증
+   조회 응답처럼 캐시된 응답(DB 의 view_count)에 대기 중인 조회수를 더해서 읽음
+*/
+class QuestionViewCountBufferTest {
+    private static final long QUESTION_ID = 1;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QuestionResponseCache questionResponseCache;
+    private QuestionViewCountBuffer viewCountBuffer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = connectionFactory(redisServer.getHost(), redisServer.getBindPort());
+        redisTemplate = redisTemplate(connectionFactory);
+
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE question (question_id BIGINT PRIMARY KEY, view_count INT)");
+        jdbcTemplate.update("INSERT INTO question VALUES (?, ?)", QUESTION_ID, 10);
+
+        questionResponseCache = new QuestionResponseCache(100, 60, new SimpleMeterRegistry());
+        QuestionRanking questionRanking = new QuestionRanking(redisTemplate, jdbcTemplate, 1, 5, 1, 10);
+        viewCountBuffer = new QuestionViewCountBuffer(jdbcTemplate, new DataSourceTransactionManager(database),
+                questionResponseCache, questionRanking);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+        database.shutdown();
+    }
+
+    // flush 는 대기 중인 조회수를 DB 와 조회수 랭킹에 더하고 캐시된 응답을 지움
+    @Test
+    void flushAppliesPendingCountsAndEvictsCache() {
+        redisTemplate.opsForZSet().add(QuestionRanking.VIEW_RANKING_KEY, member(QUESTION_ID), 10);
+        assertThat(viewCount()).isEqualTo(10);
+
+        for (int i = 0; i < 3; i++) {
+            viewCountBuffer.increment(QUESTION_ID);
+        }
+
+        assertThat(viewCountBuffer.getPendingCount(QUESTION_ID)).isEqualTo(3);
+        assertThat(viewCount()).isEqualTo(13);
+
+        viewCountBuffer.flush();
+
+        assertThat(dbViewCount()).isEqualTo(13);
+        assertThat(viewCountBuffer.getPendingCount(QUESTION_ID)).isZero();
+        assertThat(cachedViewCount()).isEqualTo(13);
+        assertThat(redisTemplate.opsForZSet().score(QuestionRanking.VIEW_RANKING_KEY, member(QUESTION_ID)))
+                .isEqualTo(13.0);
+    }
+
+    @Test
+    void shutdownFlushesRemainingCounts() {
+        viewCountBuffer.increment(QUESTION_ID);
+        viewCountBuffer.increment(QUESTION_ID);
+
+        viewCountBuffer.flushOnShutdown();
+
+        assertThat(dbViewCount()).isEqualTo(12);
+        assertThat(viewCountBuffer.getPendingCount(QUESTION_ID)).isZero();
+    }
+
+    // 한 주기 동안 조회가 없어서 맵에서 제거된 질문도 이후의 조회수가 빠짐없이 반영됨
+    @Test
+    void idleQuestionIsEvictedWithoutLosingLaterCounts() {
+        viewCountBuffer.increment(QUESTION_ID);
+        viewCountBuffer.flush();
+        viewCountBuffer.flush();
+
+        viewCountBuffer.increment(QUESTION_ID);
+        assertThat(viewCountBuffer.getPendingCount(QUESTION_ID)).isEqualTo(1);
+
+        viewCountBuffer.flush();
+
+        assertThat(dbViewCount()).isEqualTo(12);
+    }
+
+    /*
+       조회, flush 를 동시에 반복해도 응답의 조회수가 줄어들지 않고, 끝난 뒤에는 모든 조회수가 DB 에 반영됨
+       flush 가 DB 반영, 캐시 삭제, 차감 사이에 읽힌 값은 다시 읽으므로 같은 조회수가 두번 더해지거나 빠지지 않음
+    */
+    @Test
+    void viewCountNeverDecreasesWhileFlushing() throws Exception {
+        int writers = 4;
+        int incrementsPerWriter = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        AtomicBoolean decreased = new AtomicBoolean();
+        try {
+            for (int i = 0; i < writers; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < incrementsPerWriter; j++) {
+                        viewCountBuffer.increment(QUESTION_ID);
+                    }
+                    writersDone.countDown();
+                });
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                readers.add(executor.submit(() -> {
+                    long previous = 0;
+                    while (writersDone.getCount() > 0) {
+                        long current = viewCount();
+                        if (current < previous) {
+                            decreased.set(true);
+                        }
+                        previous = current;
+                    }
+                }));
+            }
+            while (!writersDone.await(1, TimeUnit.MILLISECONDS)) {
+                viewCountBuffer.flush();
+            }
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        viewCountBuffer.flush();
+
+        assertThat(decreased).isFalse();
+        assertThat(dbViewCount()).isEqualTo(10 + writers * incrementsPerWriter);
+        assertThat(viewCountBuffer.getPendingCount(QUESTION_ID)).isZero();
+    }
+
+    // 특정 질문 조회처럼 캐시된 응답의 조회수에 대기 중인 조회수를 더한 값
+    private long viewCount() {
+        return viewCountBuffer.readConsistently(() ->
+                cachedViewCount() + viewCountBuffer.getPendingCount(QUESTION_ID));
+    }
+
+    private int cachedViewCount() {
+        return questionResponseCache.get(QUESTION_ID, id -> QuestionResponseDto.builder()
+                .questionId(id)
+                .viewCount(dbViewCount())
+                .build()).getViewCount();
+    }
+
+    private int dbViewCount() {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM question WHERE question_id = ?",
+                Integer.class, QUESTION_ID);
+    }
+
+    private static String member(long questionId) {
+        return String.format("%019d", questionId);
+    }
+
+    // jedis-mock 은 RESP3 를 지원하지 않으므로 RESP2 로 접속함
+    private static LettuceConnectionFactory connectionFactory(String host, int port) {
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(host, port), clientConfiguration);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
@@ -0,0 +1,45 @@
+package com.springboot.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketsTest {
+    private final LocalTokenBuckets localTokenBuckets = new LocalTokenBuckets(100);
+    // 1초 동안 2개가 채워지는 버킷과 1개가 채워지는 버킷
+    private final RateLimiter.Bucket memberBucket = new RateLimiter.Bucket("member", 2, 1_000);
+    private final RateLimiter.Bucket ipBucket = new RateLimiter.Bucket("ip", 1, 1_000);
+
+    @Test
+    void rejectedRequestDebitsNoBucket() {
+        assertThat(localTokenBuckets.acquire(List.of(memberBucket, ipBucket), 0).isAllowed()).isTrue();
+
+        RateLimitResult rejected = localTokenBuckets.acquire(List.of(memberBucket, ipBucket), 0);
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getLimit()).isEqualTo(1);
+        // 회원 버킷은 차감되지 않았으므로 하나가 남아 있음
+        RateLimitResult memberOnly = localTokenBuckets.acquire(List.of(memberBucket), 0);
+        assertThat(memberOnly.isAllowed()).isTrue();
+        assertThat(memberOnly.getRemaining()).isZero();
+    }
+
+    @Test
+    void tokensRefillOverPeriod() {
+        localTokenBuckets.acquire(List.of(memberBucket), 0);
+        localTokenBuckets.acquire(List.of(memberBucket), 0);
+
+        RateLimitResult rejected = localTokenBuckets.acquire(List.of(memberBucket), 0);
+        assertThat(rejected.isAllowed()).isFalse();
+        // 토큰 하나는 500ms 뒤에 채워지고(올림해서 1초), 가득 차는 데는 1초가 걸림
+        assertThat(rejected.getRetryAfterSeconds()).isEqualTo(1);
+        assertThat(rejected.getResetSeconds()).isEqualTo(1);
+
+        assertThat(localTokenBuckets.acquire(List.of(memberBucket), 499).isAllowed()).isFalse();
+        RateLimitResult refilled = localTokenBuckets.acquire(List.of(memberBucket), 500);
+        assertThat(refilled.isAllowed()).isTrue();
+        assertThat(refilled.getRemaining()).isZero();
+    }
+}
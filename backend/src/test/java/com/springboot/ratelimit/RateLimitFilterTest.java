@@ -0,0 +1,60 @@
+package com.springboot.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 한도를 넘은 요청이 컨트롤러까지 가지 않고 429 로 거절되는지, 컨트롤러와 같은 규칙으로 API 를 찾는지 검증
+@SpringBootTest(properties = {
+        "rate-limit.storage=memory",
+        "rate-limit.member-create.ip=2",
+        "rate-limit.question-import.ip=1"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void trailingSlashCountsAgainstSameRoute() throws Exception {
+        mockMvc.perform(post("/v1/members").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-RateLimit-Limit", "2"))
+                .andExpect(header().string("X-RateLimit-Remaining", "1"))
+                .andExpect(header().exists("X-RateLimit-Reset"));
+        mockMvc.perform(post("/v1/members/").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-RateLimit-Remaining", "0"));
+
+        mockMvc.perform(post("/v1/members/").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("X-RateLimit-Remaining", "0"))
+                .andExpect(header().string("Retry-After", not("0")))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void importHasItsOwnLimit() throws Exception {
+        mockMvc.perform(post("/v1/questions/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(header().string("X-RateLimit-Limit", "1"));
+
+        mockMvc.perform(post("/v1/questions/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void otherRoutesAreNotLimited() throws Exception {
+        mockMvc.perform(get("/v1/questions/search").param("keyword", "spring"))
+                .andExpect(header().doesNotExist("X-RateLimit-Limit"));
+    }
+}
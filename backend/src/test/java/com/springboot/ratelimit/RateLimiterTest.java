@@ -0,0 +1,157 @@
+package com.springboot.ratelimit;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// jedis-mock 서버에서 Lua 스크립트로 회원, IP 버킷을 함께 확인하고 차감하는지 검증
+class RateLimiterTest {
+    private static final int MEMBER_CAPACITY = 3;
+    private static final int IP_CAPACITY = 5;
+    private static final String MEMBER_KEY = "{ratelimit:question-create}:member:1";
+    private static final String IP_KEY = "{ratelimit:question-create}:ip:10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = connectionFactory(redisServer.getBindPort());
+        redisTemplate = redisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void memberAndIpBucketsAreDebitedTogether() {
+        RateLimiter rateLimiter = rateLimiter(redisTemplate, "redis");
+
+        for (int i = 0; i < MEMBER_CAPACITY; i++) {
+            RateLimitResult result = rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 1L, "10.0.0.1");
+            assertThat(result.isAllowed()).isTrue();
+            assertThat(result.getLimit()).isEqualTo(MEMBER_CAPACITY);
+            assertThat(result.getRemaining()).isEqualTo(MEMBER_CAPACITY - 1 - i);
+        }
+        assertThat(storedTokens(MEMBER_KEY)).isCloseTo(0, within(0.1));
+        assertThat(storedTokens(IP_KEY)).isCloseTo(IP_CAPACITY - MEMBER_CAPACITY, within(0.1));
+    }
+
+    @Test
+    void rejectedRequestDebitsNoBucket() {
+        RateLimiter rateLimiter = rateLimiter(redisTemplate, "redis");
+        for (int i = 0; i < MEMBER_CAPACITY; i++) {
+            rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 1L, "10.0.0.1");
+        }
+
+        RateLimitResult rejected = rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 1L, "10.0.0.1");
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRemaining()).isZero();
+        // 토큰 하나가 채워지는 시간은 60초 / 3 = 20초
+        assertThat(rejected.getRetryAfterSeconds()).isBetween(1L, 20L);
+        assertThat(storedTokens(IP_KEY)).isCloseTo(IP_CAPACITY - MEMBER_CAPACITY, within(0.1));
+
+        // 같은 IP 의 다른 회원은 남은 IP 토큰만큼 요청할 수 있음
+        assertThat(rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 2L, "10.0.0.1").isAllowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 2L, "10.0.0.1").isAllowed()).isTrue();
+        RateLimitResult ipRejected = rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 2L, "10.0.0.1");
+        assertThat(ipRejected.isAllowed()).isFalse();
+        assertThat(ipRejected.getLimit()).isEqualTo(IP_CAPACITY);
+
+        assertThat(requests("allowed")).isEqualTo(MEMBER_CAPACITY + 2);
+        assertThat(requests("limited")).isEqualTo(2);
+    }
+
+    @Test
+    void routeWithoutMemberLimitUsesIpBucketOnly() {
+        RateLimiter rateLimiter = rateLimiter(redisTemplate, "redis");
+
+        RateLimitResult result = rateLimiter.tryAcquire(RateLimitRoute.MEMBER_CREATE, 1L, "10.0.0.1");
+
+        assertThat(result.getLimit()).isEqualTo(IP_CAPACITY);
+        assertThat(Boolean.TRUE.equals(redisTemplate.hasKey("{ratelimit:member-create}:member:1"))).isFalse();
+    }
+
+    // Redis 에 연결할 수 없어도 서버 메모리의 버킷으로 같은 한도를 적용함
+    @Test
+    void fallsBackToLocalBucketsWhenRedisFails() throws Exception {
+        RedisServer stoppedServer = RedisServer.newRedisServer().start();
+        int port = stoppedServer.getBindPort();
+        stoppedServer.stop();
+        LettuceConnectionFactory unreachable = connectionFactory(port);
+        try {
+            RateLimiter rateLimiter = rateLimiter(redisTemplate(unreachable), "redis");
+
+            for (int i = 0; i < MEMBER_CAPACITY; i++) {
+                assertThat(rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 1L, "10.0.0.1").isAllowed()).isTrue();
+            }
+            assertThat(rateLimiter.tryAcquire(RateLimitRoute.QUESTION_CREATE, 1L, "10.0.0.1").isAllowed()).isFalse();
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private RateLimiter rateLimiter(RedisTemplate<String, Object> redisTemplate, String storage) {
+        MockEnvironment environment = new MockEnvironment();
+        for (RateLimitRoute route : RateLimitRoute.values()) {
+            String prefix = "rate-limit." + route.getKey() + ".";
+            environment.setProperty(prefix + "member", route == RateLimitRoute.MEMBER_CREATE ? "0" : String.valueOf(MEMBER_CAPACITY));
+            environment.setProperty(prefix + "ip", String.valueOf(IP_CAPACITY));
+            environment.setProperty(prefix + "refill-seconds", "60");
+        }
+        return new RateLimiter(redisTemplate, environment, storage, 60_000, 1000, meterRegistry);
+    }
+
+    private double storedTokens(String key) {
+        byte[] tokens = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hGet(key.getBytes(StandardCharsets.UTF_8), "tokens".getBytes(StandardCharsets.UTF_8)));
+        return Double.parseDouble(new String(tokens, StandardCharsets.UTF_8));
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry.get("ratelimit.requests").tag("route", "question-create").tag("outcome", outcome).counter().count();
+    }
+
+    // jedis-mock 은 RESP3 를 지원하지 않으므로 RESP2 로 접속함
+    private LettuceConnectionFactory connectionFactory(int port) {
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), port), clientConfiguration);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+}
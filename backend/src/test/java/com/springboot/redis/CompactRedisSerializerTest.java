@@ -0,0 +1,111 @@
+package com.springboot.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.answer.dto.AnswerResponseDto;
+import com.springboot.question.dto.QuestionResponseDto;
+import com.springboot.question.entity.Question;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactRedisSerializerTest {
+    private static final int COMPRESS_THRESHOLD_BYTES = 1024;
+
+    private final ObjectMapper smileMapper = CompactRedisTemplates.smileMapper();
+    private final CompactRedisSerializer<QuestionResponseDto> serializer =
+            new CompactRedisSerializer<>(smileMapper, QuestionResponseDto.class, 1, COMPRESS_THRESHOLD_BYTES);
+
+    // 응답에서는 숨기는 memberId, version 도 캐시에는 저장되어야 함
+    @Test
+    void questionResponseIsReadBackWithHiddenFields() {
+        QuestionResponseDto question = question(100);
+
+        byte[] bytes = serializer.serialize(question);
+
+        assertThat(bytes[0]).isEqualTo(CompactRedisSerializer.FORMAT_VERSION);
+        assertThat(bytes[1]).isZero();
+        QuestionResponseDto read = serializer.deserialize(bytes);
+        assertThat(read).usingRecursiveComparison().isEqualTo(question);
+        assertThat(read.getMemberId()).isEqualTo(7L);
+        assertThat(read.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void largeValueIsCompressedAndReadBack() {
+        QuestionResponseDto question = question(5_000);
+
+        byte[] bytes = serializer.serialize(question);
+
+        assertThat(bytes[1]).isEqualTo((byte) 1);
+        assertThat(bytes.length).isLessThan(smileBodySize(question));
+        assertThat(serializer.deserialize(bytes)).usingRecursiveComparison().isEqualTo(question);
+    }
+
+    // 배포 중 다른 버전의 서버가 저장한 값은 캐시 미스로 처리함
+    @Test
+    void otherSchemaOrFormatVersionIsReadAsMiss() {
+        byte[] bytes = serializer.serialize(question(100));
+        CompactRedisSerializer<QuestionResponseDto> nextSchema =
+                new CompactRedisSerializer<>(smileMapper, QuestionResponseDto.class, 2, COMPRESS_THRESHOLD_BYTES);
+
+        assertThat(nextSchema.deserialize(bytes)).isNull();
+
+        bytes[0] = CompactRedisSerializer.FORMAT_VERSION + 1;
+        assertThat(serializer.deserialize(bytes)).isNull();
+    }
+
+    @Test
+    void nullAndCorruptedValues() {
+        assertThat(serializer.deserialize(serializer.serialize(null))).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+
+        byte[] bytes = serializer.serialize(question(5_000));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+    }
+
+    // 같은 필드를 JSON 으로 저장할 때보다 작아야 함 (직렬화 시간 비교는 src/jmh 의 CompactRedisSerializerBenchmark)
+    @Test
+    void smallerThanJson() {
+        Jackson2JsonRedisSerializer<QuestionResponseDto> json = new Jackson2JsonRedisSerializer<>(QuestionResponseDto.class);
+        json.setObjectMapper(Jackson2ObjectMapperBuilder.json()
+                .annotationIntrospector(CompactRedisTemplates.cacheAnnotationIntrospector())
+                .build());
+
+        for (int contentLength : new int[]{100, 5_000}) {
+            QuestionResponseDto question = question(contentLength);
+            assertThat(serializer.serialize(question).length).isLessThan(json.serialize(question).length);
+        }
+    }
+
+    private int smileBodySize(QuestionResponseDto question) {
+        return new CompactRedisSerializer<>(smileMapper, QuestionResponseDto.class, 1, 0).serialize(question).length
+                - CompactRedisSerializer.HEADER_SIZE;
+    }
+
+    static QuestionResponseDto question(int contentLength) {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < contentLength) {
+            content.append("RedisTemplate 으로 DTO 를 저장할 때 직렬화 방식은 어떤 것을 사용하나요? ");
+        }
+        return QuestionResponseDto.builder()
+                .questionId(1_000L)
+                .title("스프링 부트에서 Redis 캐시를 사용하는 방법")
+                .content(content.substring(0, contentLength))
+                .memberId(7L)
+                .name("홍길동")
+                .questionStatus(Question.QuestionStatus.QUESTION_REGISTERED)
+                .visibility(Question.Visibility.QUESTION_PUBLIC)
+                .likeCount(12)
+                .viewCount(345)
+                .answer(AnswerResponseDto.builder().answerId(10L).content("답변").build())
+                .version(3L)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.springboot.redis;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import com.springboot.question.dto.QuestionResponseDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// jedis-mock 서버에 명령 지연을 넣어서 Redis 가 멈췄을 때 요청이 timeout-ms 안에 실패하는지 검증
+@SpringBootTest(classes = RedisRepositoryConfig.class)
+class RedisRepositoryConfigTest {
+    private static final long COMMAND_TIMEOUT_MILLIS = 500;
+    private static final long STALL_MILLIS = 5_000;
+
+    // 0 보다 크면 GET 명령을 그만큼 늦게 처리함
+    private static final AtomicLong getDelayMillis = new AtomicLong();
+    private static final RedisServer redisServer = startRedisServer();
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private CompactRedisTemplates compactRedisTemplates;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", redisServer::getHost);
+        registry.add("spring.data.redis.port", redisServer::getBindPort);
+        registry.add("spring.data.redis.timeout-ms", () -> COMMAND_TIMEOUT_MILLIS);
+    }
+
+    @AfterEach
+    void resetDelay() {
+        getDelayMillis.set(0);
+    }
+
+    @AfterAll
+    static void stopRedisServer() throws IOException {
+        redisServer.stop();
+    }
+
+    @Test
+    void commandsAndPipelinesSucceed() {
+        redisTemplate.opsForValue().set("key", "value");
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < 200; i++) {
+                connection.incr("counter".getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        assertThat(redisTemplate.opsForValue().get("key")).isEqualTo("value");
+        assertThat(results).hasSize(200).last().isEqualTo(200L);
+    }
+
+    @Test
+    void compactTemplateStoresTypedValues() {
+        RedisTemplate<String, QuestionResponseDto> questionTemplate = compactRedisTemplates.create(QuestionResponseDto.class, 1);
+        QuestionResponseDto question = CompactRedisSerializerTest.question(100);
+
+        questionTemplate.opsForValue().set("question:1", question);
+        questionTemplate.opsForHash().put("questions", "1", question);
+
+        assertThat(questionTemplate.opsForValue().get("question:1")).usingRecursiveComparison().isEqualTo(question);
+        assertThat(questionTemplate.<String, QuestionResponseDto>opsForHash().get("questions", "1"))
+                .usingRecursiveComparison().isEqualTo(question);
+        // 스키마 버전이 바뀐 템플릿은 이전 값을 읽지 않음
+        assertThat(compactRedisTemplates.create(QuestionResponseDto.class, 2).opsForValue().get("question:1")).isNull();
+    }
+
+    @Test
+    void stalledCommandFailsWithinCommandTimeout() {
+        getDelayMillis.set(STALL_MILLIS);
+
+        long startedAt = System.currentTimeMillis();
+        assertThatThrownBy(() -> redisTemplate.opsForValue().get("key"))
+                .isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(System.currentTimeMillis() - startedAt).isLessThan(STALL_MILLIS / 2);
+    }
+
+    @Test
+    void unreachableRedisFailsWithoutWaitingForReconnect() throws Exception {
+        RedisServer stoppedServer = RedisServer.newRedisServer().start();
+        int port = stoppedServer.getBindPort();
+        stoppedServer.stop();
+
+        LettuceConnectionFactory factory = (LettuceConnectionFactory) redisConnectionFactory;
+        LettuceConnectionFactory unreachable = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), port),
+                factory.getClientConfiguration());
+        unreachable.afterPropertiesSet();
+        try {
+            long startedAt = System.currentTimeMillis();
+            assertThatThrownBy(() -> unreachable.getConnection().ping())
+                    .isInstanceOf(RedisConnectionFailureException.class);
+
+            assertThat(System.currentTimeMillis() - startedAt).isLessThan(STALL_MILLIS / 2);
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private static RedisServer startRedisServer() {
+        try {
+            return RedisServer.newRedisServer()
+                    .setOptions(ServiceOptions.withInterceptor((state, command, params) -> {
+                        long delay = getDelayMillis.get();
+                        if (delay > 0 && "get".equalsIgnoreCase(command)) {
+                            try {
+                                Thread.sleep(delay);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return MockExecutor.proceed(state, command, params);
+                    }))
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}